@@ -0,0 +1,74 @@
+package com.kraj.tradeapp.benchmark;
+
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Range reads from the memory-mapped bar cache: one year of 1m bars, three-month window. Scores are
+ * microseconds per query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BarCacheBenchmark {
+
+    private static final int BARS = 365 * 24 * 60;
+    private static final long START = 1_704_067_200_000L;
+    private static final long WINDOW_FROM = START + 180L * 86_400_000;
+    private static final long WINDOW_TO = WINDOW_FROM + 90L * 86_400_000;
+
+    private Path dir;
+    private MappedBarStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("bar-cache-bench");
+        store = MappedBarStore.open(dir.resolve("NQ.bars"), 1024);
+        OHLCBarBuffer bars = new OHLCBarBuffer(BARS);
+        bars.setSymbol("NQ");
+        for (int i = 0; i < BARS; i++) {
+            long price = 21_000_000_000L + (i % 997) * 250_000L;
+            bars.add(START + i * 60_000L, price, price + 1_250_000, price - 750_000, price + 500_000);
+        }
+        store.rebuild(sink -> sink.put(bars));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.close();
+        Files.deleteIfExists(dir.resolve("NQ.bars"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void visitRange(Blackhole blackhole) {
+        long[] range = { Long.MIN_VALUE, Long.MAX_VALUE };
+        store.forEach(
+            WINDOW_FROM,
+            WINDOW_TO,
+            (epochMillis, open, high, low, close) -> {
+                range[0] = Math.max(range[0], high);
+                range[1] = Math.min(range[1], low);
+            }
+        );
+        blackhole.consume(range);
+    }
+
+    @Benchmark
+    public OHLCBarBuffer copyRange() {
+        return store.copyRange("NQ", WINDOW_FROM, WINDOW_TO);
+    }
+}
@@ -0,0 +1,146 @@
+package com.kraj.tradeapp.benchmark;
+
+import com.kraj.tradeapp.core.model.DealingRangeSnapshot;
+import com.kraj.tradeapp.core.model.EventInterval;
+import com.kraj.tradeapp.core.model.Quadrant;
+import com.kraj.tradeapp.core.repository.mongodb.DealingRangeSnapshotRepository;
+import com.kraj.tradeapp.core.service.DealingRangeStateCache;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+/**
+ * Dealing-range state of a watchlist (<code>watchlist</code> symbols, one interval) out of 200 symbols x 4
+ * intervals: one query per symbol, as the summary and bulk endpoints used to do, vs one <code>$in</code> query vs
+ * one batched read of {@link DealingRangeStateCache}. Scores are microseconds per watchlist.
+ * <p>
+ * Needs a MongoDB instance; the fixture is created once in its own database:
+ * <code>./gradlew jmh -PjmhIncludes=DealingRangeLookup -Djmh.mongoUri=mongodb://localhost:27017</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DealingRangeLookupBenchmark {
+
+    private static final String DATABASE = "dealing_range_lookup_bench";
+    private static final String COLLECTION = "dealing_range_snapshot";
+    private static final int SYMBOLS = 200;
+    private static final EventInterval[] INTERVALS = { EventInterval.M5, EventInterval.M15, EventInterval.H1, EventInterval.H4 };
+    private static final EventInterval INTERVAL = EventInterval.M15;
+
+    @Param({ "1", "30" })
+    public int watchlist;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private DealingRangeStateCache stateCache;
+    private List<String> symbols;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = MongoClients.create(System.getProperty("jmh.mongoUri", "mongodb://localhost:27017"));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        createFixture();
+        DealingRangeSnapshotRepository repository = new MongoRepositoryFactory(mongoTemplate).getRepository(
+            DealingRangeSnapshotRepository.class
+        );
+        stateCache = new DealingRangeStateCache(repository, mongoTemplate);
+        // spread the watchlist over the fixture
+        symbols = new ArrayList<>(watchlist);
+        for (int i = 0; i < watchlist; i++) {
+            symbols.add(symbol(i * (SYMBOLS / watchlist)));
+        }
+        stateCache.getAll(symbols, INTERVAL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public List<DealingRangeSnapshot> perSymbolQueries() {
+        List<DealingRangeSnapshot> result = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            DealingRangeSnapshot snapshot = mongoTemplate.findOne(
+                Query.query(Criteria.where("symbol").is(symbol).and("interval").is(INTERVAL)),
+                DealingRangeSnapshot.class,
+                COLLECTION
+            );
+            if (snapshot != null) {
+                result.add(snapshot);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<DealingRangeSnapshot> inQuery() {
+        return mongoTemplate.find(
+            Query.query(Criteria.where("symbol").in(symbols).and("interval").is(INTERVAL)),
+            DealingRangeSnapshot.class,
+            COLLECTION
+        );
+    }
+
+    @Benchmark
+    public List<DealingRangeSnapshot> stateCache() {
+        return stateCache.getAll(symbols, INTERVAL);
+    }
+
+    private void createFixture() {
+        long documents = (long) SYMBOLS * INTERVALS.length;
+        if (mongoTemplate.collectionExists(COLLECTION) && mongoTemplate.getCollection(COLLECTION).estimatedDocumentCount() >= documents) {
+            return;
+        }
+        mongoTemplate.dropCollection(COLLECTION);
+        mongoTemplate
+            .indexOps(COLLECTION)
+            .ensureIndex(new Index().on("symbol", Sort.Direction.ASC).on("interval", Sort.Direction.ASC).named("symbol_interval_idx"));
+
+        List<DealingRangeSnapshot> snapshots = new ArrayList<>(SYMBOLS * INTERVALS.length);
+        for (int i = 0; i < SYMBOLS; i++) {
+            for (EventInterval interval : INTERVALS) {
+                BigDecimal low = BigDecimal.valueOf(20_000 + i);
+                snapshots.add(
+                    DealingRangeSnapshot.builder()
+                        .symbol(symbol(i))
+                        .interval(interval)
+                        .currentQuadrant(i % 2 == 0 ? Quadrant.Q2_50_75 : Quadrant.Q3_25_50)
+                        .currentPrice(low.add(BigDecimal.valueOf(50)))
+                        .rangeLow(low)
+                        .rangeHigh(low.add(BigDecimal.valueOf(100)))
+                        .rangeSize(BigDecimal.valueOf(100))
+                        .chartTimeframe(interval.getValue())
+                        .source("BENCHMARK")
+                        .lookbackBars(20)
+                        .build()
+                );
+            }
+        }
+        mongoTemplate.insert(snapshots, COLLECTION);
+    }
+
+    private static String symbol(int i) {
+        return "SYM" + i;
+    }
+}
@@ -0,0 +1,132 @@
+package com.kraj.tradeapp.benchmark;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.persistance.mongodb.OHLCData;
+import com.kraj.tradeapp.core.repository.mongodb.OhlcTimeSeriesRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Range reads of one symbol's 1m bars (one year, 525,600 bars) from the legacy <code>ohlc_data</code> layout
+ * (one document per bar, epoch-millis id, BigDecimal prices as strings, read through OHLCData mapping) vs the
+ * <code>ohlc_bars</code> time-series collection (double prices, read into an OHLCBarBuffer). Scores are
+ * milliseconds per query; the storage size of both collections is printed at the end of the trial.
+ * <p>
+ * Needs a MongoDB 7 instance; the fixture is created once in its own database:
+ * <code>./gradlew jmh -PjmhIncludes=MongoOhlcLayout -Djmh.mongoUri=mongodb://localhost:27017</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MongoOhlcLayoutBenchmark {
+
+    private static final String DATABASE = "ohlc_layout_bench";
+    private static final String LEGACY = "ohlc_data";
+    private static final String SYMBOL = "NQ";
+    private static final int BARS = 365 * 24 * 60;
+    private static final long START = 1_704_067_200_000L;
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({ "1", "30" })
+    public int rangeDays;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private OhlcTimeSeriesRepository repository;
+    private long from;
+    private long to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = MongoClients.create(System.getProperty("jmh.mongoUri", "mongodb://localhost:27017"));
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        repository = new OhlcTimeSeriesRepository(mongoTemplate);
+        createFixture();
+        from = START + 180L * 86_400_000;
+        to = from + rangeDays * 86_400_000L;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(LEGACY + ": " + repository.collectionStats(LEGACY));
+        System.out.println(OhlcTimeSeriesRepository.COLLECTION + ": " + repository.collectionStats(OhlcTimeSeriesRepository.COLLECTION));
+        client.close();
+    }
+
+    @Benchmark
+    public List<OHLCData> documents() {
+        Query query = Query.query(
+            Criteria.where("symbol").is(SYMBOL).and("timestamp").gte(Instant.ofEpochMilli(from)).lt(Instant.ofEpochMilli(to))
+        ).with(Sort.by("timestamp"));
+        return mongoTemplate.find(query, OHLCData.class, LEGACY);
+    }
+
+    @Benchmark
+    public OHLCBarBuffer timeSeries() {
+        return repository.findBars(SYMBOL, from, to);
+    }
+
+    private void createFixture() {
+        if (mongoTemplate.collectionExists(LEGACY) && mongoTemplate.getCollection(LEGACY).estimatedDocumentCount() >= BARS) {
+            return;
+        }
+        mongoTemplate.dropCollection(LEGACY);
+        mongoTemplate.dropCollection(OhlcTimeSeriesRepository.COLLECTION);
+        mongoTemplate
+            .indexOps(LEGACY)
+            .ensureIndex(new Index().on("symbol", Sort.Direction.ASC).on("timestamp", Sort.Direction.ASC).named("symbol_timestamp_idx"));
+        repository.ensureCollection();
+
+        MongoCollection<Document> legacy = mongoTemplate.getCollection(LEGACY);
+        List<Document> documents = new ArrayList<>(INSERT_BATCH);
+        OHLCBarBuffer bars = new OHLCBarBuffer(INSERT_BATCH);
+        bars.setSymbol(SYMBOL);
+        for (int i = 0; i < BARS; i++) {
+            long epochMillis = START + i * 60_000L;
+            long price = 21_000_000_000L + (i % 997) * 250_000L;
+            // same shape the mapping layer wrote: epoch id, BigDecimal prices as strings
+            documents.add(
+                new Document("_id", epochMillis)
+                    .append("nyDateTimeId", 0L)
+                    .append("symbol", SYMBOL)
+                    .append("timestamp", new Date(epochMillis))
+                    .append("open", OHLCBarBuffer.toDecimal(price).toPlainString())
+                    .append("high", OHLCBarBuffer.toDecimal(price + 1_250_000).toPlainString())
+                    .append("low", OHLCBarBuffer.toDecimal(price - 750_000).toPlainString())
+                    .append("close", OHLCBarBuffer.toDecimal(price + 500_000).toPlainString())
+                    .append("timeframe", "M1")
+            );
+            bars.add(epochMillis, price, price + 1_250_000, price - 750_000, price + 500_000);
+            if (documents.size() == INSERT_BATCH || i == BARS - 1) {
+                legacy.insertMany(documents);
+                repository.replaceBars(bars);
+                documents.clear();
+                bars.clear();
+                bars.setSymbol(SYMBOL);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.kraj.tradeapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.dto.OHLCMarketDto;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Decode throughput of a 50k-bar OHLC post: databind into OHLCMarketDto (the previous path, run once per sink)
+ * vs streaming into the reusable columnar buffer. Scores are bars per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OHLCIngestBenchmark {
+
+    private static final int BARS = 50_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = objectMapper.getFactory();
+    private final OHLCBarBuffer buffer = new OHLCBarBuffer();
+
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        long start = 1_736_950_000_000L;
+        StringBuilder json = new StringBuilder(BARS * 80).append("{\"sym\":\"NQ\",\"ohlc\":[");
+        for (int i = 0; i < BARS; i++) {
+            double open = 21_000 + random.nextInt(100_000) / 100.0;
+            if (i > 0) {
+                json.append(',');
+            }
+            json
+                .append("{\"d\":")
+                .append(start + i * 60_000L)
+                .append(",\"o\":")
+                .append(open)
+                .append(",\"h\":")
+                .append(open + 1.25)
+                .append(",\"l\":")
+                .append(open - 0.75)
+                .append(",\"c\":")
+                .append(open + 0.5)
+                .append('}');
+        }
+        payload = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BARS)
+    public int databindDto() throws Exception {
+        return objectMapper.readValue(payload, OHLCMarketDto.class).getOhlc().size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BARS)
+    public int streamingBuffer() throws Exception {
+        buffer.clear();
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            buffer.read(parser);
+        }
+        return buffer.size();
+    }
+}
@@ -0,0 +1,168 @@
+package com.kraj.tradeapp.benchmark;
+
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Aggregation of a one-million-row <code>ohlc_data</code> fixture (two symbols, 500k 1m bars each) into the five
+ * dashboard timeframes: the previous per-timeframe query with correlated open/close subqueries (select only) vs
+ * the single-pass rollup (select and upsert). Scores are milliseconds per full rebuild.
+ * <p>
+ * Needs a Postgres instance; the fixture is created once in its own schema:
+ * <code>./gradlew jmh -PjmhIncludes=OhlcRollup -Djmh.jdbcUrl=jdbc:postgresql://localhost:5432/tradeApp</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OhlcRollupBenchmark {
+
+    private static final int BARS_PER_SYMBOL = 500_000;
+    private static final String SCHEMA = "ohlc_rollup_bench";
+
+    private static final String LEGACY_QUERY =
+        """
+        WITH ohlc_raw AS (
+            SELECT
+                symbol,
+                FLOOR(
+                    (EXTRACT(EPOCH FROM timezone('America/New_York', timestamp)) - 17 * 3600) / ?
+                ) * ? + 17 * 3600 AS aggregated_epoch,
+                ? AS timeframe,
+                to_char(timezone('America/New_York', timestamp), 'YYYYMMDDHH24MI')::BIGINT AS ny_date_time_id,
+                timestamp AS raw_timestamp,
+                open AS raw_open,
+                high AS raw_high,
+                low AS raw_low,
+                close AS raw_close
+            FROM ohlc_data
+            WHERE timestamp >= NOW() - (? * INTERVAL '1 second')
+        ),
+        ohlc_grouped AS (
+            SELECT
+                symbol,
+                aggregated_epoch,
+                timeframe,
+                MIN(ny_date_time_id) AS ny_date_time_id,
+                MIN(raw_timestamp) AS min_timestamp,
+                MAX(raw_timestamp) AS max_timestamp,
+                MAX(raw_high) AS high,
+                MIN(raw_low) AS low
+            FROM ohlc_raw
+            GROUP BY symbol, aggregated_epoch, timeframe
+        )
+        SELECT
+            to_timestamp(og.aggregated_epoch) AS timestamp,
+            og.symbol,
+            og.timeframe,
+            og.ny_date_time_id,
+            (SELECT raw_open FROM ohlc_raw WHERE raw_timestamp = og.min_timestamp AND ohlc_raw.symbol = og.symbol) AS open,
+            og.high,
+            og.low,
+            (SELECT raw_close FROM ohlc_raw WHERE raw_timestamp = og.max_timestamp AND ohlc_raw.symbol = og.symbol) AS close
+        FROM ohlc_grouped og
+        ORDER BY timestamp
+        """;
+
+    @Param({ "1", "5" })
+    public int lookbackDays;
+
+    private JdbcTemplate jdbcTemplate;
+    private OhlcJdbcRepository repository;
+    private final Map<String, Long> lookbackSeconds = new LinkedHashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("jmh.jdbcUrl", "jdbc:postgresql://localhost:5432/tradeApp");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA,
+            System.getProperty("jmh.jdbcUser", "tradeApp"),
+            System.getProperty("jmh.jdbcPassword", "")
+        );
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new OhlcJdbcRepository(jdbcTemplate);
+        createFixture();
+
+        for (String timeframe : new String[] { "5m", "15m", "30m", "1h", "4h" }) {
+            lookbackSeconds.put(timeframe, lookbackDays * 86_400L);
+        }
+    }
+
+    @Benchmark
+    public int correlatedSubqueries() {
+        int rows = 0;
+        for (Map.Entry<String, Long> entry : lookbackSeconds.entrySet()) {
+            long intervalSeconds = intervalSeconds(entry.getKey());
+            rows += jdbcTemplate
+                .queryForList(LEGACY_QUERY, intervalSeconds, intervalSeconds, entry.getKey(), entry.getValue())
+                .size();
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public int singlePassRollup() {
+        return repository.rollupAggregated(lookbackSeconds, Instant.now());
+    }
+
+    private static long intervalSeconds(String timeframe) {
+        return switch (timeframe) {
+            case "5m" -> 300;
+            case "15m" -> 900;
+            case "30m" -> 1_800;
+            case "1h" -> 3_600;
+            default -> 14_400;
+        };
+    }
+
+    private void createFixture() {
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+        jdbcTemplate.execute(
+            "CREATE TABLE IF NOT EXISTS " +
+            SCHEMA +
+            ".ohlc_data (symbol TEXT NOT NULL, timestamp TIMESTAMPTZ NOT NULL, ny_date_time_id BIGINT NOT NULL, " +
+            "open NUMERIC(20,6) NOT NULL, high NUMERIC(20,6) NOT NULL, low NUMERIC(20,6) NOT NULL, " +
+            "close NUMERIC(20,6) NOT NULL, PRIMARY KEY (symbol, timestamp))"
+        );
+        jdbcTemplate.execute(
+            "CREATE TABLE IF NOT EXISTS " +
+            SCHEMA +
+            ".ohlc_aggregated (symbol TEXT NOT NULL, timeframe TEXT NOT NULL, timestamp TIMESTAMPTZ NOT NULL, " +
+            "ny_date_time_id BIGINT NOT NULL, open NUMERIC(20,6) NOT NULL, high NUMERIC(20,6) NOT NULL, " +
+            "low NUMERIC(20,6) NOT NULL, close NUMERIC(20,6) NOT NULL, PRIMARY KEY (symbol, timeframe, timestamp))"
+        );
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM " + SCHEMA + ".ohlc_data", Integer.class);
+        if (rows != null && rows >= 2 * BARS_PER_SYMBOL) {
+            return;
+        }
+        // bars end at the current minute so the lookback windows always hit data
+        jdbcTemplate.execute("TRUNCATE " + SCHEMA + ".ohlc_data, " + SCHEMA + ".ohlc_aggregated");
+        jdbcTemplate.update(
+            "INSERT INTO " +
+            SCHEMA +
+            ".ohlc_data (symbol, timestamp, ny_date_time_id, open, high, low, close) " +
+            "SELECT s.symbol, g.ts, to_char(timezone('America/New_York', g.ts), 'YYYYMMDDHH24MI')::BIGINT, " +
+            "g.p, g.p + 1.25, g.p - 0.75, g.p + 0.5 " +
+            "FROM unnest(ARRAY['ES', 'NQ']) AS s(symbol) " +
+            "CROSS JOIN LATERAL (" +
+            "SELECT ts, 5000 + (EXTRACT(EPOCH FROM ts)::BIGINT % 997) / 4.0 AS p " +
+            "FROM generate_series(date_trunc('minute', now()) - (? - 1) * INTERVAL '1 minute', " +
+            "date_trunc('minute', now()), INTERVAL '1 minute') AS ts) g",
+            BARS_PER_SYMBOL
+        );
+        jdbcTemplate.execute("ANALYZE " + SCHEMA + ".ohlc_data");
+    }
+}
@@ -0,0 +1,77 @@
+package com.kraj.tradeapp.benchmark;
+
+import com.kraj.tradeapp.core.model.SessionCalendar;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * New York time index and session bucketing of one bar: the previous SimpleDateFormat format-and-parse and a
+ * java.time conversion vs the precomputed session calendar. Epochs cycle through four years of minutes across DST
+ * changes. Scores are nanoseconds per bar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionCalendarBenchmark {
+
+    private static final int EPOCHS = 4096;
+    private static final long START = 1_704_067_200_000L;
+
+    private final long[] epochs = new long[EPOCHS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        long step = 4L * 365 * 86_400_000 / EPOCHS / 60_000 * 60_000;
+        for (int i = 0; i < EPOCHS; i++) {
+            epochs[i] = START + i * step;
+        }
+    }
+
+    private long nextEpoch() {
+        next = (next + 1) & (EPOCHS - 1);
+        return epochs[next];
+    }
+
+    @Benchmark
+    public long simpleDateFormat() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMddHHmm");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("America/New_York"));
+        return Long.parseLong(dateFormat.format(new Date(nextEpoch())));
+    }
+
+    @Benchmark
+    public long zonedDateTime() {
+        ZonedDateTime time = Instant.ofEpochMilli(nextEpoch()).atZone(ZoneId.of("America/New_York"));
+        return (
+            time.getYear() * 100_000_000L +
+            time.getMonthValue() * 1_000_000L +
+            time.getDayOfMonth() * 10_000L +
+            time.getHour() * 100L +
+            time.getMinute()
+        );
+    }
+
+    @Benchmark
+    public long sessionCalendarTimeIndex() {
+        return SessionCalendar.timeIndex(nextEpoch());
+    }
+
+    @Benchmark
+    public long sessionCalendarSessionAndBucket() {
+        long epochMillis = nextEpoch();
+        return SessionCalendar.sessionId(epochMillis) + SessionCalendar.bucketStartSeconds(epochMillis, 300);
+    }
+}
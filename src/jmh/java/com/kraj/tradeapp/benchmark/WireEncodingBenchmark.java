@@ -0,0 +1,168 @@
+package com.kraj.tradeapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kraj.tradeapp.core.model.EventInterval;
+import com.kraj.tradeapp.core.model.Quadrant;
+import com.kraj.tradeapp.core.model.WireEncoding;
+import com.kraj.tradeapp.core.model.dto.DealingRangeDto;
+import com.kraj.tradeapp.core.model.dto.NotificationEventDto;
+import com.kraj.tradeapp.core.model.dto.SignalActionDTO;
+import com.kraj.tradeapp.core.service.BroadcastService;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Encode time of the dashboard payloads as JSON vs CBOR, using the same mappers the broadcaster builds.
+ * Encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireEncodingBenchmark {
+
+    private static final String[] SYMBOLS = { "NQ", "ES", "YM", "RTY", "GC", "CL" };
+    private static final String[] INDICATORS = { "TREND_MAGIC", "SMART_MONEY", "ORDER_BLOCK", "FAIR_VALUE_GAP" };
+
+    @Param({ "1", "100" })
+    public int batchSize;
+
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+
+    private List<NotificationEventDto> events;
+    private List<DealingRangeDto> dealingRanges;
+    private List<SignalActionDTO> signalActions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Map<WireEncoding, ObjectMapper> mappers = BroadcastService.createMappers(new ObjectMapper().registerModule(new JavaTimeModule()));
+        jsonMapper = mappers.get(WireEncoding.JSON);
+        cborMapper = mappers.get(WireEncoding.CBOR);
+
+        events = new ArrayList<>(batchSize);
+        dealingRanges = new ArrayList<>(batchSize);
+        signalActions = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            events.add(event(i));
+            dealingRanges.add(dealingRange(i));
+            signalActions.add(signalAction(i));
+        }
+
+        report("NotificationEventDto", events);
+        report("DealingRangeDto", dealingRanges);
+        report("SignalActionDTO", signalActions);
+    }
+
+    @Benchmark
+    public byte[] eventsJson() throws Exception {
+        return jsonMapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public byte[] eventsCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public byte[] dealingRangesJson() throws Exception {
+        return jsonMapper.writeValueAsBytes(dealingRanges);
+    }
+
+    @Benchmark
+    public byte[] dealingRangesCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(dealingRanges);
+    }
+
+    @Benchmark
+    public byte[] signalActionsJson() throws Exception {
+        return jsonMapper.writeValueAsBytes(signalActions);
+    }
+
+    @Benchmark
+    public byte[] signalActionsCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(signalActions);
+    }
+
+    private void report(String name, Object payload) throws Exception {
+        int json = jsonMapper.writeValueAsBytes(payload).length;
+        int cbor = cborMapper.writeValueAsBytes(payload).length;
+        System.out.printf("%n%s x%d: json=%d bytes, cbor=%d bytes (%.1f%%)%n", name, batchSize, json, cbor, 100.0 * cbor / json);
+    }
+
+    private static NotificationEventDto event(int i) {
+        String symbol = SYMBOLS[i % SYMBOLS.length];
+        String indicator = INDICATORS[i % INDICATORS.length];
+        return NotificationEventDto.builder()
+            .id((long) i)
+            .datetime("2025-01-15T10:" + String.format("%02d", i % 60) + ":00-05:00")
+            .symbol(symbol)
+            .source("TRADINGVIEW")
+            .indicator(indicator)
+            .indicatorDisplayName(indicator.replace('_', ' '))
+            .direction(i % 2 == 0 ? "BULLISH" : "BEARISH")
+            .indicatorSubCategory("TREND")
+            .indicatorSubCategoryDisplayName("Trend")
+            .rawAlertMsg(symbol + " " + indicator + " crossed")
+            .price(new BigDecimal("21450.25").add(BigDecimal.valueOf(i, 2)))
+            .interval(EventInterval.M5.name())
+            .candleType("REGULAR")
+            .created("2025-01-15T10:00:00-05:00")
+            .lastUpdated("2025-01-15T10:00:00-05:00")
+            .score(new BigDecimal("2.5"))
+            .strategyProcessStatus("PENDING")
+            .build();
+    }
+
+    private static DealingRangeDto dealingRange(int i) {
+        ZonedDateTime now = ZonedDateTime.parse("2025-01-15T10:00:00-05:00[America/New_York]").plusMinutes(i);
+        return DealingRangeDto.builder()
+            .symbol(SYMBOLS[i % SYMBOLS.length])
+            .currentPrice(new BigDecimal("21450.25"))
+            .currentQuadrant(Quadrant.Q2_50_75)
+            .quadrantDisplayName(Quadrant.Q2_50_75.getDisplayName())
+            .quadrantPercentage(new BigDecimal("62.50"))
+            .rangeHigh(new BigDecimal("21500.00"))
+            .rangeLow(new BigDecimal("21300.00"))
+            .q1Level(new BigDecimal("21450.00"))
+            .q2Level(new BigDecimal("21400.00"))
+            .q3Level(new BigDecimal("21350.00"))
+            .interval(EventInterval.M15)
+            .chartTimeframe("15")
+            .lastUpdated(now)
+            .isInRange(true)
+            .rangeSize(new BigDecimal("200.00"))
+            .previousQuadrant(Quadrant.Q3_25_50)
+            .lastQuadrantChange(now.minusMinutes(5))
+            .build();
+    }
+
+    private static SignalActionDTO signalAction(int i) {
+        SignalActionDTO dto = new SignalActionDTO();
+        dto.setId((long) i);
+        dto.setSymbol(SYMBOLS[i % SYMBOLS.length]);
+        dto.setPrice(new BigDecimal("21450.25"));
+        dto.setSignalName(INDICATORS[i % INDICATORS.length]);
+        dto.setDateTime(LocalDateTime.of(2025, 1, 15, 10, i % 60));
+        dto.setStatus(SignalActionDTO.SignalStatus.PENDING);
+        dto.setIndicatorName(INDICATORS[i % INDICATORS.length]);
+        dto.setInterval(EventInterval.M5.getValue());
+        dto.setMessage("Signal fired");
+        dto.setDirection(i % 2 == 0 ? SignalActionDTO.SignalDirection.BUY : SignalActionDTO.SignalDirection.SELL);
+        return dto;
+    }
+}
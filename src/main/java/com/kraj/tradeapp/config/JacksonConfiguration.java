@@ -4,6 +4,7 @@ import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module.Feature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kraj.tradeapp.core.converter.NotificationEventJsonModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -24,6 +25,14 @@ public class JacksonConfiguration {
         return new Jdk8Module();
     }
 
+    /**
+     * Reuses the serialized form of notification events across REST responses and WebSocket pushes.
+     */
+    @Bean
+    public NotificationEventJsonModule notificationEventJsonModule() {
+        return new NotificationEventJsonModule();
+    }
+
     /*
      * Support for Hibernate types in Jackson.
      */
@@ -1,12 +1,22 @@
 package com.kraj.tradeapp.config;
 
+import com.kraj.tradeapp.core.model.WireEncoding;
 import com.kraj.tradeapp.security.AuthoritiesConstants;
 import java.security.Principal;
 import java.util.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.server.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.socket.WebSocketHandler;
@@ -23,6 +33,16 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
 
     private final JHipsterProperties jHipsterProperties;
 
+    // Per-session outbound limits: a session that cannot drain its buffer in time is closed instead of stalling the others
+    @Value("${trading.websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${trading.websocket.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
+    @Value("${trading.websocket.outbound-pool-size:8}")
+    private int outboundPoolSize;
+
     public WebsocketConfiguration(JHipsterProperties jHipsterProperties) {
         this.jHipsterProperties = jHipsterProperties;
     }
@@ -33,6 +53,21 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs).setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(wireEncodingInterceptor());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(outboundPoolSize).maxPoolSize(outboundPoolSize);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         String[] allowedOrigins = Optional.ofNullable(jHipsterProperties.getCors().getAllowedOrigins())
@@ -46,6 +81,36 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
             .setAllowedOrigins(allowedOrigins)
             .withSockJS()
             .setInterceptors(httpSessionHandshakeInterceptor());
+
+        // Plain WebSocket endpoint for clients that negotiate a binary encoding: SockJS only carries text frames
+        registry
+            .addEndpoint("/websocket/stream")
+            .setHandshakeHandler(defaultHandshakeHandler())
+            .setAllowedOrigins(allowedOrigins)
+            .addInterceptors(httpSessionHandshakeInterceptor());
+    }
+
+    /**
+     * Routes a SUBSCRIBE carrying an <code>encoding</code> header (e.g. <code>encoding: cbor</code>) to the
+     * broker destination tree of that encoding, so binary copies only reach the sessions that asked for them.
+     */
+    private ChannelInterceptor wireEncodingInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || !StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+                    return message;
+                }
+                WireEncoding encoding = WireEncoding.fromHeader(accessor.getFirstNativeHeader(WireEncoding.HEADER));
+                if (encoding == WireEncoding.JSON) {
+                    return message;
+                }
+                StompHeaderAccessor mutable = StompHeaderAccessor.wrap(message);
+                mutable.setDestination(encoding.toBrokerDestination(accessor.getDestination()));
+                return MessageBuilder.createMessage(message.getPayload(), mutable.getMessageHeaders());
+            }
+        };
     }
 
     @Bean
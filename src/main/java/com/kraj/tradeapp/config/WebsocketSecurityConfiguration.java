@@ -19,6 +19,9 @@ public class WebsocketSecurityConfiguration extends AbstractSecurityWebSocketMes
             // Add permission for signal-actions topic
             .simpDestMatchers("/topic/signal-actions")
             .hasAnyAuthority(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER)
+            // subscribe-time snapshots served by @SubscribeMapping handlers
+            .simpDestMatchers("/app/events/**")
+            .authenticated()
             // matches any destination that starts with /topic/
             // (i.e. cannot send messages directly to /topic/)
             // (i.e. cannot subscribe to /topic/messages/* to get messages sent to
@@ -0,0 +1,27 @@
+package com.kraj.tradeapp.core.controller;
+
+import com.kraj.tradeapp.core.model.dto.NotificationEventDto;
+import com.kraj.tradeapp.core.service.DashboardService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP subscribe-time snapshots for the dashboard. A client subscribing to <code>/app/events/{symbol}</code>
+ * gets the rolling event window once, straight from memory, and then follows <code>/topic/v2/events/{symbol}</code>
+ * for new events only.
+ */
+@Controller
+@RequiredArgsConstructor
+public class DashboardEventsSocketController {
+
+    private final DashboardService dashboardService;
+
+    @SubscribeMapping("/events/{symbol}")
+    public List<NotificationEventDto> getRecentEvents(@DestinationVariable String symbol) {
+        return dashboardService.getRecentEvents(StringUtils.upperCase(symbol));
+    }
+}
@@ -1,9 +1,12 @@
 package com.kraj.tradeapp.core.controller;
 
+import com.kraj.tradeapp.core.model.DealingRangeSnapshot;
 import com.kraj.tradeapp.core.model.EventInterval;
 import com.kraj.tradeapp.core.model.Quadrant;
 import com.kraj.tradeapp.core.model.dto.DealingRangeDto;
 import com.kraj.tradeapp.core.model.dto.DealingRangeHistoryDto;
+import com.kraj.tradeapp.core.service.DealingRangeEngineService;
+import com.kraj.tradeapp.core.service.DealingRangeStateCache;
 import com.kraj.tradeapp.core.service.EnhancedDealingRangeService;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
@@ -23,6 +26,7 @@ import org.springframework.web.bind.annotation.*;
 public class EnhancedDealingRangeController {
 
     private final EnhancedDealingRangeService dealingRangeService;
+    private final DealingRangeEngineService dealingRangeEngineService;
 
     // ========================================================================
     // WEBHOOK ENDPOINTS
@@ -88,11 +92,7 @@ public class EnhancedDealingRangeController {
      */
     @GetMapping("/current/extremes")
     public ResponseEntity<List<DealingRangeDto>> getCurrentExtremesPositions(@RequestParam EventInterval interval) {
-        List<DealingRangeDto> extremes = dealingRangeService
-            .getCurrentQuadrants(interval)
-            .stream()
-            .filter(DealingRangeDto::isExtremePosition)
-            .toList();
+        List<DealingRangeDto> extremes = dealingRangeService.getExtremePositions(interval);
         return ResponseEntity.ok(extremes);
     }
 
@@ -207,16 +207,13 @@ public class EnhancedDealingRangeController {
         @SuppressWarnings("unchecked")
         List<String> symbols = (List<String>) request.get("symbols");
         String intervalStr = (String) request.get("interval");
-        EventInterval interval = EventInterval.getFromValue(intervalStr);
+        // without an interval each symbol's latest dealing range is returned
+        EventInterval interval = intervalStr != null ? EventInterval.getFromValue(intervalStr) : null;
 
-        List<DealingRangeDto> result = symbols
-            .stream()
-            .map(symbol -> dealingRangeService.getCurrentQuadrant(symbol, interval))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .toList();
-
-        return ResponseEntity.ok(result);
+        if (symbols == null || symbols.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(dealingRangeService.getCurrentQuadrants(symbols, interval));
     }
 
     // ========================================================================
@@ -231,12 +228,15 @@ public class EnhancedDealingRangeController {
     public ResponseEntity<List<DealingRangeDto>> getSummaryDashboard() {
         List<DealingRangeDto> allQuadrants = dealingRangeService.getCurrentQuadrants();
 
-        Map<Quadrant, Long> quadrantCounts = allQuadrants
-            .stream()
-            .collect(java.util.stream.Collectors.groupingBy(DealingRangeDto::getCurrentQuadrant, java.util.stream.Collectors.counting()));
+        Map<Quadrant, Long> quadrantCounts = dealingRangeService.getQuadrantCounts(null);
 
         long totalSymbols = allQuadrants.size();
-        long extremeCount = allQuadrants.stream().mapToLong(dto -> dto.isExtremePosition() ? 1 : 0).sum();
+        long extremeCount = quadrantCounts
+            .entrySet()
+            .stream()
+            .filter(entry -> DealingRangeStateCache.EXTREME_QUADRANTS.contains(entry.getKey()))
+            .mapToLong(Map.Entry::getValue)
+            .sum();
 
         Map<String, Object> summary = Map.of(
             "totalSymbols",
@@ -284,6 +284,19 @@ public class EnhancedDealingRangeController {
         return ResponseEntity.ok("Alert simulated successfully");
     }
 
+    // ========================================================================
+    // COMPUTED RANGE ENDPOINTS
+    // ========================================================================
+
+    /**
+     * Ranges computed from the bar stream for a symbol, one per configured interval
+     * GET /api/dealing-range/v2/computed/{symbol}
+     */
+    @GetMapping("/computed/{symbol}")
+    public ResponseEntity<List<DealingRangeSnapshot>> getComputedRanges(@PathVariable String symbol) {
+        return ResponseEntity.ok(dealingRangeEngineService.getComputedRanges(symbol));
+    }
+
     // ========================================================================
     // HEALTH CHECK
     // ========================================================================
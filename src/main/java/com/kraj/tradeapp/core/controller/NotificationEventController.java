@@ -1,21 +1,29 @@
 package com.kraj.tradeapp.core.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.kraj.tradeapp.core.model.CommonUtil;
+import com.kraj.tradeapp.core.model.OHLCGap;
 import com.kraj.tradeapp.core.model.dto.NotificationEventDto;
 import com.kraj.tradeapp.core.model.persistance.NotificationEvent;
 import com.kraj.tradeapp.core.model.persistance.TradeSignal;
+import com.kraj.tradeapp.core.service.IndicatorEngineService;
 import com.kraj.tradeapp.core.service.NotificationProcessorService;
 import com.kraj.tradeapp.core.service.OHLCAggregationService;
-import com.kraj.tradeapp.core.service.OHLCService;
+import com.kraj.tradeapp.core.service.OHLCGapService;
+import com.kraj.tradeapp.core.service.OHLCHistoricalBackfillService;
+import com.kraj.tradeapp.core.service.OHLCIngestService;
+import com.kraj.tradeapp.core.service.OHLCRollupService;
 import com.kraj.tradeapp.core.service.SqlOHLCService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,9 +34,13 @@ import org.springframework.web.bind.annotation.*;
 public class NotificationEventController {
 
     private final NotificationProcessorService notificationProcessorService;
-    private final OHLCService ohlcService;
+    private final IndicatorEngineService indicatorEngineService;
     private final OHLCAggregationService ohlcAggregationService;
+    private final OHLCGapService ohlcGapService;
+    private final OHLCHistoricalBackfillService ohlcHistoricalBackfillService;
     private final SqlOHLCService sqlOHLCService;
+    private final OHLCIngestService ohlcIngestService;
+    private final OHLCRollupService ohlcRollupService;
 
     @PostMapping("/receiveEvents")
     public ResponseEntity<Void> createNotificationEvent(@RequestBody String payload) {
@@ -64,27 +76,32 @@ public class NotificationEventController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    // 202 once the payload is journaled; 503 tells the sender to retry while a sink queue is full
     @PostMapping("/ohlc")
-    public ResponseEntity<?> handleOhlcDataPost(@RequestBody String payload) throws JsonProcessingException {
-        handleOhlcDataPostAsync(payload);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    public ResponseEntity<?> handleOhlcDataPost(HttpServletRequest request) throws IOException {
+        boolean accepted = ohlcIngestService.ingest(request.getInputStream());
+        return ResponseEntity.status(accepted ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE).build();
     }
 
-    @Async
-    private void handleOhlcDataPostAsync(String payload) throws JsonProcessingException {
-        ohlcService.handleOHLCDataPost(payload);
-        sqlOHLCService.handleOHLCDataPost(payload);
+    @PostMapping("/sql_ohlc")
+    public ResponseEntity<?> handleSqlOhlcDataPost(HttpServletRequest request) throws IOException {
+        boolean accepted = ohlcIngestService.ingestSql(request.getInputStream());
+        return ResponseEntity.status(accepted ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE).build();
     }
 
-    @PostMapping("/sql_ohlc")
-    public ResponseEntity<?> handleSqlOhlcDataPost(@RequestBody String payload) throws JsonProcessingException {
-        sqlOHLCService.handleOHLCDataPost(payload);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    @GetMapping(value = "/ohlc/queues", produces = "application/json")
+    public ResponseEntity<Map<OHLCIngestService.Sink, Integer>> getOhlcSinkQueues() {
+        return ResponseEntity.ok(ohlcIngestService.getQueueDepths());
+    }
+
+    @GetMapping(value = "/ohlc/indicators/{symbol}", produces = "application/json")
+    public ResponseEntity<List<IndicatorEngineService.IndicatorValues>> getOhlcIndicators(@PathVariable String symbol) {
+        return ResponseEntity.ok(indicatorEngineService.getIndicators(symbol.toUpperCase()));
     }
 
     @GetMapping(value = "/ohlc/{intervalMinutes}", produces = "application/json")
-    public ResponseEntity<?> handleSqlOhlcDataGet(@PathVariable int intervalMinutes) {
-        return ResponseEntity.ok(ohlcAggregationService.aggregateOHLCWithLookbackV2("ES", intervalMinutes));
+    public ResponseEntity<?> handleSqlOhlcDataGet(@PathVariable int intervalMinutes, @RequestParam(defaultValue = "ES") String symbol) {
+        return ResponseEntity.ok(ohlcAggregationService.aggregateOHLCWithLookbackV2(symbol, intervalMinutes));
     }
 
     @GetMapping(value = "/sql_ohlc", produces = "application/json")
@@ -93,11 +110,13 @@ public class NotificationEventController {
         //        sqlOHLCService.aggregateAndSaveOHLC("15m", 15 * 60 * 1000, 60);
         //        sqlOHLCService.aggregateAndSaveOHLC("30m", 30 * 60 * 1000, 60);
         //        sqlOHLCService.aggregateAndSaveOHLC("1h", 60 * 60 * 1000, 50);
-        sqlOHLCService.aggregateAndSaveOHLC("4h", 4 * 60 * 60, 12);
-        sqlOHLCService.aggregateAndSaveOHLC("1h", 1 * 60 * 60, 48);
-        sqlOHLCService.aggregateAndSaveOHLC("30m", 30 * 60, 200);
-        sqlOHLCService.aggregateAndSaveOHLC("5m", 5 * 60, 500);
-        sqlOHLCService.aggregateAndSaveOHLC("15m", 15 * 60, 200);
+        Map<String, Long> lookbackSeconds = new LinkedHashMap<>();
+        lookbackSeconds.put("4h", 13L * 4 * 60 * 60);
+        lookbackSeconds.put("1h", 49L * 60 * 60);
+        lookbackSeconds.put("30m", 201L * 30 * 60);
+        lookbackSeconds.put("5m", 501L * 5 * 60);
+        lookbackSeconds.put("15m", 201L * 15 * 60);
+        sqlOHLCService.rollupAggregated(lookbackSeconds);
         //        sqlOHLCService.aggregateAndSaveOHLC("90m", 90 * 60 * 1000, 50);
         return ResponseEntity.ok("Aggregated OHLC data");
         //        sqlOHLCService.aggregateOHLC("5m", 5 * 60 * 1000, 61);
@@ -107,6 +126,39 @@ public class NotificationEventController {
         //        sqlOHLCService.aggregateOHLC("90m", 90 * 60 * 1000, 10);
     }
 
+    @GetMapping(value = "/sql_ohlc/lag", produces = "application/json")
+    public ResponseEntity<Map<String, Object>> getOhlcRollupLag() {
+        return ResponseEntity.ok(ohlcRollupService.getRollupStatus());
+    }
+
+    @GetMapping(value = "/sql_ohlc/gaps", produces = "application/json")
+    public ResponseEntity<Map<String, List<OHLCGap>>> getOhlcGaps() {
+        return ResponseEntity.ok(ohlcGapService.getGaps());
+    }
+
+    @PostMapping(value = "/sql_ohlc/gaps/{symbol}/backfill", produces = "application/json")
+    public ResponseEntity<OHLCGapService.BackfillResult> backfillOhlcGaps(@PathVariable String symbol) throws IOException {
+        return ResponseEntity.ok(ohlcGapService.backfill(symbol.toUpperCase()));
+    }
+
+    // 202 with the job's status; progress is polled through GET /sql_ohlc/backfill
+    @PostMapping(value = "/sql_ohlc/backfill/{symbol}", produces = "application/json")
+    public ResponseEntity<OHLCHistoricalBackfillService.JobStatus> startOhlcBackfill(
+        @PathVariable String symbol,
+        @RequestParam LocalDate from,
+        @RequestParam LocalDate to
+    ) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ohlcHistoricalBackfillService.submit(symbol.toUpperCase(), from, to));
+    }
+
+    @GetMapping(value = "/sql_ohlc/backfill", produces = "application/json")
+    public ResponseEntity<Map<String, OHLCHistoricalBackfillService.JobStatus>> getOhlcBackfillJobs() {
+        return ResponseEntity.ok(ohlcHistoricalBackfillService.getJobs());
+    }
+
     @GetMapping("/notificationEvents/{symbol}")
     public ResponseEntity<List<NotificationEventDto>> getNotificationEvents(@PathVariable String symbol) {
         List<NotificationEventDto> events = notificationProcessorService.getNotificationEvents(
@@ -0,0 +1,52 @@
+package com.kraj.tradeapp.core.controller;
+
+import com.kraj.tradeapp.core.service.OHLCChartService;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/notifications/ohlc")
+@RequiredArgsConstructor
+@Slf4j
+public class OHLCChartController {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(30);
+
+    private final OHLCChartService chartService;
+
+    /**
+     * Downsampled bars for charting
+     * GET /api/v1/notifications/ohlc/chart?symbol=NQ&timeframe=5m&from=2025-01-01T00:00:00Z&to=2025-04-01T00:00:00Z&maxPoints=1500&mode=OHLC
+     *
+     * from/to default to the last 30 days; mode is OHLC (widened buckets) or LTTB (representative bars).
+     */
+    @GetMapping("/chart")
+    public ResponseEntity<?> chart(
+        @RequestParam String symbol,
+        @RequestParam(defaultValue = "5m") String timeframe,
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        @RequestParam(defaultValue = "1000") int maxPoints,
+        @RequestParam(defaultValue = "OHLC") OHLCChartService.Mode mode
+    ) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        OHLCChartService.ChartBars chart;
+        try {
+            chart = chartService.query(symbol.toUpperCase(), timeframe, start, end, maxPoints, mode);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        StreamingResponseBody body = out -> chartService.writeJson(chart, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,82 @@
+package com.kraj.tradeapp.core.converter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.kraj.tradeapp.core.model.dto.NotificationEventDto;
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Serializes each {@link NotificationEventDto} to JSON only once. The first JSON write runs the regular bean
+ * serializer and keeps the output on the DTO; later writes (REST responses, WebSocket pushes) copy that text
+ * straight into the output. Binary formats such as CBOR, and pretty printed output, always go through the
+ * bean serializer.
+ */
+public class NotificationEventJsonModule extends SimpleModule {
+
+    public NotificationEventJsonModule() {
+        super("NotificationEventJsonModule");
+        setSerializerModifier(
+            new BeanSerializerModifier() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc, JsonSerializer<?> serializer) {
+                    if (NotificationEventDto.class.equals(beanDesc.getBeanClass())) {
+                        return new CachedJsonSerializer((JsonSerializer<Object>) serializer);
+                    }
+                    return serializer;
+                }
+            }
+        );
+    }
+
+    private static final class CachedJsonSerializer extends StdSerializer<NotificationEventDto> implements ResolvableSerializer {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        private final JsonSerializer<Object> delegate;
+
+        CachedJsonSerializer(JsonSerializer<Object> delegate) {
+            super(NotificationEventDto.class);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        public void serialize(NotificationEventDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!(gen instanceof JsonGeneratorImpl) || gen.getPrettyPrinter() != null) {
+                delegate.serialize(value, gen, provider);
+                return;
+            }
+            String json = value.getSerializedJson();
+            if (json == null) {
+                StringWriter writer = new StringWriter(1024);
+                try (JsonGenerator jsonGen = JSON_FACTORY.createGenerator(writer)) {
+                    for (JsonGenerator.Feature feature : JsonGenerator.Feature.values()) {
+                        jsonGen.configure(feature, gen.isEnabled(feature));
+                    }
+                    delegate.serialize(value, jsonGen, provider);
+                }
+                json = writer.toString();
+                value.cacheSerializedJson(json);
+            }
+            gen.writeRawValue(json);
+        }
+    }
+}
@@ -15,9 +15,7 @@ import org.apache.commons.lang3.StringUtils;
 public class CommonUtil {
 
     public static LocalDateTime getNYLocalDateTimeNow() {
-        return ZonedDateTime.now(ZoneId.of("UTC")) // Use UTC as base
-            .withZoneSameInstant(ZoneId.of("America/New_York"))
-            .toLocalDateTime();
+        return LocalDateTime.now(SessionCalendar.NEW_YORK);
     }
 
     public static LocalDateTime getUTCNow() {
@@ -56,13 +54,7 @@ public class CommonUtil {
     }
 
     public static Long getTimeIndexNY(long milliseconds) {
-        // Define date format (yyyyMMddHHmm)
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyyMMddHHmm");
-
-        // Set New York timezone (Eastern Time, handles DST automatically)
-        dateFormat.setTimeZone(TimeZone.getTimeZone("America/New_York"));
-
-        // Convert milliseconds to formatted string
-        return Long.parseLong(dateFormat.format(new Date(milliseconds)));
+        // yyyyMMddHHmm in New York time (handles DST), see SessionCalendar
+        return SessionCalendar.timeIndex(milliseconds);
     }
 }
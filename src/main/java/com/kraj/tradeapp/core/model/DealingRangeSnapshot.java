@@ -8,12 +8,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Builder
 @Data
 @Document(collection = "dealing_range_snapshot")
+@CompoundIndex(name = "symbol_interval", def = "{'symbol': 1, 'interval': 1}", unique = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DealingRangeSnapshot {
@@ -21,7 +22,6 @@ public class DealingRangeSnapshot {
     @Id
     private String id;
 
-    @Indexed(unique = true)
     private String symbol;
 
     // Current price information
@@ -40,6 +40,7 @@ public class DealingRangeSnapshot {
     private String chartTimeframe; // The timeframe used for range calculation
     private ZonedDateTime lastUpdated;
     private ZonedDateTime rangeCalculatedAt;
+    private ZonedDateTime extremeSince; // Start of the current run of extreme quadrants (Q1, Q4, breaches), null otherwise
 
     // Source information
     private String alertMessage;
@@ -59,7 +60,7 @@ public class DealingRangeSnapshot {
             currentQuadrant == Quadrant.Q1_75_100 ||
             currentQuadrant == Quadrant.Q4_0_25 ||
             currentQuadrant == Quadrant.BREACH_ABOVE_RANGE ||
-            currentQuadrant == Quadrant.BREACH_ABOVE_RANGE
+            currentQuadrant == Quadrant.BREACH_BELOW_RANGE
         );
     }
 
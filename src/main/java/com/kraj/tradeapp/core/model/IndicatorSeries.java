@@ -0,0 +1,163 @@
+package com.kraj.tradeapp.core.model;
+
+/**
+ * Streaming indicators of one symbol/timeframe, updated in O(1) per closed bar from primitive state only.
+ * <ul>
+ *   <li>EMA of the close for each configured period, seeded with the simple average of the first bars.</li>
+ *   <li>RSI and ATR with Wilder smoothing.</li>
+ *   <li>Session average price: the mean typical price (h+l+c)/3 since the futures session opened. Bars carry no
+ *   volume, so this is the equal-weight form of a session VWAP.</li>
+ *   <li>Highest high and lowest low of the last <code>rangePeriod</code> bars ({@link RollingExtremes}).</li>
+ * </ul>
+ * Prices are scaled longs as in {@link OHLCBarBuffer}. Bars must arrive in time order; a bar not newer than the
+ * last one applied is ignored. Not thread-safe.
+ */
+public final class IndicatorSeries {
+
+    private final int[] emaPeriods;
+    private final int rsiPeriod;
+    private final int atrPeriod;
+
+    private long lastTime = Long.MIN_VALUE;
+    private long bars;
+    private long prevClose;
+
+    private final double[] ema;
+    private double avgGain;
+    private double avgLoss;
+    private double atr;
+
+    private int sessionId;
+    private double sessionPriceSum;
+    private int sessionBars;
+
+    private final RollingExtremes range;
+
+    public IndicatorSeries(int[] emaPeriods, int rsiPeriod, int atrPeriod, int rangePeriod) {
+        this.emaPeriods = emaPeriods.clone();
+        this.rsiPeriod = rsiPeriod;
+        this.atrPeriod = atrPeriod;
+        this.ema = new double[emaPeriods.length];
+        this.range = new RollingExtremes(rangePeriod);
+    }
+
+    /**
+     * Apply a closed bar. <code>time</code> only orders bars; <code>sessionId</code> resets the session average when
+     * it changes (see {@link SessionCalendar#sessionId(long)}). Returns false when the bar was not newer than the
+     * last one applied.
+     */
+    public boolean onBar(long time, int sessionId, long open, long high, long low, long close) {
+        if (time <= lastTime) {
+            return false;
+        }
+        lastTime = time;
+        double c = close;
+        long n = ++bars;
+
+        for (int k = 0; k < emaPeriods.length; k++) {
+            int period = emaPeriods[k];
+            if (n < period) {
+                ema[k] += c;
+            } else if (n == period) {
+                ema[k] = (ema[k] + c) / period;
+            } else {
+                ema[k] += (c - ema[k]) * 2.0 / (period + 1);
+            }
+        }
+
+        if (n > 1) {
+            double change = c - prevClose;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            // n - 1 price changes seen so far
+            if (n - 1 <= rsiPeriod) {
+                avgGain += gain / rsiPeriod;
+                avgLoss += loss / rsiPeriod;
+            } else {
+                avgGain = (avgGain * (rsiPeriod - 1) + gain) / rsiPeriod;
+                avgLoss = (avgLoss * (rsiPeriod - 1) + loss) / rsiPeriod;
+            }
+        }
+
+        double trueRange = n == 1 ? high - low : Math.max(high - low, Math.max(Math.abs(high - prevClose), Math.abs(low - prevClose)));
+        if (n <= atrPeriod) {
+            atr += trueRange / atrPeriod;
+        } else {
+            atr = (atr * (atrPeriod - 1) + trueRange) / atrPeriod;
+        }
+
+        if (sessionId != this.sessionId) {
+            this.sessionId = sessionId;
+            sessionPriceSum = 0;
+            sessionBars = 0;
+        }
+        sessionPriceSum += ((double) high + low + close) / 3;
+        sessionBars++;
+
+        range.push(high, low);
+        prevClose = close;
+        return true;
+    }
+
+    public long lastTime() {
+        return lastTime;
+    }
+
+    public long bars() {
+        return bars;
+    }
+
+    public int[] emaPeriods() {
+        return emaPeriods.clone();
+    }
+
+    /**
+     * EMA for <code>emaPeriods()[index]</code> as a scaled price, or NaN until that many bars were seen.
+     */
+    public double ema(int index) {
+        return bars >= emaPeriods[index] ? ema[index] : Double.NaN;
+    }
+
+    /**
+     * RSI in 0-100, or NaN until <code>rsiPeriod</code> price changes were seen.
+     */
+    public double rsi() {
+        if (bars <= rsiPeriod) {
+            return Double.NaN;
+        }
+        if (avgLoss == 0) {
+            return avgGain == 0 ? 50 : 100;
+        }
+        return 100 - 100 / (1 + avgGain / avgLoss);
+    }
+
+    /**
+     * ATR as a scaled price, or NaN until <code>atrPeriod</code> bars were seen.
+     */
+    public double atr() {
+        return bars >= atrPeriod ? atr : Double.NaN;
+    }
+
+    /**
+     * Mean typical price of the current session as a scaled price, or NaN before the first bar.
+     */
+    public double sessionAveragePrice() {
+        return sessionBars > 0 ? sessionPriceSum / sessionBars : Double.NaN;
+    }
+
+    /**
+     * Highest high of the last <code>rangePeriod</code> bars (fewer while warming up), or {@link Long#MIN_VALUE}
+     * before the first bar.
+     */
+    public long rollingHigh() {
+        return range.high();
+    }
+
+    /**
+     * Lowest low of the last <code>rangePeriod</code> bars (fewer while warming up), or {@link Long#MAX_VALUE}
+     * before the first bar.
+     */
+    public long rollingLow() {
+        return range.low();
+    }
+}
@@ -0,0 +1,335 @@
+package com.kraj.tradeapp.core.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory-mapped columnar store of one symbol's 1m bars.
+ * <p>
+ * The file holds a 64-byte header followed by five fixed-width long columns (epoch millis, then open, high, low
+ * and close scaled as in {@link OHLCBarBuffer}), each <code>capacity</code> entries long and sorted by epoch.
+ * Range lookups binary-search the epoch column and visit bars straight from the mapping without decoding or
+ * allocating. Appends at the tail are O(1); a bar already present is overwritten in place; an older missing bar
+ * is inserted by shifting the tail. When the columns are full the file is rewritten at twice the capacity.
+ * <p>
+ * The header carries a clean flag that is cleared while the file is open; a file that was not closed cleanly
+ * (or is new) reports {@link #needsRebuild()} so the caller can reload it from <code>ohlc_data</code>.
+ * One writer and any number of readers may use a store concurrently.
+ */
+public final class MappedBarStore implements Closeable {
+
+    private static final long MAGIC = 0x4F484C4342415253L; // "OHLCBARS"
+    private static final long VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 8;
+    private static final int CAPACITY_AT = 16;
+    private static final int SIZE_AT = 24;
+    private static final int CLEAN_AT = 32;
+
+    private static final int EPOCH = 0;
+    private static final int OPEN = 1;
+    private static final int HIGH = 2;
+    private static final int LOW = 3;
+    private static final int CLOSE = 4;
+    private static final int COLUMNS = 5;
+
+    /**
+     * Receives bars in ascending time order, straight from the mapped columns.
+     */
+    @FunctionalInterface
+    public interface BarVisitor {
+        void bar(long epochMillis, long open, long high, long low, long close);
+    }
+
+    private final Path file;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private final LongBuffer[] columns = new LongBuffer[COLUMNS];
+    private int capacity;
+    private int size;
+    private boolean needsRebuild;
+
+    private MappedBarStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open (or create) the store file. A new, foreign or uncleanly closed file is reset to empty and flagged with
+     * {@link #needsRebuild()}.
+     */
+    public static MappedBarStore open(Path file, int initialCapacity) throws IOException {
+        MappedBarStore store = new MappedBarStore(file);
+        store.openFile(Math.max(initialCapacity, 1024));
+        return store;
+    }
+
+    // ========================================================================
+    // READS
+    // ========================================================================
+
+    public boolean needsRebuild() {
+        return needsRebuild;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Epoch millis of the newest bar, or {@link Long#MIN_VALUE} when empty.
+     */
+    public long lastEpochMillis() {
+        lock.readLock().lock();
+        try {
+            return size == 0 ? Long.MIN_VALUE : columns[EPOCH].get(size - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every bar with <code>fromMillis &lt;= epoch &lt; toMillis</code>. Returns the number of bars visited.
+     */
+    public int forEach(long fromMillis, long toMillis, BarVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(fromMillis);
+            int to = lowerBound(toMillis);
+            LongBuffer epoch = columns[EPOCH], open = columns[OPEN], high = columns[HIGH], low = columns[LOW], close = columns[CLOSE];
+            for (int i = from; i < to; i++) {
+                visitor.bar(epoch.get(i), open.get(i), high.get(i), low.get(i), close.get(i));
+            }
+            return Math.max(0, to - from);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Detached copy of the bars with <code>fromMillis &lt;= epoch &lt; toMillis</code>.
+     */
+    public OHLCBarBuffer copyRange(String symbol, long fromMillis, long toMillis) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(fromMillis);
+            int to = lowerBound(toMillis);
+            OHLCBarBuffer bars = new OHLCBarBuffer(Math.max(0, to - from));
+            bars.setSymbol(symbol);
+            for (int i = from; i < to; i++) {
+                bars.add(columns[EPOCH].get(i), columns[OPEN].get(i), columns[HIGH].get(i), columns[LOW].get(i), columns[CLOSE].get(i));
+            }
+            return bars;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================================================================
+    // WRITES
+    // ========================================================================
+
+    /**
+     * Merge a buffer of bars into the store.
+     */
+    public void appendAll(OHLCBarBuffer bars) throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < bars.size(); i++) {
+                put(bars.epochMillis(i), bars.openScaled(i), bars.highScaled(i), bars.lowScaled(i), bars.closeScaled(i));
+            }
+            writeSize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace all bars with those supplied by the loader; readers wait until the reload is complete.
+     */
+    public void rebuild(Rebuild rebuild) throws IOException {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            writeSize();
+            rebuild.load(this::putUnlocked);
+            writeSize();
+            needsRebuild = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Source of bars for {@link #rebuild(Rebuild)}; called with the write lock held.
+     */
+    @FunctionalInterface
+    public interface Rebuild {
+        void load(Sink sink) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Sink {
+        void put(OHLCBarBuffer bars) throws IOException;
+    }
+
+    /**
+     * Flush the mapping, mark the file clean and release it.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            writeSize();
+            map.putLong(CLEAN_AT, 1);
+            map.force();
+            channel.close();
+            channel = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private void putUnlocked(OHLCBarBuffer bars) throws IOException {
+        for (int i = 0; i < bars.size(); i++) {
+            put(bars.epochMillis(i), bars.openScaled(i), bars.highScaled(i), bars.lowScaled(i), bars.closeScaled(i));
+        }
+    }
+
+    private void put(long epochMillis, long open, long high, long low, long close) throws IOException {
+        int i = size == 0 || epochMillis > columns[EPOCH].get(size - 1) ? size : lowerBound(epochMillis);
+        if (i == size || columns[EPOCH].get(i) != epochMillis) {
+            if (size == capacity) {
+                grow(capacity * 2);
+            }
+            // late bar: shift the tail one slot to keep the columns sorted
+            for (int c = 0; c < COLUMNS; c++) {
+                LongBuffer column = columns[c];
+                for (int j = size; j > i; j--) {
+                    column.put(j, column.get(j - 1));
+                }
+            }
+            size++;
+        }
+        columns[EPOCH].put(i, epochMillis);
+        columns[OPEN].put(i, open);
+        columns[HIGH].put(i, high);
+        columns[LOW].put(i, low);
+        columns[CLOSE].put(i, close);
+    }
+
+    // first index whose epoch is >= epochMillis
+    private int lowerBound(long epochMillis) {
+        LongBuffer epoch = columns[EPOCH];
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epoch.get(mid) < epochMillis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void writeSize() {
+        map.putLong(SIZE_AT, size);
+    }
+
+    private void openFile(int initialCapacity) throws IOException {
+        boolean exists = Files.exists(file) && Files.size(file) >= HEADER_BYTES;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (exists) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            long storedCapacity = header.getLong(CAPACITY_AT);
+            boolean valid =
+                header.getLong(MAGIC_AT) == MAGIC &&
+                header.getLong(VERSION_AT) == VERSION &&
+                storedCapacity > 0 &&
+                channel.size() == fileBytes(storedCapacity);
+            if (valid) {
+                mapColumns((int) storedCapacity);
+                size = (int) map.getLong(SIZE_AT);
+                needsRebuild = map.getLong(CLEAN_AT) != 1;
+                if (needsRebuild) {
+                    size = 0;
+                }
+                map.putLong(CLEAN_AT, 0);
+                map.force();
+                return;
+            }
+        }
+        channel.truncate(0);
+        mapColumns(initialCapacity);
+        map.putLong(MAGIC_AT, MAGIC);
+        map.putLong(VERSION_AT, VERSION);
+        map.putLong(CAPACITY_AT, initialCapacity);
+        map.putLong(CLEAN_AT, 0);
+        size = 0;
+        writeSize();
+        map.force();
+        needsRebuild = true;
+    }
+
+    private void mapColumns(int newCapacity) throws IOException {
+        capacity = newCapacity;
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes(newCapacity));
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        for (int c = 0; c < COLUMNS; c++) {
+            columns[c] = map.slice(HEADER_BYTES + c * newCapacity * Long.BYTES, newCapacity * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+    }
+
+    // rewrite into a larger file next to the current one, then swap it in
+    private void grow(int newCapacity) throws IOException {
+        if ((long) newCapacity * Long.BYTES * COLUMNS + HEADER_BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Bar store " + file + " cannot grow past " + capacity + " bars");
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".grow");
+        LongBuffer[] old = columns.clone();
+        FileChannel oldChannel = channel;
+        channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapColumns(newCapacity);
+        for (int c = 0; c < COLUMNS; c++) {
+            columns[c].put(0, old[c], 0, size);
+        }
+        map.putLong(MAGIC_AT, MAGIC);
+        map.putLong(VERSION_AT, VERSION);
+        map.putLong(CAPACITY_AT, newCapacity);
+        map.putLong(CLEAN_AT, 0);
+        writeSize();
+        map.force();
+        oldChannel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long fileBytes(long capacity) {
+        return HEADER_BYTES + capacity * Long.BYTES * COLUMNS;
+    }
+}
@@ -0,0 +1,288 @@
+package com.kraj.tradeapp.core.model;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Reusable columnar buffer of OHLC bars for one symbol.
+ * <p>
+ * Bars are decoded straight from the JSON token stream (<code>{"sym": "NQ", "ohlc": [{"d": .., "o": .., "h": ..,
+ * "l": .., "c": ..}, ...]}</code>) into parallel primitive arrays. Prices are kept as longs scaled by
+ * 10^{@value #PRICE_SCALE}, the scale of the <code>NUMERIC(20,6)</code> price columns, so they convert to
+ * {@link BigDecimal} without rounding and to double without parsing.
+ */
+public final class OHLCBarBuffer {
+
+    public static final int PRICE_SCALE = 6;
+
+    private static final long[] POW10 = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L };
+    private static final long PRICE_FACTOR = POW10[PRICE_SCALE];
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    // buffers grown past this are released on clear() instead of being kept for the next payload
+    private static final int RETAINED_CAPACITY = 64 * 1024;
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private String symbol;
+    private int size;
+    private long[] epochMillis;
+    private long[] open;
+    private long[] high;
+    private long[] low;
+    private long[] close;
+
+    public OHLCBarBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OHLCBarBuffer(int capacity) {
+        allocate(Math.max(capacity, 16));
+    }
+
+    // ========================================================================
+    // ACCESSORS
+    // ========================================================================
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long epochMillis(int i) {
+        return epochMillis[i];
+    }
+
+    public long openScaled(int i) {
+        return open[i];
+    }
+
+    public long highScaled(int i) {
+        return high[i];
+    }
+
+    public long lowScaled(int i) {
+        return low[i];
+    }
+
+    public long closeScaled(int i) {
+        return close[i];
+    }
+
+    public BigDecimal open(int i) {
+        return toDecimal(open[i]);
+    }
+
+    public BigDecimal high(int i) {
+        return toDecimal(high[i]);
+    }
+
+    public BigDecimal low(int i) {
+        return toDecimal(low[i]);
+    }
+
+    public BigDecimal close(int i) {
+        return toDecimal(close[i]);
+    }
+
+    public static BigDecimal toDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, PRICE_SCALE);
+    }
+
+    public static double toDouble(long scaled) {
+        return (double) scaled / PRICE_FACTOR;
+    }
+
+    public static long toScaled(BigDecimal value) {
+        return value.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long toScaled(double value) {
+        return Math.round(value * PRICE_FACTOR);
+    }
+
+    // ========================================================================
+    // MUTATORS
+    // ========================================================================
+
+    public void add(long epochMillis, long open, long high, long low, long close) {
+        if (size == this.epochMillis.length) {
+            grow(size * 2);
+        }
+        this.epochMillis[size] = epochMillis;
+        this.open[size] = open;
+        this.high[size] = high;
+        this.low[size] = low;
+        this.close[size] = close;
+        size++;
+    }
+
+    /**
+     * Append all bars of another buffer (same symbol) after the bars already held.
+     */
+    public void addAll(OHLCBarBuffer other) {
+        if (size + other.size > epochMillis.length) {
+            grow(Math.max(size + other.size, size * 2));
+        }
+        System.arraycopy(other.epochMillis, 0, epochMillis, size, other.size);
+        System.arraycopy(other.open, 0, open, size, other.size);
+        System.arraycopy(other.high, 0, high, size, other.size);
+        System.arraycopy(other.low, 0, low, size, other.size);
+        System.arraycopy(other.close, 0, close, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Empty the buffer for reuse. Arrays grown by an unusually large payload are released.
+     */
+    public void clear() {
+        size = 0;
+        symbol = null;
+        if (epochMillis.length > RETAINED_CAPACITY) {
+            allocate(DEFAULT_CAPACITY);
+        }
+    }
+
+    // ========================================================================
+    // STREAMING DECODE
+    // ========================================================================
+
+    /**
+     * Decode one OHLC payload object from the parser and append its bars. Unknown fields are skipped.
+     */
+    public void read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected OHLC payload object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("sym".equals(field)) {
+                symbol = parser.getValueAsString();
+            } else if ("ohlc".equals(field) && value == JsonToken.START_ARRAY) {
+                readBars(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readBars(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            long d = 0;
+            long o = NO_VALUE, h = NO_VALUE, l = NO_VALUE, c = NO_VALUE;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "d" -> d = parser.getValueAsLong();
+                    case "o" -> o = readPrice(parser);
+                    case "h" -> h = readPrice(parser);
+                    case "l" -> l = readPrice(parser);
+                    case "c" -> c = readPrice(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (o == NO_VALUE || h == NO_VALUE || l == NO_VALUE || c == NO_VALUE) {
+                throw new JsonParseException(parser, "OHLC bar at " + d + " is missing a price");
+            }
+            add(d, o, h, l, c);
+        }
+    }
+
+    private static long readPrice(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return Math.multiplyExact(parser.getLongValue(), PRICE_FACTOR);
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_STRING) {
+            long scaled = parseScaled(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            return scaled != NO_VALUE ? scaled : toScaled(new BigDecimal(parser.getText().trim()));
+        }
+        return NO_VALUE;
+    }
+
+    /**
+     * Plain decimal text (optional sign, digits, optional fraction of up to {@value #PRICE_SCALE} digits) to a
+     * scaled long. Anything else (exponents, longer fractions, overflow) returns {@link #NO_VALUE} so the caller
+     * can fall back to {@link BigDecimal}.
+     */
+    static long parseScaled(char[] chars, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        if (i == end) {
+            return NO_VALUE;
+        }
+        boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+        }
+        long value = 0;
+        int fractionDigits = -1;
+        int digits = 0;
+        for (; i < end; i++) {
+            char ch = chars[i];
+            if (ch == '.') {
+                if (fractionDigits >= 0) {
+                    return NO_VALUE;
+                }
+                fractionDigits = 0;
+                continue;
+            }
+            if (ch < '0' || ch > '9') {
+                return NO_VALUE;
+            }
+            if (fractionDigits >= 0) {
+                if (fractionDigits == PRICE_SCALE) {
+                    return NO_VALUE;
+                }
+                fractionDigits++;
+            }
+            if (value > (Long.MAX_VALUE - 9) / 10) {
+                return NO_VALUE;
+            }
+            value = value * 10 + (ch - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            return NO_VALUE;
+        }
+        long factor = POW10[PRICE_SCALE - Math.max(fractionDigits, 0)];
+        if (value > Long.MAX_VALUE / factor) {
+            return NO_VALUE;
+        }
+        value *= factor;
+        return negative ? -value : value;
+    }
+
+    private void grow(int capacity) {
+        epochMillis = Arrays.copyOf(epochMillis, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+    }
+
+    private void allocate(int capacity) {
+        epochMillis = new long[capacity];
+        open = new long[capacity];
+        high = new long[capacity];
+        low = new long[capacity];
+        close = new long[capacity];
+    }
+}
@@ -0,0 +1,49 @@
+package com.kraj.tradeapp.core.model;
+
+/**
+ * Bucket arithmetic shared by every OHLC aggregation path, mirroring the SQL aggregation queries:
+ * <pre>
+ * FLOOR((EXTRACT(EPOCH FROM timezone('America/New_York', timestamp)) - 17 * 3600) / :intervalSeconds)
+ *     * :intervalSeconds + 17 * 3600
+ * </pre>
+ * i.e. buckets are laid on the New York wall clock, anchored to the futures session, and the bucket start is
+ * stored as that wall-clock epoch (<code>to_timestamp(aggregated_epoch)</code>). The offset is the 17:00 session
+ * close of {@link SessionCalendar}, which does the time-zone arithmetic.
+ */
+public final class OHLCBuckets {
+
+    public static final long SESSION_ALIGNMENT_OFFSET_SECONDS = SessionCalendar.SESSION_CLOSE_SECOND_OF_DAY;
+
+    private OHLCBuckets() {}
+
+    /**
+     * New York wall-clock time of an instant, expressed as epoch seconds (what
+     * <code>EXTRACT(EPOCH FROM timezone('America/New_York', ts))</code> returns).
+     */
+    public static long nyLocalEpochSeconds(long epochMillis) {
+        return SessionCalendar.nyLocalEpochSeconds(epochMillis);
+    }
+
+    /**
+     * Start of the bucket holding the given bar, in the same epoch seconds the SQL writes to
+     * <code>ohlc_aggregated.timestamp</code>.
+     */
+    public static long bucketStartSeconds(long epochMillis, long intervalSeconds) {
+        return SessionCalendar.bucketStartSeconds(epochMillis, intervalSeconds);
+    }
+
+    /**
+     * Length of a stored timeframe label ("5m", "1h", "1d", ...) in seconds.
+     */
+    public static long timeframeSeconds(String timeframe) {
+        String value = timeframe.trim().toLowerCase();
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> amount;
+            case 'm' -> amount * 60;
+            case 'h' -> amount * 3600;
+            case 'd' -> amount * 86_400;
+            default -> throw new IllegalArgumentException("Unsupported timeframe " + timeframe);
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.kraj.tradeapp.core.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One aggregated bar of a symbol/timeframe. Prices are scaled longs as in {@link OHLCBarBuffer};
+ * <code>bucketStartSeconds</code> is the value stored in <code>ohlc_aggregated.timestamp</code>
+ * (see {@link OHLCBuckets}).
+ */
+public record OHLCCandle(
+    String symbol,
+    String timeframe,
+    long bucketStartSeconds,
+    long nyDateTimeId,
+    long open,
+    long high,
+    long low,
+    long close,
+    boolean closed
+) {
+    public Instant timestamp() {
+        return Instant.ofEpochSecond(bucketStartSeconds);
+    }
+
+    public BigDecimal openDecimal() {
+        return OHLCBarBuffer.toDecimal(open);
+    }
+
+    public BigDecimal highDecimal() {
+        return OHLCBarBuffer.toDecimal(high);
+    }
+
+    public BigDecimal lowDecimal() {
+        return OHLCBarBuffer.toDecimal(low);
+    }
+
+    public BigDecimal closeDecimal() {
+        return OHLCBarBuffer.toDecimal(close);
+    }
+}
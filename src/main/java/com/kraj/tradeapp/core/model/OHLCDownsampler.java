@@ -0,0 +1,127 @@
+package com.kraj.tradeapp.core.model;
+
+/**
+ * Server-side reduction of 1m bars for charts.
+ * <p>
+ * {@link Rebucketer} folds a time-ordered bar stream into OHLC bars of a larger interval with the session
+ * alignment of {@link OHLCBuckets}; {@link #lttb(OHLCBarBuffer, int)} picks a visually representative subset of
+ * bars by their closes (Largest-Triangle-Three-Buckets). Output bars carry the UTC epoch of their bucket start.
+ */
+public final class OHLCDownsampler {
+
+    private OHLCDownsampler() {}
+
+    /**
+     * Smallest multiple of <code>baseSeconds</code> that covers the range in at most <code>maxPoints</code> bars.
+     */
+    public static long intervalFor(long rangeSeconds, long baseSeconds, int maxPoints) {
+        long buckets = Math.max(1, (rangeSeconds + baseSeconds - 1) / baseSeconds);
+        long factor = Math.max(1, (buckets + maxPoints - 1) / maxPoints);
+        return baseSeconds * factor;
+    }
+
+    /**
+     * Folds ascending 1m bars into bars of <code>intervalSeconds</code>.
+     */
+    public static final class Rebucketer implements MappedBarStore.BarVisitor {
+
+        private final long intervalSeconds;
+        private final OHLCBarBuffer out;
+
+        private long bucket = Long.MIN_VALUE;
+        private long bucketEpochMillis;
+        private long open;
+        private long high;
+        private long low;
+        private long close;
+
+        public Rebucketer(String symbol, long intervalSeconds, int expectedBars) {
+            this.intervalSeconds = intervalSeconds;
+            this.out = new OHLCBarBuffer(expectedBars);
+            this.out.setSymbol(symbol);
+        }
+
+        @Override
+        public void bar(long epochMillis, long barOpen, long barHigh, long barLow, long barClose) {
+            long barBucket = OHLCBuckets.bucketStartSeconds(epochMillis, intervalSeconds);
+            if (barBucket != bucket) {
+                flush();
+                bucket = barBucket;
+                // bucket starts are New York wall-clock epochs; the first bar may be on the other side of a DST change
+                bucketEpochMillis = SessionCalendar.toEpochSeconds(barBucket) * 1000;
+                open = barOpen;
+                high = barHigh;
+                low = barLow;
+            } else {
+                high = Math.max(high, barHigh);
+                low = Math.min(low, barLow);
+            }
+            close = barClose;
+        }
+
+        public OHLCBarBuffer finish() {
+            flush();
+            bucket = Long.MIN_VALUE;
+            return out;
+        }
+
+        private void flush() {
+            if (bucket != Long.MIN_VALUE) {
+                out.add(bucketEpochMillis, open, high, low, close);
+            }
+        }
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets over the closes: keeps the first and last bar and, from each of the
+     * <code>threshold - 2</code> buckets in between, the bar forming the largest triangle with the previously
+     * kept bar and the average of the next bucket. Returns the input when it is already small enough.
+     */
+    public static OHLCBarBuffer lttb(OHLCBarBuffer bars, int threshold) {
+        int n = bars.size();
+        if (threshold >= n || threshold < 3) {
+            return bars;
+        }
+        OHLCBarBuffer out = new OHLCBarBuffer(threshold);
+        out.setSymbol(bars.getSymbol());
+        copy(bars, 0, out);
+
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            int nextStart = (int) Math.floor((i + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += bars.epochMillis(j);
+                avgY += bars.closeScaled(j);
+            }
+            int count = Math.max(1, nextEnd - nextStart);
+            avgX /= count;
+            avgY /= count;
+
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double ax = bars.epochMillis(a);
+            double ay = bars.closeScaled(a);
+            double maxArea = -1;
+            int selected = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (bars.closeScaled(j) - ay) - (ax - bars.epochMillis(j)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = j;
+                }
+            }
+            copy(bars, selected, out);
+            a = selected;
+        }
+        copy(bars, n - 1, out);
+        return out;
+    }
+
+    private static void copy(OHLCBarBuffer from, int i, OHLCBarBuffer to) {
+        to.add(from.epochMillis(i), from.openScaled(i), from.highScaled(i), from.lowScaled(i), from.closeScaled(i));
+    }
+}
@@ -0,0 +1,12 @@
+package com.kraj.tradeapp.core.model;
+
+import java.time.Instant;
+
+/**
+ * Missing 1m bars of a symbol: every minute with <code>from &lt;= time &lt; to</code>.
+ */
+public record OHLCGap(String symbol, Instant from, Instant to) {
+    public long missingMinutes() {
+        return (to.getEpochSecond() - from.getEpochSecond()) / 60;
+    }
+}
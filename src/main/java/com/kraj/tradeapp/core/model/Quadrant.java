@@ -25,6 +25,32 @@ public enum Quadrant {
         return description;
     }
 
+    /**
+     * Quadrant of a price within the range <code>low</code>-<code>high</code>, all scaled as in
+     * {@link OHLCBarBuffer}. A quadrant includes its lower boundary; the range high belongs to Q1.
+     */
+    public static Quadrant of(long price, long low, long high) {
+        if (price > high) {
+            return BREACH_ABOVE_RANGE;
+        }
+        if (price < low) {
+            return BREACH_BELOW_RANGE;
+        }
+        // compared as 4 * (price - low) against multiples of the range size, so no level is rounded
+        long position = 4 * (price - low);
+        long size = high - low;
+        if (position >= 3 * size) {
+            return Q1_75_100;
+        }
+        if (position >= 2 * size) {
+            return Q2_50_75;
+        }
+        if (position >= size) {
+            return Q3_25_50;
+        }
+        return Q4_0_25;
+    }
+
     public static Quadrant fromString(String value) {
         if (value == null || value.trim().isEmpty()) {
             return UNKNOWN;
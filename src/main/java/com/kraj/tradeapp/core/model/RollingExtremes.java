@@ -0,0 +1,88 @@
+package com.kraj.tradeapp.core.model;
+
+/**
+ * Highest high and lowest low of the last <code>period</code> bars, updated in amortized O(1) per bar.
+ * <p>
+ * Highs and lows are kept in ring buffers indexed by bar sequence; two monotonic queues of sequences (values
+ * decreasing for the maxima, increasing for the minima) hold the only bars that can still become the extreme, so
+ * the answer is always at the head. Not thread-safe.
+ */
+public final class RollingExtremes {
+
+    private final int period;
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] maxQueue;
+    private final long[] minQueue;
+    private long maxHead, maxTail, minHead, minTail;
+    private long count;
+
+    public RollingExtremes(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be at least 1");
+        }
+        this.period = period;
+        this.highs = new long[period];
+        this.lows = new long[period];
+        this.maxQueue = new long[period];
+        this.minQueue = new long[period];
+    }
+
+    public void push(long high, long low) {
+        long seq = ++count;
+        int slot = (int) (seq % period);
+        highs[slot] = high;
+        lows[slot] = low;
+        long expired = seq - period;
+
+        while (maxHead < maxTail && maxQueue[(int) (maxHead % period)] <= expired) {
+            maxHead++;
+        }
+        while (maxHead < maxTail && highs[(int) (maxQueue[(int) ((maxTail - 1) % period)] % period)] <= high) {
+            maxTail--;
+        }
+        maxQueue[(int) (maxTail++ % period)] = seq;
+
+        while (minHead < minTail && minQueue[(int) (minHead % period)] <= expired) {
+            minHead++;
+        }
+        while (minHead < minTail && lows[(int) (minQueue[(int) ((minTail - 1) % period)] % period)] >= low) {
+            minTail--;
+        }
+        minQueue[(int) (minTail++ % period)] = seq;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    /**
+     * Bars pushed so far.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Whether a full <code>period</code> of bars has been pushed.
+     */
+    public boolean isFull() {
+        return count >= period;
+    }
+
+    /**
+     * Highest high of the last <code>period</code> bars (fewer before the window fills), or {@link Long#MIN_VALUE}
+     * before the first bar.
+     */
+    public long high() {
+        return count == 0 ? Long.MIN_VALUE : highs[(int) (maxQueue[(int) (maxHead % period)] % period)];
+    }
+
+    /**
+     * Lowest low of the last <code>period</code> bars (fewer before the window fills), or {@link Long#MAX_VALUE}
+     * before the first bar.
+     */
+    public long low() {
+        return count == 0 ? Long.MAX_VALUE : lows[(int) (minQueue[(int) (minHead % period)] % period)];
+    }
+}
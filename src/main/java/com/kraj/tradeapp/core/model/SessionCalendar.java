@@ -0,0 +1,218 @@
+package com.kraj.tradeapp.core.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * New York time and CME futures session arithmetic on epoch millis, without formatting, parsing or allocation.
+ * <p>
+ * The America/New_York UTC offset is precomputed per UTC day for {@value #FIRST_YEAR}-{@value #LAST_YEAR}: the
+ * offset in force at midnight plus the second of the day at which a DST transition (if any) switches to the next
+ * day's offset. Every lookup is a table read and a compare; instants outside the table fall back to
+ * {@link ZoneRules}. Calendar fields are derived from the local epoch day with integer arithmetic.
+ * <p>
+ * The futures session opens at 18:00 New York and closes at 17:00 the next day; a session is identified by the
+ * date it closes on (Sunday evening belongs to Monday's session). Exchange holidays are not modelled.
+ */
+public final class SessionCalendar {
+
+    public static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    public static final int SESSION_OPEN_SECOND_OF_DAY = 18 * 3600;
+    public static final int SESSION_CLOSE_SECOND_OF_DAY = 17 * 3600;
+
+    static final int FIRST_YEAR = 2000;
+    static final int LAST_YEAR = 2100;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    // shifts 18:00 onto midnight so the local epoch day of (time + shift) is the session's closing date
+    private static final int SESSION_DAY_SHIFT_SECONDS = SECONDS_PER_DAY - SESSION_OPEN_SECOND_OF_DAY;
+
+    private static final ZoneRules RULES = NEW_YORK.getRules();
+    private static final long FIRST_DAY = LocalDate.of(FIRST_YEAR, 1, 1).toEpochDay();
+    private static final int DAYS = (int) (LocalDate.of(LAST_YEAR + 1, 1, 1).toEpochDay() - FIRST_DAY);
+
+    // UTC offset in force at 00:00 UTC of each day; one extra entry so day + 1 is always valid
+    private static final int[] MIDNIGHT_OFFSET = new int[DAYS + 1];
+    // UTC second of the day from which MIDNIGHT_OFFSET[day + 1] applies, SECONDS_PER_DAY when there is no transition
+    private static final int[] CHANGE_AT = new int[DAYS];
+    private static final TradingSession[] SESSION_BY_MINUTE = new TradingSession[24 * 60];
+
+    static {
+        for (int day = 0; day <= DAYS; day++) {
+            MIDNIGHT_OFFSET[day] = RULES.getOffset(Instant.ofEpochSecond((FIRST_DAY + day) * SECONDS_PER_DAY)).getTotalSeconds();
+        }
+        Arrays.fill(CHANGE_AT, SECONDS_PER_DAY);
+        long end = (FIRST_DAY + DAYS) * SECONDS_PER_DAY;
+        ZoneOffsetTransition transition = RULES.nextTransition(Instant.ofEpochSecond(FIRST_DAY * SECONDS_PER_DAY));
+        while (transition != null && transition.getInstant().getEpochSecond() < end) {
+            long second = transition.getInstant().getEpochSecond();
+            CHANGE_AT[(int) (Math.floorDiv(second, SECONDS_PER_DAY) - FIRST_DAY)] = (int) Math.floorMod(second, SECONDS_PER_DAY);
+            transition = RULES.nextTransition(transition.getInstant());
+        }
+        for (TradingSession session : TradingSession.values()) {
+            for (int minute = 0; minute < SESSION_BY_MINUTE.length; minute++) {
+                if (SESSION_BY_MINUTE[minute] == null && session.contains(minute)) {
+                    SESSION_BY_MINUTE[minute] = session;
+                }
+            }
+        }
+    }
+
+    private SessionCalendar() {}
+
+    // ========================================================================
+    // NEW YORK TIME
+    // ========================================================================
+
+    /**
+     * New York UTC offset in force at the given instant.
+     */
+    public static int offsetSeconds(long epochSeconds) {
+        long day = Math.floorDiv(epochSeconds, SECONDS_PER_DAY) - FIRST_DAY;
+        if (day < 0 || day >= DAYS) {
+            return RULES.getOffset(Instant.ofEpochSecond(epochSeconds)).getTotalSeconds();
+        }
+        int i = (int) day;
+        return Math.floorMod(epochSeconds, SECONDS_PER_DAY) < CHANGE_AT[i] ? MIDNIGHT_OFFSET[i] : MIDNIGHT_OFFSET[i + 1];
+    }
+
+    /**
+     * New York wall-clock time of an instant as epoch seconds.
+     */
+    public static long nyLocalEpochSeconds(long epochMillis) {
+        long epochSeconds = Math.floorDiv(epochMillis, 1000);
+        return epochSeconds + offsetSeconds(epochSeconds);
+    }
+
+    /**
+     * Instant, as epoch seconds, of a New York wall-clock time given as epoch seconds. Resolved like
+     * {@link java.time.ZonedDateTime}: the earlier offset when the clock falls back, shifted by the gap when it
+     * springs forward.
+     */
+    public static long toEpochSeconds(long nyLocalEpochSeconds) {
+        // an offset changes at most once within a day on either side
+        int before = offsetSeconds(nyLocalEpochSeconds - SECONDS_PER_DAY);
+        int after = offsetSeconds(nyLocalEpochSeconds + SECONDS_PER_DAY);
+        if (before == after) {
+            return nyLocalEpochSeconds - before;
+        }
+        long withBefore = nyLocalEpochSeconds - before;
+        long withAfter = nyLocalEpochSeconds - after;
+        boolean beforeValid = offsetSeconds(withBefore) == before;
+        boolean afterValid = offsetSeconds(withAfter) == after;
+        if (beforeValid && afterValid) {
+            return Math.min(withBefore, withAfter);
+        }
+        return afterValid ? withAfter : withBefore;
+    }
+
+    /**
+     * New York wall-clock time as <code>yyyyMMddHHmm</code>.
+     */
+    public static long timeIndex(long epochMillis) {
+        return timeIndexOfLocal(nyLocalEpochSeconds(epochMillis));
+    }
+
+    /**
+     * New York wall-clock epoch (see {@link #nyLocalEpochSeconds(long)}) as <code>yyyyMMddHHmm</code>.
+     */
+    public static long timeIndexOfLocal(long local) {
+        int secondOfDay = (int) Math.floorMod(local, SECONDS_PER_DAY);
+        return civilDate(Math.floorDiv(local, SECONDS_PER_DAY)) * 10_000 + (secondOfDay / 3600) * 100 + (secondOfDay % 3600) / 60;
+    }
+
+    /**
+     * Start of the <code>intervalSeconds</code> bucket holding the instant, as a New York wall-clock epoch on a grid
+     * anchored at the 17:00 session close (see {@link OHLCBuckets}).
+     */
+    public static long bucketStartSeconds(long epochMillis, long intervalSeconds) {
+        long local = nyLocalEpochSeconds(epochMillis) - SESSION_CLOSE_SECOND_OF_DAY;
+        return Math.floorDiv(local, intervalSeconds) * intervalSeconds + SESSION_CLOSE_SECOND_OF_DAY;
+    }
+
+    // ========================================================================
+    // FUTURES SESSION
+    // ========================================================================
+
+    /**
+     * Closing date of the futures session holding the instant, as <code>yyyyMMdd</code>.
+     */
+    public static int sessionId(long epochMillis) {
+        return sessionIdOfLocal(nyLocalEpochSeconds(epochMillis));
+    }
+
+    /**
+     * Same as {@link #sessionId(long)} for a New York wall-clock time given as epoch seconds, such as a bucket start
+     * from {@link #bucketStartSeconds(long, long)}.
+     */
+    public static int sessionIdOfLocal(long nyLocalEpochSeconds) {
+        return (int) civilDate(Math.floorDiv(nyLocalEpochSeconds + SESSION_DAY_SHIFT_SECONDS, SECONDS_PER_DAY));
+    }
+
+    /**
+     * Epoch millis of the 18:00 open of the session holding the instant.
+     */
+    public static long sessionOpenMillis(long epochMillis) {
+        long sessionDay = Math.floorDiv(nyLocalEpochSeconds(epochMillis) + SESSION_DAY_SHIFT_SECONDS, SECONDS_PER_DAY);
+        return toEpochMillis(sessionDay * SECONDS_PER_DAY - SESSION_DAY_SHIFT_SECONDS);
+    }
+
+    /**
+     * Epoch millis of the 17:00 close of the session holding the instant.
+     */
+    public static long sessionCloseMillis(long epochMillis) {
+        long sessionDay = Math.floorDiv(nyLocalEpochSeconds(epochMillis) + SESSION_DAY_SHIFT_SECONDS, SECONDS_PER_DAY);
+        return toEpochMillis(sessionDay * SECONDS_PER_DAY + SESSION_CLOSE_SECOND_OF_DAY);
+    }
+
+    /**
+     * Whether the futures market trades at the instant: Sunday 18:00 to Friday 17:00, less the daily 17:00-18:00
+     * halt.
+     */
+    public static boolean isSessionOpen(long epochMillis) {
+        long local = nyLocalEpochSeconds(epochMillis);
+        int secondOfDay = (int) Math.floorMod(local, SECONDS_PER_DAY);
+        // 1970-01-01 was a Thursday; 0 = Monday .. 6 = Sunday
+        int dayOfWeek = (int) Math.floorMod(Math.floorDiv(local, SECONDS_PER_DAY) + 3, 7);
+        return switch (dayOfWeek) {
+            case 4 -> secondOfDay < SESSION_CLOSE_SECOND_OF_DAY;
+            case 5 -> false;
+            case 6 -> secondOfDay >= SESSION_OPEN_SECOND_OF_DAY;
+            default -> secondOfDay < SESSION_CLOSE_SECOND_OF_DAY || secondOfDay >= SESSION_OPEN_SECOND_OF_DAY;
+        };
+    }
+
+    /**
+     * {@link TradingSession} window holding the instant, or null outside all of them.
+     */
+    public static TradingSession tradingSession(long epochMillis) {
+        return SESSION_BY_MINUTE[(int) Math.floorMod(nyLocalEpochSeconds(epochMillis), SECONDS_PER_DAY) / 60];
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private static long toEpochMillis(long localEpochSeconds) {
+        return toEpochSeconds(localEpochSeconds) * 1000;
+    }
+
+    // yyyyMMdd of an epoch day (proleptic Gregorian, days-from-civil inverted)
+    private static long civilDate(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10_000 + month * 100 + day;
+    }
+}
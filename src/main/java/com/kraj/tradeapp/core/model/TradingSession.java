@@ -19,4 +19,11 @@ public enum TradingSession {
         this.endHr = endHr;
         this.endMin = endMin;
     }
+
+    /**
+     * Whether a New York minute of the day (0-1439) falls in this window, both ends inclusive.
+     */
+    public boolean contains(int minuteOfDay) {
+        return minuteOfDay >= startHr * 60 + startMin && minuteOfDay <= endHr * 60 + endMin;
+    }
 }
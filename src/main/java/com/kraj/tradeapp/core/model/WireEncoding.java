@@ -0,0 +1,50 @@
+package com.kraj.tradeapp.core.model;
+
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Payload encoding of a dashboard WebSocket subscription, negotiated with the <code>encoding</code> STOMP
+ * header on SUBSCRIBE. Each non-JSON encoding gets its own broker destination tree
+ * (<code>/topic/events/NQ/M5</code> -&gt; <code>/topic/cbor/events/NQ/M5</code>) so the broker can route
+ * the binary copy only to the sessions that asked for it.
+ */
+public enum WireEncoding {
+    JSON("json", "/topic/"),
+    CBOR("cbor", "/topic/cbor/");
+
+    public static final String HEADER = "encoding";
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final String value;
+    private final String topicPrefix;
+
+    WireEncoding(String value, String topicPrefix) {
+        this.value = value;
+        this.topicPrefix = topicPrefix;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Broker destination carrying this encoding for a logical <code>/topic/...</code> destination.
+     */
+    public String toBrokerDestination(String destination) {
+        if (this == JSON || destination == null || !destination.startsWith(TOPIC_PREFIX) || destination.startsWith(topicPrefix)) {
+            return destination;
+        }
+        return topicPrefix + destination.substring(TOPIC_PREFIX.length());
+    }
+
+    public static WireEncoding fromHeader(@Nullable String value) {
+        for (WireEncoding encoding : WireEncoding.values()) {
+            if (StringUtils.equalsIgnoreCase(encoding.getValue(), StringUtils.trim(value))) {
+                return encoding;
+            }
+        }
+        return JSON;
+    }
+}
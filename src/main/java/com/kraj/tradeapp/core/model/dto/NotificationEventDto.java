@@ -1,36 +1,63 @@
 package com.kraj.tradeapp.core.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.AccessLevel;
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.Value;
 
-@Data
+/**
+ * Immutable view of a notification event, built once per event version and shared by every reader.
+ * Relative time ("x min(s) ago") is left to the client, computed from {@link #datetimeEpochMs}.
+ */
+@Value
 @Builder
 public class NotificationEventDto {
 
-    private Long id;
-    private String datetime;
-    private String symbol;
-    private String source;
-    private String indicator;
-    private String indicatorDisplayName;
-    private String direction;
-    private String indicatorSubCategory;
-    private String indicatorSubCategoryDisplayName;
-    private String rawAlertMsg;
-    private String rawPayload;
-    private BigDecimal price;
-    private String interval;
-    private String candleType;
-    private String created;
-    private String lastUpdated;
-    private BigDecimal score;
-    private boolean isStrategy;
-    private String strategyName;
-    private String strategyProcessStatus;
-    private String strategyProcessedAt;
-    private String strategyProcessMsg;
-    private Map<String, Object> additionalData;
-    private String sinceCreatedStr;
+    Long id;
+    String datetime;
+    long datetimeEpochMs;
+    String symbol;
+    String source;
+    String indicator;
+    String indicatorDisplayName;
+    String direction;
+    String indicatorSubCategory;
+    String indicatorSubCategoryDisplayName;
+    String rawAlertMsg;
+    String rawPayload;
+    BigDecimal price;
+    String interval;
+    String candleType;
+    String created;
+    String lastUpdated;
+    BigDecimal score;
+    boolean isStrategy;
+    String strategyName;
+    String strategyProcessStatus;
+    String strategyProcessedAt;
+    String strategyProcessMsg;
+    Map<String, Object> additionalData;
+
+    // JSON form of this DTO, written on first serialization and copied verbatim afterwards
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Builder.Default
+    AtomicReference<String> serializedJson = new AtomicReference<>();
+
+    @JsonIgnore
+    public String getSerializedJson() {
+        return serializedJson.get();
+    }
+
+    public void cacheSerializedJson(String json) {
+        serializedJson.compareAndSet(null, json);
+    }
 }
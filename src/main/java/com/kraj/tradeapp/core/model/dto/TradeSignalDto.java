@@ -17,5 +17,4 @@ public class TradeSignalDto {
     private BigDecimal price;
     private String source;
     private String strategy;
-    private String sinceCreatedStr;
 }
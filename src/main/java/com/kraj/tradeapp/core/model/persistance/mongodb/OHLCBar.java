@@ -0,0 +1,39 @@
+package com.kraj.tradeapp.core.model.persistance.mongodb;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+/**
+ * 1m bar in the <code>ohlc_bars</code> time-series collection. Bars are bucketed by symbol (the metaField), so
+ * the same minute of different symbols no longer shares an id as in <code>ohlc_data</code>.
+ */
+@Document(collection = "ohlc_bars")
+@TimeSeries(timeField = "timestamp", metaField = "symbol", granularity = Granularity.MINUTES)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class OHLCBar {
+
+    @Id
+    private String id; // assigned by Mongo
+
+    private String symbol; // "NQ", "ES"
+
+    private Instant timestamp;
+
+    private double open;
+
+    private double high;
+
+    private double low;
+
+    private double close;
+}
@@ -21,6 +21,12 @@ public interface NotificationEventRepository extends JpaRepository<NotificationE
         @Param("end") ZonedDateTime end
     );
 
+    @Query("SELECT ne FROM NotificationEvent ne WHERE ne.symbol = :symbol AND ne.id > :lastId ORDER BY ne.id ASC")
+    List<NotificationEvent> findBySymbolAfterId(@Param("symbol") String symbol, @Param("lastId") Long lastId);
+
+    @Query("SELECT COALESCE(MAX(ne.id), 0) FROM NotificationEvent ne WHERE ne.symbol = :symbol")
+    long findMaxIdBySymbol(@Param("symbol") String symbol);
+
     @Query(
         "SELECT ne FROM NotificationEvent ne WHERE ne.indicator = :indicator AND ne.interval = :interval " +
         "AND ne.symbol = :symbol ORDER BY ne.datetime DESC"
@@ -0,0 +1,617 @@
+package com.kraj.tradeapp.core.repository;
+
+import com.kraj.tradeapp.core.model.CommonUtil;
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCBuckets;
+import com.kraj.tradeapp.core.model.OHLCCandle;
+import com.kraj.tradeapp.core.model.OHLCGap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Bulk JDBC access to the OHLC tables for paths where per-entity JPA is too slow.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OhlcJdbcRepository {
+
+    private static final String CREATE_STAGING =
+        "CREATE TEMP TABLE ohlc_data_staging (LIKE ohlc_data INCLUDING DEFAULTS) ON COMMIT DROP";
+
+    private static final String COPY_STAGING =
+        "COPY ohlc_data_staging (symbol, timestamp, ny_date_time_id, open, high, low, close) FROM STDIN";
+
+    // DISTINCT ON keeps one row per key so a payload that repeats a bar cannot hit the same row twice; the staging
+    // heap is filled in COPY order, so ctid DESC lets the last copy of a repeated bar win
+    private static final String MERGE_STAGING =
+        "INSERT INTO ohlc_data (symbol, timestamp, ny_date_time_id, open, high, low, close) " +
+        "SELECT DISTINCT ON (symbol, timestamp) symbol, timestamp, ny_date_time_id, open, high, low, close " +
+        "FROM ohlc_data_staging " +
+        "ORDER BY symbol, timestamp, ctid DESC " +
+        "ON CONFLICT (symbol, timestamp) DO UPDATE SET " +
+        "ny_date_time_id = EXCLUDED.ny_date_time_id, open = EXCLUDED.open, high = EXCLUDED.high, " +
+        "low = EXCLUDED.low, close = EXCLUDED.close " +
+        "WHERE (ohlc_data.open, ohlc_data.high, ohlc_data.low, ohlc_data.close) " +
+        "IS DISTINCT FROM (EXCLUDED.open, EXCLUDED.high, EXCLUDED.low, EXCLUDED.close)";
+
+    private static final String UPSERT_AGGREGATED =
+        "INSERT INTO ohlc_aggregated (symbol, timeframe, timestamp, ny_date_time_id, open, high, low, close) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (symbol, timeframe, timestamp) DO UPDATE SET " +
+        "ny_date_time_id = EXCLUDED.ny_date_time_id, open = EXCLUDED.open, high = EXCLUDED.high, " +
+        "low = EXCLUDED.low, close = EXCLUDED.close " +
+        "WHERE (ohlc_aggregated.ny_date_time_id, ohlc_aggregated.open, ohlc_aggregated.high, ohlc_aggregated.low, " +
+        "ohlc_aggregated.close) IS DISTINCT FROM (EXCLUDED.ny_date_time_id, EXCLUDED.open, EXCLUDED.high, EXCLUDED.low, " +
+        "EXCLUDED.close)";
+
+    // The symbols CTE is either one bound symbol or a loose index scan over the (symbol, timestamp) index; each
+    // symbol's rows since the scan start are read once and fanned out to every requested timeframe. Open/close
+    // come from one window sort per bucket; DISTINCT ON keeps one row per (symbol, timeframe, bucket).
+    private static final String ROLLUP_AGGREGATED =
+        """
+        WITH RECURSIVE symbols AS (
+            %3$s
+        ),
+        timeframes (timeframe, interval_seconds, first_bucket, end_bucket) AS (
+            VALUES %1$s
+        ),
+        ohlc_raw AS (
+            SELECT
+                d.symbol,
+                d.timestamp,
+                d.ny_date_time_id,
+                d.open,
+                d.high,
+                d.low,
+                d.close,
+                EXTRACT(EPOCH FROM timezone('America/New_York', d.timestamp)) AS local_epoch
+            FROM symbols s
+            CROSS JOIN LATERAL (
+                SELECT * FROM ohlc_data WHERE ohlc_data.symbol = s.symbol AND ohlc_data.timestamp >= ? AND ohlc_data.timestamp < ?
+            ) d
+        ),
+        ohlc_bucketed AS (
+            SELECT
+                r.*,
+                t.timeframe,
+                FLOOR((r.local_epoch - %2$d) / t.interval_seconds) * t.interval_seconds + %2$d AS bucket
+            FROM ohlc_raw r
+            JOIN timeframes t ON r.local_epoch >= t.first_bucket AND r.local_epoch < t.end_bucket
+        )
+        INSERT INTO ohlc_aggregated (symbol, timeframe, timestamp, ny_date_time_id, open, high, low, close)
+        SELECT DISTINCT ON (symbol, timeframe, bucket)
+            symbol,
+            timeframe,
+            to_timestamp(bucket),
+            -- the bucket start, as the baseline aggregation stored it
+            to_char(to_timestamp(bucket) AT TIME ZONE 'UTC', 'YYYYMMDDHH24MI')::BIGINT,
+            first_value(open) OVER w,
+            max(high) OVER w,
+            min(low) OVER w,
+            last_value(close) OVER w
+        FROM ohlc_bucketed
+        WINDOW w AS (PARTITION BY symbol, timeframe, bucket ORDER BY timestamp ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING)
+        ORDER BY symbol, timeframe, bucket
+        ON CONFLICT (symbol, timeframe, timestamp) DO UPDATE SET
+            ny_date_time_id = EXCLUDED.ny_date_time_id, open = EXCLUDED.open, high = EXCLUDED.high,
+            low = EXCLUDED.low, close = EXCLUDED.close
+        WHERE (ohlc_aggregated.ny_date_time_id, ohlc_aggregated.open, ohlc_aggregated.high, ohlc_aggregated.low, ohlc_aggregated.close)
+            IS DISTINCT FROM (EXCLUDED.ny_date_time_id, EXCLUDED.open, EXCLUDED.high, EXCLUDED.low, EXCLUDED.close)
+        """;
+
+    private static final String ROLLUP_TIMEFRAME_ROW = "(?::text, ?::bigint, ?::numeric, ?::numeric)";
+
+    // scan bound of an open-ended rollup
+    private static final Instant ROLLUP_NO_END = Instant.parse("9999-12-31T00:00:00Z");
+
+    private static final String ROLLUP_ONE_SYMBOL = "SELECT ?::text AS symbol";
+
+    private static final String ROLLUP_ALL_SYMBOLS =
+        "SELECT min(symbol) AS symbol FROM ohlc_data " +
+        "UNION ALL " +
+        "SELECT (SELECT min(d.symbol) FROM ohlc_data d WHERE d.symbol > s.symbol) FROM symbols s WHERE s.symbol IS NOT NULL";
+
+    // newest 1m bar of every symbol, one index probe per symbol
+    private static final String LATEST_BARS =
+        "WITH RECURSIVE symbols AS (" +
+        ROLLUP_ALL_SYMBOLS +
+        ") " +
+        "SELECT s.symbol, (SELECT max(d.timestamp) FROM ohlc_data d WHERE d.symbol = s.symbol) AS latest " +
+        "FROM symbols s WHERE s.symbol IS NOT NULL";
+
+    private static final String COUNT_BARS = "SELECT count(*) FROM ohlc_data WHERE symbol = ?";
+
+    private static final String AGGREGATED_WATERMARKS =
+        "SELECT symbol, timeframe, max(timestamp) AS latest FROM ohlc_aggregated WHERE symbol = ? GROUP BY timeframe, symbol";
+
+    // consecutive bars more than a minute apart; walks the (symbol, timestamp) primary key in order
+    // the minute before the range and its end are added as bars so a hole touching either edge is reported too
+    private static final String BAR_HOLES =
+        "SELECT previous, timestamp FROM (" +
+        "SELECT timestamp, lag(timestamp) OVER (ORDER BY timestamp) AS previous FROM (" +
+        "SELECT timestamp FROM ohlc_data WHERE symbol = ? AND timestamp >= ? AND timestamp < ? " +
+        "UNION ALL SELECT CAST(? AS TIMESTAMPTZ) - INTERVAL '1 minute' " +
+        "UNION ALL SELECT CAST(? AS TIMESTAMPTZ)" +
+        ") b) t WHERE timestamp - previous > INTERVAL '1 minute' ORDER BY timestamp";
+
+    // prices come back already scaled to OHLCBarBuffer longs
+    private static final String STREAM_BARS =
+        "SELECT (EXTRACT(EPOCH FROM timestamp) * 1000)::BIGINT, (open * 1e6)::BIGINT, (high * 1e6)::BIGINT, " +
+        "(low * 1e6)::BIGINT, (close * 1e6)::BIGINT FROM ohlc_data WHERE symbol = ? ORDER BY timestamp";
+
+    private static final String STREAM_BARS_RANGE =
+        "SELECT (EXTRACT(EPOCH FROM timestamp) * 1000)::BIGINT, (open * 1e6)::BIGINT, (high * 1e6)::BIGINT, " +
+        "(low * 1e6)::BIGINT, (close * 1e6)::BIGINT FROM ohlc_data " +
+        "WHERE symbol = ? AND timestamp >= ? AND timestamp < ? ORDER BY timestamp";
+
+    private static final int STREAM_CHUNK_BARS = 16 * 1024;
+
+    private static final int COPY_CHUNK_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Rows sent to the database, rows actually inserted or changed, and elapsed time.
+     */
+    public record LoadResult(int rows, int upserted, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1_000_000_000d / elapsedNanos;
+        }
+    }
+
+    // ========================================================================
+    // OHLC_DATA BULK UPSERT
+    // ========================================================================
+
+    /**
+     * Stream 1m bars through <code>COPY</code> into a transaction-scoped staging table, then merge them into
+     * <code>ohlc_data</code> with a single <code>INSERT ... ON CONFLICT (symbol, timestamp) DO UPDATE</code>.
+     * Re-posting the same bars is a no-op; bars whose prices changed are updated in place.
+     */
+    @Transactional
+    public LoadResult upsertBars(OHLCBarBuffer bars) {
+        if (bars.isEmpty()) {
+            return new LoadResult(0, 0, 0);
+        }
+        long start = System.nanoTime();
+        int upserted = jdbcTemplate.execute(
+            (ConnectionCallback<Integer>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING);
+                }
+                copyToStaging(connection, bars);
+                try (Statement statement = connection.createStatement()) {
+                    return statement.executeUpdate(MERGE_STAGING);
+                }
+            }
+        );
+        LoadResult result = new LoadResult(bars.size(), upserted, System.nanoTime() - start);
+        log.info(
+            "Loaded {} {} bars into ohlc_data ({} inserted/changed) in {} ms, {} rows/s",
+            result.rows(),
+            bars.getSymbol(),
+            result.upserted(),
+            result.elapsedNanos() / 1_000_000,
+            Math.round(result.rowsPerSecond())
+        );
+        return result;
+    }
+
+    // ========================================================================
+    // OHLC_AGGREGATED UPSERT
+    // ========================================================================
+
+    /**
+     * Batch upsert of aggregated bars keyed by (symbol, timeframe, timestamp); unchanged rows are not rewritten.
+     */
+    @Transactional
+    public void upsertCandles(List<OHLCCandle> candles) {
+        if (candles.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            UPSERT_AGGREGATED,
+            candles,
+            candles.size(),
+            (ps, candle) -> {
+                ps.setString(1, candle.symbol());
+                ps.setString(2, candle.timeframe());
+                ps.setObject(3, OffsetDateTime.ofInstant(candle.timestamp(), ZoneOffset.UTC));
+                ps.setLong(4, candle.nyDateTimeId());
+                ps.setBigDecimal(5, candle.openDecimal());
+                ps.setBigDecimal(6, candle.highDecimal());
+                ps.setBigDecimal(7, candle.lowDecimal());
+                ps.setBigDecimal(8, candle.closeDecimal());
+            }
+        );
+    }
+
+    // ========================================================================
+    // OHLC_AGGREGATED ROLLUP
+    // ========================================================================
+
+    /**
+     * Rebuild the aggregated bars of several timeframes for all symbols in a single statement and scan. Each
+     * timeframe ("5m", "1h", ...) maps to its lookback in seconds; only buckets that start inside the lookback are
+     * written, so a bucket is never rebuilt from a partial set of bars. Returns the number of aggregated rows
+     * inserted or changed.
+     */
+    @Transactional
+    public int rollupAggregated(Map<String, Long> lookbackSecondsByTimeframe, Instant now) {
+        Map<String, Long> firstBuckets = new LinkedHashMap<>();
+        lookbackSecondsByTimeframe.forEach((timeframe, lookbackSeconds) ->
+            firstBuckets.put(
+                timeframe,
+                OHLCBuckets.bucketStartSeconds(now.toEpochMilli() - lookbackSeconds * 1000, OHLCBuckets.timeframeSeconds(timeframe))
+            )
+        );
+        return rollup(null, firstBuckets, null);
+    }
+
+    /**
+     * Rebuild the aggregated bars of one symbol from the given bucket of each timeframe onwards (bucket starts as
+     * stored in <code>ohlc_aggregated.timestamp</code>, see {@link OHLCBuckets}).
+     */
+    @Transactional
+    public int rollupAggregatedFrom(String symbol, Map<String, Long> firstBucketByTimeframe) {
+        return rollup(symbol, firstBucketByTimeframe, null);
+    }
+
+    /**
+     * Rebuild only the aggregated bars of one symbol whose buckets overlap <code>from &lt;= time &lt; to</code>, for
+     * each of the given timeframes. Every rebuilt bucket is read in full, so bars outside the range still count.
+     */
+    @Transactional
+    public int rollupAggregatedRange(String symbol, Collection<String> timeframes, Instant from, Instant to) {
+        Map<String, Long> firstBuckets = new LinkedHashMap<>();
+        Map<String, Long> endBuckets = new HashMap<>();
+        for (String timeframe : timeframes) {
+            long intervalSeconds = OHLCBuckets.timeframeSeconds(timeframe);
+            firstBuckets.put(timeframe, OHLCBuckets.bucketStartSeconds(from.toEpochMilli(), intervalSeconds));
+            endBuckets.put(timeframe, OHLCBuckets.bucketStartSeconds(to.toEpochMilli() - 1, intervalSeconds) + intervalSeconds);
+        }
+        return rollup(symbol, firstBuckets, endBuckets);
+    }
+
+    /**
+     * Timestamp of the newest 1m bar of every symbol in <code>ohlc_data</code>.
+     */
+    public Map<String, Instant> findLatestBars() {
+        Map<String, Instant> latest = new LinkedHashMap<>();
+        jdbcTemplate.query(LATEST_BARS, rs -> {
+            latest.put(rs.getString("symbol"), rs.getObject("latest", OffsetDateTime.class).toInstant());
+        });
+        return latest;
+    }
+
+    /**
+     * Number of 1m bars of a symbol in <code>ohlc_data</code>.
+     */
+    public long countBars(String symbol) {
+        Long count = jdbcTemplate.queryForObject(COUNT_BARS, Long.class, symbol);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Start of the newest aggregated bar per timeframe of a symbol.
+     */
+    public Map<String, Instant> findAggregatedWatermarks(String symbol) {
+        Map<String, Instant> watermarks = new HashMap<>();
+        jdbcTemplate.query(
+            AGGREGATED_WATERMARKS,
+            rs -> {
+                watermarks.put(rs.getString("timeframe"), rs.getObject("latest", OffsetDateTime.class).toInstant());
+            },
+            symbol
+        );
+        return watermarks;
+    }
+
+    /**
+     * Minutes with no bar among <code>from &lt;= timestamp &lt; to</code> of a symbol, in time order, including a
+     * hole that starts at <code>from</code> or runs up to <code>to</code>. Both must be whole minutes. Includes the
+     * expected ones (session halts, weekends); see {@link OHLCGap}.
+     */
+    public List<OHLCGap> findBarHoles(String symbol, Instant from, Instant to) {
+        OffsetDateTime start = OffsetDateTime.ofInstant(from, ZoneOffset.UTC);
+        OffsetDateTime end = OffsetDateTime.ofInstant(to, ZoneOffset.UTC);
+        return jdbcTemplate.query(
+            BAR_HOLES,
+            (rs, rowNum) ->
+                new OHLCGap(
+                    symbol,
+                    rs.getObject("previous", OffsetDateTime.class).toInstant().plusSeconds(60),
+                    rs.getObject("timestamp", OffsetDateTime.class).toInstant()
+                ),
+            symbol,
+            start,
+            end,
+            start,
+            end
+        );
+    }
+
+    // ========================================================================
+    // OHLC_DATA STREAMING READ
+    // ========================================================================
+
+    /**
+     * Stream all 1m bars of a symbol in ascending time through a server-side cursor, handing them to the sink in
+     * chunks. The chunk buffer is reused between calls. Returns the number of bars read.
+     */
+    @Transactional(readOnly = true)
+    public int streamBars(String symbol, MappedBarStore.Sink sink) {
+        return stream(symbol, sink, STREAM_BARS);
+    }
+
+    /**
+     * Same as {@link #streamBars(String, MappedBarStore.Sink)} for bars with <code>from &lt;= timestamp &lt; to</code>.
+     */
+    @Transactional(readOnly = true)
+    public int streamBars(String symbol, Instant from, Instant to, MappedBarStore.Sink sink) {
+        return stream(
+            symbol,
+            sink,
+            STREAM_BARS_RANGE,
+            OffsetDateTime.ofInstant(from, ZoneOffset.UTC),
+            OffsetDateTime.ofInstant(to, ZoneOffset.UTC)
+        );
+    }
+
+    /**
+     * Hand the 1m bars of a symbol with <code>from &lt;= timestamp &lt; to</code> to the visitor in ascending time,
+     * one row at a time as the server-side cursor returns them. Returns the number of bars read.
+     */
+    @Transactional(readOnly = true)
+    public int forEachBar(String symbol, Instant from, Instant to, MappedBarStore.BarVisitor visitor) {
+        int[] rows = { 0 };
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(STREAM_BARS_RANGE);
+                statement.setFetchSize(STREAM_CHUNK_BARS);
+                statement.setString(1, symbol);
+                statement.setObject(2, OffsetDateTime.ofInstant(from, ZoneOffset.UTC));
+                statement.setObject(3, OffsetDateTime.ofInstant(to, ZoneOffset.UTC));
+                return statement;
+            },
+            (RowCallbackHandler) rs -> {
+                visitor.bar(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+                rows[0]++;
+            }
+        );
+        return rows[0];
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private int rollup(String symbol, Map<String, Long> firstBucketByTimeframe, Map<String, Long> endBucketByTimeframe) {
+        if (firstBucketByTimeframe.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<Object> args = new ArrayList<>(firstBucketByTimeframe.size() * 4 + 3);
+        if (symbol != null) {
+            args.add(symbol);
+        }
+        long firstBucket = Long.MAX_VALUE;
+        long endBucket = Long.MIN_VALUE;
+        for (Map.Entry<String, Long> entry : firstBucketByTimeframe.entrySet()) {
+            long end = endBucketByTimeframe != null ? endBucketByTimeframe.get(entry.getKey()) : Long.MAX_VALUE;
+            args.add(entry.getKey());
+            args.add(OHLCBuckets.timeframeSeconds(entry.getKey()));
+            args.add(entry.getValue());
+            args.add(end);
+            firstBucket = Math.min(firstBucket, entry.getValue());
+            endBucket = Math.max(endBucket, end);
+        }
+        // bucket starts are New York wall-clock epochs, which are always behind the UTC instant; the end is pushed
+        // a day later so the scan covers the last bucket whatever the offset
+        args.add(OffsetDateTime.ofInstant(Instant.ofEpochSecond(firstBucket), ZoneOffset.UTC));
+        args.add(
+            OffsetDateTime.ofInstant(
+                endBucketByTimeframe != null ? Instant.ofEpochSecond(endBucket + 86_400) : ROLLUP_NO_END,
+                ZoneOffset.UTC
+            )
+        );
+
+        String sql = ROLLUP_AGGREGATED.formatted(
+            String.join(", ", Collections.nCopies(firstBucketByTimeframe.size(), ROLLUP_TIMEFRAME_ROW)),
+            OHLCBuckets.SESSION_ALIGNMENT_OFFSET_SECONDS,
+            symbol != null ? ROLLUP_ONE_SYMBOL : ROLLUP_ALL_SYMBOLS
+        );
+        int upserted = jdbcTemplate.update(sql, args.toArray());
+        log.debug(
+            "Rolled up {} {} into ohlc_aggregated ({} inserted/changed) in {} ms",
+            symbol != null ? symbol : "all symbols",
+            firstBucketByTimeframe.keySet(),
+            upserted,
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return upserted;
+    }
+
+    private int stream(String symbol, MappedBarStore.Sink sink, String sql, Object... range) {
+        OHLCBarBuffer chunk = new OHLCBarBuffer(STREAM_CHUNK_BARS);
+        chunk.setSymbol(symbol);
+        int[] rows = { 0 };
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(STREAM_CHUNK_BARS);
+                statement.setString(1, symbol);
+                for (int i = 0; i < range.length; i++) {
+                    statement.setObject(i + 2, range[i]);
+                }
+                return statement;
+            },
+            (RowCallbackHandler) rs -> {
+                chunk.add(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+                rows[0]++;
+                if (chunk.size() == STREAM_CHUNK_BARS) {
+                    flushChunk(chunk, symbol, sink);
+                }
+            }
+        );
+        if (!chunk.isEmpty()) {
+            flushChunk(chunk, symbol, sink);
+        }
+        return rows[0];
+    }
+
+    private static void flushChunk(OHLCBarBuffer chunk, String symbol, MappedBarStore.Sink sink) {
+        try {
+            sink.put(chunk);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+        chunk.setSymbol(symbol);
+    }
+
+    private void copyToStaging(Connection connection, OHLCBarBuffer bars) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            byte[] symbol = escape(bars.getSymbol()).getBytes(StandardCharsets.UTF_8);
+            CopyRowWriter writer = new CopyRowWriter(copyIn);
+            for (int i = 0; i < bars.size(); i++) {
+                long epochMillis = bars.epochMillis(i);
+                writer.bytes(symbol).tab();
+                writer.ascii(Instant.ofEpochMilli(epochMillis).toString()).tab();
+                writer.number(CommonUtil.getTimeIndexNY(epochMillis)).tab();
+                writer.price(bars.openScaled(i)).tab();
+                writer.price(bars.highScaled(i)).tab();
+                writer.price(bars.lowScaled(i)).tab();
+                writer.price(bars.closeScaled(i)).newline();
+            }
+            writer.flush();
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("OHLC payload has no symbol");
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    /**
+     * Writes COPY text rows into a fixed chunk that is flushed to the server whenever it fills up.
+     */
+    private static final class CopyRowWriter {
+
+        private final CopyIn copyIn;
+        private final byte[] chunk = new byte[COPY_CHUNK_BYTES];
+        private final byte[] digits = new byte[20];
+        private int position;
+
+        CopyRowWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        CopyRowWriter bytes(byte[] value) throws SQLException {
+            for (byte b : value) {
+                put(b);
+            }
+            return this;
+        }
+
+        CopyRowWriter ascii(String value) throws SQLException {
+            for (int i = 0; i < value.length(); i++) {
+                put((byte) value.charAt(i));
+            }
+            return this;
+        }
+
+        CopyRowWriter number(long value) throws SQLException {
+            if (value < 0) {
+                put((byte) '-');
+                value = -value;
+            }
+            int n = 0;
+            do {
+                digits[n++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (n > 0) {
+                put(digits[--n]);
+            }
+            return this;
+        }
+
+        // scaled long (10^PRICE_SCALE) written as plain decimal text
+        CopyRowWriter price(long scaled) throws SQLException {
+            if (scaled < 0) {
+                put((byte) '-');
+                scaled = -scaled;
+            }
+            long factor = 1;
+            for (int i = 0; i < OHLCBarBuffer.PRICE_SCALE; i++) {
+                factor *= 10;
+            }
+            number(scaled / factor);
+            put((byte) '.');
+            long fraction = scaled % factor;
+            for (long f = factor / 10; f > 0; f /= 10) {
+                put((byte) ('0' + (fraction / f) % 10));
+            }
+            return this;
+        }
+
+        CopyRowWriter tab() throws SQLException {
+            put((byte) '\t');
+            return this;
+        }
+
+        CopyRowWriter newline() throws SQLException {
+            put((byte) '\n');
+            return this;
+        }
+
+        void flush() throws SQLException {
+            if (position > 0) {
+                copyIn.writeToCopy(chunk, 0, position);
+                position = 0;
+            }
+        }
+
+        private void put(byte b) throws SQLException {
+            if (position == chunk.length) {
+                flush();
+            }
+            chunk[position++] = b;
+        }
+    }
+}
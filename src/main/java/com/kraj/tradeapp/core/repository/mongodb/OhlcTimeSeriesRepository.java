@@ -0,0 +1,209 @@
+package com.kraj.tradeapp.core.repository.mongodb;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.persistance.mongodb.OHLCBar;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk access to the <code>ohlc_bars</code> time-series collection (see {@link OHLCBar}), reading and writing raw
+ * BSON documents so bars go to and from {@link OHLCBarBuffer} without entity mapping.
+ * <p>
+ * Time-series collections have no unique key, so a re-posted bar is replaced by inserting the new copy and then
+ * deleting the stored one by <code>_id</code>; a concurrent read may see both copies for that moment, and
+ * {@link #findBars} keeps the one inserted last. Bars newer than the latest stored bar of their symbol, the normal case, are
+ * inserted directly. Writes of the same symbol (sink worker, gap backfill, historical chunks, migration) are
+ * serialized so none of them can act on a stale latest-bar watermark.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OhlcTimeSeriesRepository {
+
+    public static final String COLLECTION = "ohlc_bars";
+
+    private static final int FETCH_SIZE = 16 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+
+    // newest stored bar per symbol, loaded on first write; only moves forward
+    private final Map<String, Long> latestEpochMillis = new ConcurrentHashMap<>();
+    private final Map<String, Object> symbolLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Create the time-series collection (symbol metaField, minute granularity) and its range index if missing.
+     */
+    public void ensureCollection() {
+        if (!mongoTemplate.collectionExists(COLLECTION)) {
+            mongoTemplate.createCollection(OHLCBar.class);
+            log.info("Created time-series collection {}", COLLECTION);
+        }
+        mongoTemplate
+            .indexOps(COLLECTION)
+            .ensureIndex(new Index().on("symbol", Sort.Direction.ASC).on("timestamp", Sort.Direction.ASC).named("symbol_timestamp_idx"));
+    }
+
+    /**
+     * Store one symbol's bars, replacing any already stored for the same minutes. A bar repeated within the buffer
+     * is stored once, last copy wins. Returns the number of bars written.
+     */
+    public int replaceBars(OHLCBarBuffer bars) {
+        if (bars.isEmpty()) {
+            return 0;
+        }
+        String symbol = bars.getSymbol();
+        Map<Long, Integer> lastIndex = new LinkedHashMap<>(bars.size() * 2);
+        for (int i = 0; i < bars.size(); i++) {
+            lastIndex.put(bars.epochMillis(i), i);
+        }
+
+        synchronized (symbolLocks.computeIfAbsent(symbol, s -> new Object())) {
+            return replaceBarsLocked(symbol, bars, lastIndex);
+        }
+    }
+
+    private int replaceBarsLocked(String symbol, OHLCBarBuffer bars, Map<Long, Integer> lastIndex) {
+        long latest = latestEpochMillis.computeIfAbsent(symbol, this::findLatestEpochMillis);
+        List<Date> restated = new ArrayList<>();
+        List<Document> documents = new ArrayList<>(lastIndex.size());
+        long newest = latest;
+        for (Map.Entry<Long, Integer> bar : lastIndex.entrySet()) {
+            long epochMillis = bar.getKey();
+            int i = bar.getValue();
+            Date timestamp = new Date(epochMillis);
+            if (epochMillis <= latest) {
+                restated.add(timestamp);
+            }
+            newest = Math.max(newest, epochMillis);
+            documents.add(
+                new Document("symbol", symbol)
+                    .append("timestamp", timestamp)
+                    .append("open", OHLCBarBuffer.toDouble(bars.openScaled(i)))
+                    .append("high", OHLCBarBuffer.toDouble(bars.highScaled(i)))
+                    .append("low", OHLCBarBuffer.toDouble(bars.lowScaled(i)))
+                    .append("close", OHLCBarBuffer.toDouble(bars.closeScaled(i)))
+            );
+        }
+
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        try {
+            List<Object> replacedIds = new ArrayList<>();
+            if (!restated.isEmpty()) {
+                collection
+                    .find(Filters.and(Filters.eq("symbol", symbol), Filters.in("timestamp", restated)))
+                    .projection(Projections.include("_id"))
+                    .forEach(stored -> replacedIds.add(stored.get("_id")));
+            }
+            // insert before deleting so readers never see a restated minute missing
+            collection.insertMany(documents, new InsertManyOptions().ordered(false));
+            if (!replacedIds.isEmpty()) {
+                collection.deleteMany(Filters.in("_id", replacedIds));
+            }
+        } catch (RuntimeException e) {
+            // part of the batch may be stored; reload the latest bar so a retry replaces rather than duplicates it
+            latestEpochMillis.remove(symbol);
+            throw e;
+        }
+        latestEpochMillis.merge(symbol, newest, Math::max);
+        return documents.size();
+    }
+
+    /**
+     * Bars of <code>symbol</code> with <code>fromMillis &lt;= timestamp &lt; toMillis</code>, in time order, one per
+     * timestamp.
+     */
+    public OHLCBarBuffer findBars(String symbol, long fromMillis, long toMillis) {
+        OHLCBarBuffer bars = new OHLCBarBuffer();
+        bars.setSymbol(symbol);
+        Bson filter = Filters.and(
+            Filters.eq("symbol", symbol),
+            Filters.gte("timestamp", new Date(fromMillis)),
+            Filters.lt("timestamp", new Date(toMillis))
+        );
+        try (
+            MongoCursor<Document> cursor = mongoTemplate
+                .getCollection(COLLECTION)
+                .find(filter)
+                .projection(Projections.include("_id", "timestamp", "open", "high", "low", "close"))
+                .sort(Sorts.ascending("timestamp"))
+                .batchSize(FETCH_SIZE)
+                .iterator()
+        ) {
+            // copies of a bar being replaced are adjacent; the driver assigns ObjectIds at insert, which start with
+            // their creation second and grow within a process, and writes of a symbol are serialized, so the copy
+            // inserted last has the highest _id
+            Document kept = null;
+            while (cursor.hasNext()) {
+                Document bar = cursor.next();
+                if (kept != null && kept.getDate("timestamp").equals(bar.getDate("timestamp"))) {
+                    if (bar.getObjectId("_id").compareTo(kept.getObjectId("_id")) > 0) {
+                        kept = bar;
+                    }
+                    continue;
+                }
+                if (kept != null) {
+                    add(bars, kept);
+                }
+                kept = bar;
+            }
+            if (kept != null) {
+                add(bars, kept);
+            }
+        }
+        return bars;
+    }
+
+    private static void add(OHLCBarBuffer bars, Document bar) {
+        bars.add(
+            bar.getDate("timestamp").getTime(),
+            OHLCBarBuffer.toScaled(bar.getDouble("open")),
+            OHLCBarBuffer.toScaled(bar.getDouble("high")),
+            OHLCBarBuffer.toScaled(bar.getDouble("low")),
+            OHLCBarBuffer.toScaled(bar.getDouble("close"))
+        );
+    }
+
+    /**
+     * Epoch millis of the newest stored bar of <code>symbol</code>, or {@link Long#MIN_VALUE} when there is none.
+     */
+    public long findLatestEpochMillis(String symbol) {
+        Document latest = mongoTemplate
+            .getCollection(COLLECTION)
+            .find(Filters.eq("symbol", symbol))
+            .projection(Projections.fields(Projections.include("timestamp"), Projections.excludeId()))
+            .sort(Sorts.descending("timestamp"))
+            .limit(1)
+            .first();
+        return latest == null ? Long.MIN_VALUE : latest.getDate("timestamp").getTime();
+    }
+
+    /**
+     * Document count and on-disk sizes of a collection, as reported by <code>collStats</code>.
+     */
+    public Map<String, Object> collectionStats(String collection) {
+        Document stats = mongoTemplate.executeCommand(new Document("collStats", collection));
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String key : new String[] { "count", "size", "storageSize", "totalIndexSize" }) {
+            result.put(key, stats.get(key));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,245 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local memory-mapped cache of 1m bars, one {@link MappedBarStore} file per symbol.
+ * <p>
+ * Stores are loaded from <code>ohlc_data</code> at startup when missing, not closed cleanly, or not holding
+ * exactly the bars of the table (same newest bar and same count, so a hole filled below the tail is noticed), then
+ * kept current by the Postgres ingest sink. Range reads are served from the mapped columns without touching Mongo or Postgres;
+ * a symbol that is not loaded yet reports empty so callers fall back to the database.
+ * <p>
+ * A symbol that is not loaded after warm-up (new, or after a failed append) is rebuilt on a background thread,
+ * once at a time per symbol, so the ingest sink never waits on a full table scan.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BarCacheService {
+
+    private final OhlcJdbcRepository ohlcJdbcRepository;
+
+    @Value("${trading.bar-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trading.bar-cache.dir:${java.io.tmpdir}/trade-app/bar-cache}")
+    private String cacheDir;
+
+    @Value("${trading.bar-cache.initial-capacity:65536}")
+    private int initialCapacity;
+
+    private final Map<String, MappedBarStore> stores = new ConcurrentHashMap<>();
+
+    // symbols whose store holds everything in ohlc_data
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+    // symbols with a background rebuild queued or running
+    private final Set<String> rebuilding = ConcurrentHashMap.newKeySet();
+
+    // symbols whose bars were not appended because they were not loaded; cleared when a load starts
+    private final Set<String> skipped = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "bar-cache-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // set once the startup warm-up is over; until then it loads the stale stores itself
+    private volatile boolean warmedUp;
+
+    // ========================================================================
+    // LIFECYCLE
+    // ========================================================================
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (Map.Entry<String, Instant> latest : ohlcJdbcRepository.findLatestBars().entrySet()) {
+                // bars skipped before this check are in the table; only those skipped from here on need a rebuild
+                skipped.remove(latest.getKey());
+                MappedBarStore store = store(latest.getKey());
+                if (
+                    store.needsRebuild() ||
+                    store.lastEpochMillis() != latest.getValue().toEpochMilli() ||
+                    store.size() != ohlcJdbcRepository.countBars(latest.getKey())
+                ) {
+                    rebuild(latest.getKey());
+                } else {
+                    loaded.add(latest.getKey());
+                }
+            }
+            log.info("Bar cache ready for {}", loaded);
+        } catch (Exception e) {
+            log.error("Bar cache warm-up failed, reads fall back to the database", e);
+        } finally {
+            warmedUp = true;
+            skipped.forEach(this::scheduleRebuild);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuildExecutor.shutdownNow();
+        try {
+            // a rebuild streaming from the table does not react to the interrupt
+            rebuildExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stores.forEach((symbol, store) -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.warn("Could not close bar cache for {}", symbol, e);
+            }
+        });
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Reload a symbol's store from <code>ohlc_data</code>. Returns the number of bars loaded.
+     */
+    public int rebuild(String symbol) throws IOException {
+        long start = System.nanoTime();
+        int[] bars = { 0 };
+        MappedBarStore store = store(symbol);
+        try {
+            store.rebuild(sink -> bars[0] = ohlcJdbcRepository.streamBars(symbol, sink));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        loaded.add(symbol);
+        log.info("Loaded {} {} bars into the bar cache in {} ms", bars[0], symbol, (System.nanoTime() - start) / 1_000_000);
+        return bars[0];
+    }
+
+    /**
+     * Add bars just stored in <code>ohlc_data</code>. The bars of a symbol not loaded yet (new, or after a failed
+     * append) are skipped and a background rebuild is scheduled, which picks them up from the table.
+     */
+    public void append(OHLCBarBuffer bars) {
+        if (!enabled || bars.isEmpty()) {
+            return;
+        }
+        String symbol = bars.getSymbol();
+        if (!loaded.contains(symbol)) {
+            skipped.add(symbol);
+            scheduleRebuild(symbol);
+            return;
+        }
+        try {
+            store(symbol).appendAll(bars);
+        } catch (IOException | RuntimeException e) {
+            // the store no longer matches ohlc_data; reads go to the database until the rebuild
+            loaded.remove(symbol);
+            log.error("Bar cache append failed for {}", symbol, e);
+            scheduleRebuild(symbol);
+        }
+    }
+
+    public boolean isLoaded(String symbol) {
+        return enabled && loaded.contains(symbol);
+    }
+
+    /**
+     * Visit the cached bars with <code>from &lt;= timestamp &lt; to</code> in time order, zero-copy. Returns false
+     * (without visiting) when the symbol is not cached.
+     */
+    public boolean forEachBar(String symbol, Instant from, Instant to, MappedBarStore.BarVisitor visitor) {
+        if (!isLoaded(symbol)) {
+            return false;
+        }
+        stores.get(symbol).forEach(from.toEpochMilli(), to.toEpochMilli(), visitor);
+        return true;
+    }
+
+    /**
+     * Detached copy of the cached bars with <code>from &lt;= timestamp &lt; to</code>, or empty when the symbol is
+     * not cached.
+     */
+    public Optional<OHLCBarBuffer> getBars(String symbol, Instant from, Instant to) {
+        if (!isLoaded(symbol)) {
+            return Optional.empty();
+        }
+        return Optional.of(stores.get(symbol).copyRange(symbol, from.toEpochMilli(), to.toEpochMilli()));
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    // a bar skipped while the rebuild was streaming may be missing from it, so a skip seen during a rebuild
+    // queues another one
+    private void scheduleRebuild(String symbol) {
+        if (!warmedUp || !rebuilding.add(symbol)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                skipped.remove(symbol);
+                rebuild(symbol);
+            } catch (Exception e) {
+                log.error("Bar cache rebuild failed for {}, reads fall back to the database", symbol, e);
+            } finally {
+                rebuilding.remove(symbol);
+            }
+            if (skipped.contains(symbol)) {
+                scheduleRebuild(symbol);
+            }
+        });
+    }
+
+    private MappedBarStore store(String symbol) throws IOException {
+        MappedBarStore existing = stores.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        Files.createDirectories(Path.of(cacheDir));
+        try {
+            return stores.computeIfAbsent(symbol, s -> {
+                try {
+                    return MappedBarStore.open(Path.of(cacheDir).resolve(fileName(s)), initialCapacity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String fileName(String symbol) {
+        return symbol.replaceAll("[^A-Za-z0-9_-]", "_") + ".bars";
+    }
+}
@@ -0,0 +1,17 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Source of historical 1m bars used to backfill <code>ohlc_data</code>. The active feed is chosen with
+ * <code>trading.ohlc.backfill.feed</code>.
+ */
+public interface BarFeed {
+    /**
+     * Hand the feed's bars of <code>symbol</code> with <code>from &lt;= time &lt; to</code> to the sink in chunks.
+     * Chunk buffers may be reused once the sink returns. Returns the number of bars supplied.
+     */
+    int fetch(String symbol, Instant from, Instant to, MappedBarStore.Sink sink) throws IOException;
+}
@@ -0,0 +1,186 @@
+package com.kraj.tradeapp.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.kraj.tradeapp.core.model.WireEncoding;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Single outbound path for dashboard WebSocket pushes.
+ * <p>
+ * Payloads are serialized once into a byte array that is shared by every destination the message goes to,
+ * so the broker never converts the same object twice. Updates that supersede each other (e.g. the dealing
+ * range state of one symbol/interval) can be conflated: only the latest payload per key is kept and it is
+ * serialized and sent on the next flush, so bursts never queue up behind slow sessions.
+ * <p>
+ * Destinations nobody is subscribed to are dropped before serialization; when none are left the payload is
+ * never serialized at all.
+ * <p>
+ * Sessions that subscribe with <code>encoding: cbor</code> are routed to a parallel <code>/topic/cbor/...</code>
+ * tree and receive the same payload as CBOR (string references enabled, so repeated field names, symbols and
+ * indicator names are written once per message). JSON and CBOR bodies are each produced at most once per
+ * broadcast, and only when a matching subscription exists.
+ */
+@Slf4j
+@Service
+public class BroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SubscriptionRegistryService subscriptionRegistry;
+    private final Map<WireEncoding, ObjectMapper> mappers;
+
+    // Latest pending payload per conflation key, replaced in place until the next flush
+    private final Map<String, PendingBroadcast> conflated = new ConcurrentHashMap<>();
+
+    // Held while a conflation key's payload is taken and sent, so an older payload never goes out after a newer one
+    private final Map<String, Object> keyLocks = new ConcurrentHashMap<>();
+
+    public BroadcastService(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper, SubscriptionRegistryService subscriptionRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.mappers = createMappers(objectMapper);
+    }
+
+    /**
+     * One mapper per wire encoding, all sharing the modules and settings of the application mapper.
+     */
+    public static Map<WireEncoding, ObjectMapper> createMappers(ObjectMapper objectMapper) {
+        Map<WireEncoding, ObjectMapper> mappers = new EnumMap<>(WireEncoding.class);
+        mappers.put(WireEncoding.JSON, objectMapper);
+        mappers.put(WireEncoding.CBOR, objectMapper.copyWith(CBORFactory.builder().enable(CBORGenerator.Feature.STRINGREF).build()));
+        return mappers;
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Per symbol/interval event topic, e.g. <code>/topic/events/NQ/M5</code>.
+     * Clients subscribe to <code>/topic/events/NQ/**</code> for every interval of one symbol.
+     */
+    public static String eventsTopic(String symbol, String interval) {
+        return "/topic/events/" + segment(symbol) + "/" + segment(interval);
+    }
+
+    /**
+     * Per symbol dealing range topic, e.g. <code>/topic/dealing-range/NQ</code>.
+     */
+    public static String dealingRangeTopic(String symbol) {
+        return "/topic/dealing-range/" + segment(symbol);
+    }
+
+    /**
+     * Destinations of a dealing range update: the all-symbols <code>/topic/dealing-range</code> existing dashboards
+     * listen on, and the per symbol topic.
+     */
+    public static String[] dealingRangeTopics(String symbol) {
+        return new String[] { "/topic/dealing-range", dealingRangeTopic(symbol) };
+    }
+
+    /**
+     * Serialize the payload once per requested encoding and send the same bytes to every destination.
+     */
+    public void broadcast(Object payload, String... destinations) {
+        for (WireEncoding encoding : WireEncoding.values()) {
+            String[] subscribed = Arrays.stream(destinations)
+                .map(encoding::toBrokerDestination)
+                .filter(subscriptionRegistry::hasSubscribers)
+                .toArray(String[]::new);
+            if (subscribed.length == 0) {
+                continue;
+            }
+            byte[] body = serialize(payload, encoding);
+            if (body == null) {
+                continue;
+            }
+            MimeType contentType = encoding == WireEncoding.JSON ? MimeTypeUtils.APPLICATION_JSON : MimeTypeUtils.APPLICATION_OCTET_STREAM;
+            for (String destination : subscribed) {
+                send(destination, body, contentType);
+            }
+        }
+    }
+
+    /**
+     * Queue a payload that supersedes any earlier payload queued under the same key.
+     * Nothing is serialized until {@link #flushConflated()} picks it up.
+     */
+    public void broadcastConflated(String key, Object payload, String... destinations) {
+        PendingBroadcast previous = conflated.put(key, new PendingBroadcast(payload, destinations));
+        if (previous != null) {
+            log.trace("Conflated superseded broadcast for {}", key);
+        }
+    }
+
+    /**
+     * Send a payload right away and drop any older conflated payload still pending for the same key.
+     */
+    public void broadcastLatest(String key, Object payload, String... destinations) {
+        synchronized (keyLock(key)) {
+            conflated.remove(key);
+            broadcast(payload, destinations);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trading.websocket.conflation-interval-ms:250}")
+    public void flushConflated() {
+        if (conflated.isEmpty()) {
+            return;
+        }
+        for (String key : conflated.keySet()) {
+            synchronized (keyLock(key)) {
+                PendingBroadcast pending = conflated.remove(key);
+                if (pending != null) {
+                    broadcast(pending.payload(), pending.destinations());
+                }
+            }
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private static String segment(String value) {
+        return StringUtils.hasText(value) ? value.trim() : "UNKNOWN";
+    }
+
+    private Object keyLock(String key) {
+        return keyLocks.computeIfAbsent(key, k -> new Object());
+    }
+
+    private byte[] serialize(Object payload, WireEncoding encoding) {
+        try {
+            return mappers.get(encoding).writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize broadcast payload of type {} as {}", payload.getClass().getSimpleName(), encoding, e);
+            return null;
+        }
+    }
+
+    private void send(String destination, byte[] body, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+
+    private record PendingBroadcast(Object payload, String[] destinations) {}
+}
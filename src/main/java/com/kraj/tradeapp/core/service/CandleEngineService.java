@@ -0,0 +1,217 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCBuckets;
+import com.kraj.tradeapp.core.model.OHLCCandle;
+import com.kraj.tradeapp.core.model.SessionCalendar;
+import com.kraj.tradeapp.core.model.persistance.AggregatedSqlOHLC;
+import com.kraj.tradeapp.core.model.persistance.AggregatedSqlOHLCPK;
+import com.kraj.tradeapp.core.repository.AggregatedSqlOHLCRepository;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streaming multi-timeframe candle builder.
+ * <p>
+ * Every 1m bar updates the forming bar of each configured timeframe in O(1), using the same 18:00 New York
+ * session alignment as the SQL aggregation ({@link OHLCBuckets}). Forming bars live in memory; after each
+ * ingested payload only the bars that closed or changed are upserted into <code>ohlc_aggregated</code>.
+ * <p>
+ * Bars older than the forming bucket of a timeframe (late or backfilled data) are not applied here; they are
+ * picked up by the SQL rollup over <code>ohlc_data</code>.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CandleEngineService {
+
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+
+    private final OhlcJdbcRepository ohlcJdbcRepository;
+    private final AggregatedSqlOHLCRepository aggregatedOHLCRepository;
+
+    @Value("${trading.candles.timeframes:5m,15m,30m,1h,4h}")
+    private String[] timeframes;
+
+    // symbol -> forming bars of every configured timeframe
+    private final Map<String, SymbolCandles> symbols = new ConcurrentHashMap<>();
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Apply a payload of 1m bars (ascending time) and persist the aggregated bars it closed or changed.
+     */
+    public List<OHLCCandle> onBars(OHLCBarBuffer bars) {
+        if (bars.isEmpty() || bars.getSymbol() == null) {
+            return List.of();
+        }
+        SymbolCandles candles = symbols.computeIfAbsent(bars.getSymbol(), SymbolCandles::new);
+        List<OHLCCandle> changed;
+        // payloads of a symbol are written in the order they were applied, so an older bar never overwrites a newer one
+        synchronized (candles.upsertLock) {
+            synchronized (candles) {
+                for (int i = 0; i < bars.size(); i++) {
+                    candles.onBar(bars.epochMillis(i), bars.openScaled(i), bars.highScaled(i), bars.lowScaled(i), bars.closeScaled(i));
+                }
+                changed = candles.drainChanged();
+            }
+            ohlcJdbcRepository.upsertCandles(changed);
+        }
+        log.debug("Candle engine applied {} {} bars, upserted {} aggregated bars", bars.size(), bars.getSymbol(), changed.size());
+        return changed;
+    }
+
+    /**
+     * Current forming bar of every configured timeframe for a symbol.
+     */
+    public List<OHLCCandle> getFormingCandles(String symbol) {
+        SymbolCandles candles = symbols.get(symbol);
+        if (candles == null) {
+            return List.of();
+        }
+        synchronized (candles) {
+            return candles.forming();
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private Optional<AggregatedSqlOHLC> loadStored(String symbol, String timeframe, long bucketStartSeconds) {
+        return aggregatedOHLCRepository.findById(new AggregatedSqlOHLCPK(symbol, timeframe, Instant.ofEpochSecond(bucketStartSeconds)));
+    }
+
+    private final class SymbolCandles {
+
+        private final String symbol;
+        private final FormingCandle[] forming;
+        private final List<OHLCCandle> changed = new ArrayList<>();
+        // held from applying a payload until its bars are stored; readers of the forming bars only lock the instance
+        private final Object upsertLock = new Object();
+
+        SymbolCandles(String symbol) {
+            this.symbol = symbol;
+            this.forming = Arrays.stream(timeframes).map(String::trim).map(FormingCandle::new).toArray(FormingCandle[]::new);
+        }
+
+        void onBar(long epochMillis, long open, long high, long low, long close) {
+            for (FormingCandle candle : forming) {
+                long bucket = OHLCBuckets.bucketStartSeconds(epochMillis, candle.intervalSeconds);
+                if (candle.bucket != NO_BUCKET && bucket < candle.bucket) {
+                    continue;
+                }
+                if (bucket != candle.bucket) {
+                    if (candle.bucket != NO_BUCKET) {
+                        changed.add(candle.toCandle(symbol, true));
+                        candle.start(bucket);
+                    } else {
+                        candle.start(bucket);
+                        loadStored(symbol, candle.timeframe, bucket).ifPresent(candle::seed);
+                    }
+                }
+                candle.apply(epochMillis, open, high, low, close);
+            }
+        }
+
+        List<OHLCCandle> drainChanged() {
+            for (FormingCandle candle : forming) {
+                if (candle.dirty) {
+                    changed.add(candle.toCandle(symbol, false));
+                    candle.dirty = false;
+                }
+            }
+            List<OHLCCandle> drained = new ArrayList<>(changed);
+            changed.clear();
+            return drained;
+        }
+
+        List<OHLCCandle> forming() {
+            List<OHLCCandle> result = new ArrayList<>(forming.length);
+            for (FormingCandle candle : forming) {
+                if (candle.bucket != NO_BUCKET) {
+                    result.add(candle.toCandle(symbol, false));
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class FormingCandle {
+
+        private final String timeframe;
+        private final long intervalSeconds;
+
+        private long bucket = NO_BUCKET;
+        private long firstMillis;
+        private long lastMillis;
+        private long nyDateTimeId;
+        private long open;
+        private long high;
+        private long low;
+        private long close;
+        private boolean dirty;
+
+        FormingCandle(String timeframe) {
+            this.timeframe = timeframe;
+            this.intervalSeconds = OHLCBuckets.timeframeSeconds(timeframe);
+        }
+
+        void start(long bucket) {
+            this.bucket = bucket;
+            // the bucket start, as the baseline aggregation stored it
+            this.nyDateTimeId = SessionCalendar.timeIndexOfLocal(bucket);
+            this.firstMillis = Long.MAX_VALUE;
+            this.lastMillis = Long.MIN_VALUE;
+            this.high = Long.MIN_VALUE;
+            this.low = Long.MAX_VALUE;
+            this.dirty = false;
+        }
+
+        // Bar already stored before a restart: its open is kept, later bars extend it
+        void seed(AggregatedSqlOHLC stored) {
+            firstMillis = Long.MIN_VALUE;
+            open = OHLCBarBuffer.toScaled(stored.getOpen());
+            high = OHLCBarBuffer.toScaled(stored.getHigh());
+            low = OHLCBarBuffer.toScaled(stored.getLow());
+            close = OHLCBarBuffer.toScaled(stored.getClose());
+        }
+
+        void apply(long epochMillis, long barOpen, long barHigh, long barLow, long barClose) {
+            if (epochMillis < firstMillis) {
+                dirty |= open != barOpen;
+                firstMillis = epochMillis;
+                open = barOpen;
+            }
+            if (epochMillis >= lastMillis) {
+                dirty |= close != barClose;
+                lastMillis = epochMillis;
+                close = barClose;
+            }
+            if (barHigh > high) {
+                high = barHigh;
+                dirty = true;
+            }
+            if (barLow < low) {
+                low = barLow;
+                dirty = true;
+            }
+        }
+
+        OHLCCandle toCandle(String symbol, boolean closed) {
+            return new OHLCCandle(symbol, timeframe, bucket, nyDateTimeId, open, high, low, close, closed);
+        }
+    }
+}
@@ -5,20 +5,29 @@ import com.kraj.tradeapp.core.model.dashboard.ui.dto.EventsUI;
 import com.kraj.tradeapp.core.model.dashboard.ui.dto.TradingSignalUI;
 import com.kraj.tradeapp.core.model.dto.NotificationEventDto;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
  * This service handles the WebSocket flow for the dashboard.
  * It retrieves current trades, trading signals, and events, and sends updates via WebSocket.
- * The methods addCurrentTrade, addTradingSignal, and addEvent use the messagingTemplate to send data to specific WebSocket topics.
+ * The methods addCurrentTrade, addTradingSignal, and addEvent use the broadcastService to send data to specific WebSocket topics.
  */
 @Slf4j
 @Service
@@ -30,10 +39,22 @@ public class DashboardService {
      * trading signals, and events. and to send updates via WebSocket.
      */
     private final NotificationProcessorService notificationProcessorService;
-    private final SimpMessageSendingOperations messagingTemplate;
+    private final BroadcastService broadcastService;
 
     private final List<String> SUPPORTED_SYMBOLS = Arrays.asList("NQ", "ES");
 
+    @Value("${trading.dashboard.event-window-hours:24}")
+    private int eventWindowHours;
+
+    @Value("${trading.dashboard.event-window-max-size:5000}")
+    private int eventWindowMaxSize;
+
+    @Value("${trading.dashboard.event-overlap-ids:100}")
+    private long eventOverlapIds;
+
+    // symbol -> rolling event window with its watermark, seeded from the database once
+    private final Map<String, EventWindow> eventWindows = new ConcurrentHashMap<>();
+
     public List<CurrentTradeUI> getCurrentTrades() {
         // mock data
         List<CurrentTradeUI> trades = List.of(
@@ -86,15 +107,15 @@ public class DashboardService {
 
     public void addCurrentTrade(CurrentTradeUI trade) {
         log.info("Adding trade: {}", trade);
-        messagingTemplate.convertAndSend("/topic/current-trades", List.of(trade));
+        broadcastService.broadcast(List.of(trade), "/topic/current-trades");
     }
 
     public void addTradingSignal(TradingSignalUI signal) {
-        messagingTemplate.convertAndSend("/topic/trading-signals", List.of(signal));
+        broadcastService.broadcast(List.of(signal), "/topic/trading-signals");
     }
 
     public void addEvent(EventsUI event) {
-        messagingTemplate.convertAndSend("/topic/events", List.of(event));
+        broadcastService.broadcast(List.of(event), BroadcastService.eventsTopic(event.getSymbol(), null));
     }
 
     //    @Scheduled(fixedRate = 6000) // Push every 5 seconds
@@ -107,17 +128,114 @@ public class DashboardService {
     //        messagingTemplate.convertAndSend("/topic/v2/trading-signals", dashboardService.getTradingSignals());
     //    }
 
-    @Scheduled(fixedRate = 60000)
+    /**
+     * Rolling event window of a symbol, newest first. Served from memory so late joiners never hit the database.
+     */
+    public List<NotificationEventDto> getRecentEvents(String symbol) {
+        EventWindow window = eventWindows.get(symbol);
+        return window == null ? List.of() : window.snapshot();
+    }
+
+    /**
+     * Polls the events above each symbol's watermark, appends the ones not in the in-memory window yet and pushes
+     * just those to <code>/topic/v2/events/{symbol}</code>. The poll starts <code>event-overlap-ids</code> below the
+     * watermark, so an event whose lower id committed after a higher one is still picked up.
+     */
+    @Scheduled(fixedDelayString = "${trading.dashboard.event-push-interval-ms:5000}")
     public void pushEvents() {
         for (String symbol : SUPPORTED_SYMBOLS) {
-            List<NotificationEventDto> dtos = notificationProcessorService.getNotificationEvents(
-                symbol,
-                ZonedDateTime.now().minusHours(24),
-                ZonedDateTime.now()
-                //                LocalDateTime.now().minusHours(24),
-                //                LocalDateTime.now()
-            );
-            messagingTemplate.convertAndSend("/topic/v2/events", dtos);
+            try {
+                EventWindow window = eventWindows.computeIfAbsent(symbol, this::seedWindow);
+                List<NotificationEventDto> newEvents = window.append(
+                    notificationProcessorService.getNotificationEventsAfter(symbol, Math.max(0, window.lastId() - eventOverlapIds))
+                );
+                if (!newEvents.isEmpty()) {
+                    // newest first, same order as the snapshot
+                    List<NotificationEventDto> delta = new ArrayList<>(newEvents);
+                    Collections.reverse(delta);
+                    broadcastService.broadcast(delta, "/topic/v2/events/" + symbol);
+                }
+            } catch (Exception e) {
+                log.error("Error pushing dashboard events for {}", symbol, e);
+            }
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private EventWindow seedWindow(String symbol) {
+        EventWindow window = new EventWindow(Duration.ofHours(eventWindowHours), eventWindowMaxSize);
+        // read before the seed query, so an event inserted in between is still above the watermark
+        window.advance(notificationProcessorService.getLatestNotificationEventId(symbol));
+        List<NotificationEventDto> events = new ArrayList<>(
+            notificationProcessorService.getNotificationEvents(symbol, ZonedDateTime.now().minusHours(eventWindowHours), ZonedDateTime.now())
+        );
+        events.sort(Comparator.comparing(NotificationEventDto::getId));
+        window.append(events);
+        log.info("Seeded dashboard event window for {} with {} events up to id {}", symbol, events.size(), window.lastId());
+        return window;
+    }
+
+    /**
+     * Events of one symbol keyed and ordered by id, bounded by age and size, plus the watermark (highest id seen).
+     */
+    private static final class EventWindow {
+
+        private final Duration maxAge;
+        private final int maxSize;
+        private final TreeMap<Long, WindowEntry> entries = new TreeMap<>();
+        private long lastId;
+
+        EventWindow(Duration maxAge, int maxSize) {
+            this.maxAge = maxAge;
+            this.maxSize = maxSize;
+        }
+
+        synchronized long lastId() {
+            return lastId;
         }
+
+        synchronized void advance(long id) {
+            lastId = Math.max(lastId, id);
+        }
+
+        /**
+         * Add the events not in the window yet and return them, in id order. Events already in the window, or
+         * older than it, are skipped but still move the watermark, so the next poll does not read them again.
+         */
+        synchronized List<NotificationEventDto> append(List<NotificationEventDto> events) {
+            Instant cutoff = Instant.now().minus(maxAge);
+            List<NotificationEventDto> added = new ArrayList<>();
+            for (NotificationEventDto event : events) {
+                if (event.getId() == null) {
+                    continue;
+                }
+                lastId = Math.max(lastId, event.getId());
+                if (entries.containsKey(event.getId())) {
+                    continue;
+                }
+                Instant time = OffsetDateTime.parse(event.getDatetime()).toInstant();
+                // below the first kept id: already evicted, not late
+                if (time.isBefore(cutoff) || (!entries.isEmpty() && event.getId() < entries.firstKey())) {
+                    continue;
+                }
+                entries.put(event.getId(), new WindowEntry(time, event));
+                added.add(event);
+            }
+            while (!entries.isEmpty() && (entries.size() > maxSize || entries.firstEntry().getValue().time().isBefore(cutoff))) {
+                entries.pollFirstEntry();
+            }
+            return added;
+        }
+
+        synchronized List<NotificationEventDto> snapshot() {
+            List<NotificationEventDto> events = new ArrayList<>(entries.size());
+            entries.descendingMap().values().forEach(entry -> events.add(entry.event()));
+            return events;
+        }
+
+        private record WindowEntry(Instant time, NotificationEventDto event) {}
     }
 }
@@ -0,0 +1,180 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.DealingRangeSnapshot;
+import com.kraj.tradeapp.core.model.EventInterval;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.Quadrant;
+import com.kraj.tradeapp.core.model.RollingExtremes;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Dealing ranges computed from the bar stream instead of TradingView alerts.
+ * <p>
+ * For each configured interval the range is the highest high and lowest low of the last <code>lookbackBars</code>
+ * closed bars of that interval ({@link RollingExtremes}), taken from the {@link IndicatorEngineService} bar stream
+ * (warm-up included). After every live 1m payload the latest close is placed in its {@link Quadrant} and the
+ * resulting snapshot goes through {@link EnhancedDealingRangeService#processSnapshot}, which stores, records history
+ * and broadcasts it on <code>/topic/dealing-range</code> exactly as for a webhook when the state changed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DealingRangeEngineService implements IndicatorEngineService.BarListener {
+
+    public static final String SOURCE = "ENGINE";
+
+    private static final BigDecimal Q1_RATIO = BigDecimal.valueOf(0.75);
+    private static final BigDecimal Q2_RATIO = BigDecimal.valueOf(0.50);
+    private static final BigDecimal Q3_RATIO = BigDecimal.valueOf(0.25);
+
+    private final EnhancedDealingRangeService enhancedDealingRangeService;
+
+    @Value("${trading.dealing-range.engine.enabled:false}")
+    private boolean enabled;
+
+    @Value("${trading.dealing-range.engine.intervals:5m,15m,1h,4h}")
+    private String[] intervals;
+
+    @Value("${trading.dealing-range.engine.lookback-bars:20}")
+    private int lookbackBars;
+
+    @Value("${trading.candles.timeframes:5m,15m,30m,1h,4h}")
+    private String[] candleTimeframes;
+
+    private String[] timeframes;
+    private EventInterval[] eventIntervals;
+
+    // symbol -> range per configured interval
+    private final Map<String, SymbolRanges> symbols = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        List<String> available = new ArrayList<>(List.of(IndicatorEngineService.BASE_TIMEFRAME));
+        Arrays.stream(candleTimeframes).map(String::trim).forEach(available::add);
+        List<String> accepted = new ArrayList<>();
+        for (String interval : intervals) {
+            String timeframe = interval.trim();
+            if (!available.contains(timeframe) || EventInterval.getFromValue(timeframe) == EventInterval.NA) {
+                log.warn("Dealing-range engine ignores interval {}: not one of the candle timeframes {}", timeframe, available);
+                continue;
+            }
+            accepted.add(timeframe);
+        }
+        timeframes = accepted.toArray(String[]::new);
+        eventIntervals = accepted.stream().map(EventInterval::getFromValue).toArray(EventInterval[]::new);
+        if (enabled) {
+            log.info("Dealing-range engine computing {} over {} bars", accepted, lookbackBars);
+        }
+    }
+
+    // ========================================================================
+    // BAR STREAM
+    // ========================================================================
+
+    @Override
+    public void onBar(String symbol, String timeframe, long time, long open, long high, long low, long close) {
+        if (!enabled) {
+            return;
+        }
+        SymbolRanges ranges = symbols.computeIfAbsent(symbol, s -> new SymbolRanges());
+        synchronized (ranges) {
+            if (IndicatorEngineService.BASE_TIMEFRAME.equals(timeframe)) {
+                ranges.lastClose = close;
+            }
+            for (int i = 0; i < timeframes.length; i++) {
+                if (timeframes[i].equals(timeframe)) {
+                    ranges.ranges[i].push(high, low);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onUpdated(String symbol, long epochMillis) {
+        SymbolRanges ranges = symbols.get(symbol);
+        if (!enabled || ranges == null) {
+            return;
+        }
+        List<DealingRangeSnapshot> snapshots = snapshots(symbol, ranges, epochMillis);
+        for (DealingRangeSnapshot snapshot : snapshots) {
+            enhancedDealingRangeService.processSnapshot(snapshot);
+        }
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Current computed range of every configured interval of a symbol, without storing or broadcasting anything.
+     * Intervals still warming up (fewer than <code>lookbackBars</code> bars) are left out.
+     */
+    public List<DealingRangeSnapshot> getComputedRanges(String symbol) {
+        SymbolRanges ranges = symbols.get(symbol);
+        return ranges == null ? List.of() : snapshots(symbol, ranges, System.currentTimeMillis());
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private List<DealingRangeSnapshot> snapshots(String symbol, SymbolRanges ranges, long epochMillis) {
+        List<DealingRangeSnapshot> snapshots = new ArrayList<>(timeframes.length);
+        synchronized (ranges) {
+            for (int i = 0; i < timeframes.length; i++) {
+                if (ranges.ranges[i].isFull()) {
+                    snapshots.add(toSnapshot(symbol, i, ranges.ranges[i], ranges.lastClose, epochMillis));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private DealingRangeSnapshot toSnapshot(String symbol, int i, RollingExtremes range, long price, long epochMillis) {
+        BigDecimal rangeHigh = OHLCBarBuffer.toDecimal(range.high());
+        BigDecimal rangeLow = OHLCBarBuffer.toDecimal(range.low());
+        BigDecimal rangeSize = rangeHigh.subtract(rangeLow);
+        return DealingRangeSnapshot.builder()
+            .symbol(symbol)
+            .currentPrice(OHLCBarBuffer.toDecimal(price))
+            .currentQuadrant(Quadrant.of(price, range.low(), range.high()))
+            .rangeHigh(rangeHigh)
+            .rangeLow(rangeLow)
+            .q1Level(rangeLow.add(rangeSize.multiply(Q1_RATIO)))
+            .q2Level(rangeLow.add(rangeSize.multiply(Q2_RATIO)))
+            .q3Level(rangeLow.add(rangeSize.multiply(Q3_RATIO)))
+            .chartTimeframe(timeframes[i])
+            .interval(eventIntervals[i])
+            .rangeCalculatedAt(Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC))
+            .alertMessage("Computed from " + lookbackBars + " " + timeframes[i] + " bars")
+            .source(SOURCE)
+            .lookbackBars(lookbackBars)
+            .rangeSize(rangeSize)
+            .build();
+    }
+
+    private final class SymbolRanges {
+
+        private final RollingExtremes[] ranges;
+        private long lastClose;
+
+        SymbolRanges() {
+            ranges = new RollingExtremes[timeframes.length];
+            for (int i = 0; i < ranges.length; i++) {
+                ranges[i] = new RollingExtremes(lookbackBars);
+            }
+        }
+    }
+}
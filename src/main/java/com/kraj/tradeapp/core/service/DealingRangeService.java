@@ -6,18 +6,15 @@ import com.kraj.tradeapp.core.model.*;
 import com.kraj.tradeapp.core.model.dto.DealingRangeDto;
 import com.kraj.tradeapp.core.model.persistance.NotificationEvent;
 import com.kraj.tradeapp.core.repository.NotificationEventRepository;
-import com.kraj.tradeapp.core.repository.mongodb.DealingRangeSnapshotRepository;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -25,8 +22,8 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class DealingRangeService {
 
-    private final DealingRangeSnapshotRepository dealingRangeSnapshotRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final DealingRangeStateCache dealingRangeStateCache;
+    private final BroadcastService broadcastService;
     private final NotificationEventRepository notificationEventRepository;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -42,10 +39,12 @@ public class DealingRangeService {
             log.info("Processing dealing range JSON webhook: {}", jsonPayload);
 
             DealingRangeSnapshot newSnapshot = createSnapshotFromJson(jsonPayload);
-            Optional<DealingRangeSnapshot> mayBeCurrSnapshot = dealingRangeSnapshotRepository.findBySymbolAndInterval(
-                getCleanedSymbol(newSnapshot.getSymbol()),
-                newSnapshot.getInterval()
-            );
+            if (newSnapshot == null) {
+                log.warn("Could not create snapshot from JSON payload: {}", jsonPayload);
+                return;
+            }
+
+            Optional<DealingRangeSnapshot> mayBeCurrSnapshot = dealingRangeStateCache.get(newSnapshot.getSymbol(), newSnapshot.getInterval());
 
             //if current snapshot for the interval is same status as the new snapshot, skip processing
             if (
@@ -62,12 +61,7 @@ public class DealingRangeService {
                 return;
             }
 
-            if (newSnapshot == null) {
-                log.warn("Could not create snapshot from JSON payload: {}", jsonPayload);
-                return;
-            }
-
-            saveOrUpdateSnapshot(newSnapshot);
+            dealingRangeStateCache.put(newSnapshot);
 
             // Create and save notification event when status changes
             NotificationEvent notificationEvent = createNotificationEvent(newSnapshot);
@@ -75,7 +69,11 @@ public class DealingRangeService {
 
             // Send real-time update
             DealingRangeDto dto = convertToDto(newSnapshot);
-            messagingTemplate.convertAndSend("/topic/dealing-range", dto);
+            broadcastService.broadcastLatest(
+                newSnapshot.getSymbol() + ":" + newSnapshot.getInterval(),
+                dto,
+                BroadcastService.dealingRangeTopics(newSnapshot.getSymbol())
+            );
 
             log.info(
                 "Successfully processed dealing range for {}: {} at {}",
@@ -147,71 +145,58 @@ public class DealingRangeService {
         if (StringUtils.isBlank(symbol)) {
             return Optional.empty();
         }
-        return dealingRangeSnapshotRepository.findBySymbol(symbol.toUpperCase()).map(this::convertToDto);
+        return dealingRangeStateCache.getLatest(symbol.toUpperCase()).map(this::convertToDto);
     }
 
     public List<DealingRangeDto> getSymbolsInQuadrant(Quadrant quadrant) {
-        return dealingRangeSnapshotRepository.findByCurrentQuadrant(quadrant).stream().map(this::convertToDto).toList();
+        return toDtos(dealingRangeStateCache.getInQuadrants(EnumSet.of(quadrant), null));
     }
 
     public List<DealingRangeDto> getSymbolsInQuadrantByInterval(Quadrant quadrant, EventInterval interval) {
-        return dealingRangeSnapshotRepository
-            .findByCurrentQuadrantAndInterval(quadrant, interval)
-            .stream()
-            .map(this::convertToDto)
-            .toList();
+        return toDtos(dealingRangeStateCache.getInQuadrants(EnumSet.of(quadrant), interval));
     }
 
     public Optional<DealingRangeDto> getDealingRangeByInterval(String symbol, EventInterval interval) {
         if (StringUtils.isBlank(symbol)) {
             return Optional.empty();
         }
-        return dealingRangeSnapshotRepository.findBySymbolAndInterval(symbol.toUpperCase(), interval).map(this::convertToDto);
+        return dealingRangeStateCache.get(symbol.toUpperCase(), interval).map(this::convertToDto);
     }
 
     public List<DealingRangeDto> getDealingRangesByInterval(EventInterval interval) {
-        return dealingRangeSnapshotRepository.findByInterval(interval).stream().map(this::convertToDto).toList();
+        return toDtos(dealingRangeStateCache.getAll(interval));
     }
 
     public List<DealingRangeDto> getExtremePositions() {
-        return dealingRangeSnapshotRepository.findExtremePositions().stream().map(this::convertToDto).toList();
+        return toDtos(dealingRangeStateCache.getInQuadrants(DealingRangeStateCache.EXTREME_QUADRANTS, null));
     }
 
     public List<DealingRangeDto> getExtremePositionsByInterval(EventInterval interval) {
-        return dealingRangeSnapshotRepository.findExtremePositionsByInterval(interval).stream().map(this::convertToDto).toList();
+        return toDtos(dealingRangeStateCache.getInQuadrants(DealingRangeStateCache.EXTREME_QUADRANTS, interval));
     }
 
     public List<DealingRangeDto> getSymbolsWithinRange() {
-        return dealingRangeSnapshotRepository.findWithinRange().stream().map(this::convertToDto).toList();
+        return toDtos(dealingRangeStateCache.getInQuadrants(DealingRangeStateCache.WITHIN_RANGE_QUADRANTS, null));
     }
 
     public List<DealingRangeDto> getSymbolsWithinRangeByInterval(EventInterval interval) {
-        return dealingRangeSnapshotRepository.findWithinRangeByInterval(interval).stream().map(this::convertToDto).toList();
+        return toDtos(dealingRangeStateCache.getInQuadrants(DealingRangeStateCache.WITHIN_RANGE_QUADRANTS, interval));
     }
 
     public List<DealingRangeDto> getDealingRangeSummary(List<String> symbols) {
         if (symbols == null || symbols.isEmpty()) {
-            return dealingRangeSnapshotRepository.findAll().stream().map(this::convertToDto).toList();
+            return toDtos(dealingRangeStateCache.getAll(null));
         }
 
-        return symbols
-            .stream()
-            .map(String::toUpperCase)
-            .map(dealingRangeSnapshotRepository::findBySymbol)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .map(this::convertToDto)
-            .toList();
+        return toDtos(dealingRangeStateCache.getAll(symbols.stream().map(String::toUpperCase).toList(), null));
     }
 
     public Map<Quadrant, Long> getQuadrantCounts() {
-        List<DealingRangeSnapshot> allSnapshots = dealingRangeSnapshotRepository.findAll();
-        return allSnapshots.stream().collect(Collectors.groupingBy(DealingRangeSnapshot::getCurrentQuadrant, Collectors.counting()));
+        return dealingRangeStateCache.getQuadrantCounts(null);
     }
 
     public Map<Quadrant, Long> getQuadrantCountsByInterval(EventInterval interval) {
-        List<DealingRangeSnapshot> snapshots = dealingRangeSnapshotRepository.findByInterval(interval);
-        return snapshots.stream().collect(Collectors.groupingBy(DealingRangeSnapshot::getCurrentQuadrant, Collectors.counting()));
+        return dealingRangeStateCache.getQuadrantCounts(interval);
     }
 
     // ========================================================================
@@ -407,39 +392,8 @@ public class DealingRangeService {
         }
     }
 
-    private void saveOrUpdateSnapshot(DealingRangeSnapshot newSnapshot) {
-        Optional<DealingRangeSnapshot> existingOpt = dealingRangeSnapshotRepository.findBySymbol(newSnapshot.getSymbol());
-
-        if (existingOpt.isPresent()) {
-            // Update existing snapshot (overwrite)
-            DealingRangeSnapshot existing = existingOpt.get();
-            updateSnapshot(existing, newSnapshot);
-            dealingRangeSnapshotRepository.save(existing);
-
-            log.debug("Updated existing snapshot for {}", existing.getSymbol());
-        } else {
-            // Save new snapshot
-            dealingRangeSnapshotRepository.save(newSnapshot);
-            log.debug("Created new snapshot for {}", newSnapshot.getSymbol());
-        }
-    }
-
-    private void updateSnapshot(DealingRangeSnapshot existing, DealingRangeSnapshot newData) {
-        existing.setCurrentPrice(newData.getCurrentPrice());
-        existing.setCurrentQuadrant(newData.getCurrentQuadrant());
-        existing.setRangeHigh(newData.getRangeHigh());
-        existing.setRangeLow(newData.getRangeLow());
-        existing.setQ1Level(newData.getQ1Level());
-        existing.setQ2Level(newData.getQ2Level());
-        existing.setQ3Level(newData.getQ3Level());
-        existing.setChartTimeframe(newData.getChartTimeframe());
-        existing.setInterval(newData.getInterval());
-        existing.setLastUpdated(ZonedDateTime.now());
-        existing.setRangeCalculatedAt(newData.getRangeCalculatedAt());
-        existing.setAlertMessage(newData.getAlertMessage());
-        existing.setSource(newData.getSource());
-        existing.setLookbackBars(newData.getLookbackBars());
-        existing.setRangeSize(newData.getRangeSize());
+    private List<DealingRangeDto> toDtos(List<DealingRangeSnapshot> snapshots) {
+        return snapshots.stream().map(this::convertToDto).toList();
     }
 
     private DealingRangeDto convertToDto(DealingRangeSnapshot snapshot) {
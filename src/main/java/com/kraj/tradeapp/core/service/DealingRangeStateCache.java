@@ -0,0 +1,407 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+import com.kraj.tradeapp.core.model.DealingRangeSnapshot;
+import com.kraj.tradeapp.core.model.EventInterval;
+import com.kraj.tradeapp.core.model.Quadrant;
+import com.kraj.tradeapp.core.repository.mongodb.DealingRangeSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+/**
+ * Current dealing-range snapshot per (symbol, interval), held in memory and written through to
+ * <code>dealing_range_snapshot</code>.
+ * <p>
+ * The collection is read from Mongo once, on first use; after that every read is served from memory, so a webhook
+ * that does not change the state costs no I/O and the dashboard queries never touch Mongo. Next to the snapshots,
+ * each interval keeps the symbols currently in each quadrant (an {@link EnumMap} of sorted sets), moved from one set
+ * to the other on every quadrant transition; quadrant counts are the sizes of those sets.
+ * <p>
+ * Each stored snapshot also carries <code>extremeSince</code>, the time its current run of extreme quadrants
+ * started, carried over from the snapshot it replaces while the quadrant stays extreme. Snapshots stored before that
+ * field existed get it from one aggregation over <code>dealing_range_history</code> when the state is loaded.
+ * <p>
+ * Stored snapshots are replaced, never modified in place: callers must not mutate what is returned. A failed write
+ * drops the whole state so the next read reloads it from Mongo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DealingRangeStateCache {
+
+    /** Q1, Q4 and both breaches. */
+    public static final Set<Quadrant> EXTREME_QUADRANTS = EnumSet.of(
+        Quadrant.Q1_75_100,
+        Quadrant.Q4_0_25,
+        Quadrant.BREACH_ABOVE_RANGE,
+        Quadrant.BREACH_BELOW_RANGE
+    );
+
+    /** Q1 to Q4. */
+    public static final Set<Quadrant> WITHIN_RANGE_QUADRANTS = EnumSet.range(Quadrant.Q1_75_100, Quadrant.Q4_0_25);
+
+    private static final Comparator<DealingRangeSnapshot> BY_LAST_UPDATED = Comparator.comparing(
+        DealingRangeSnapshot::getLastUpdated,
+        Comparator.nullsFirst(Comparator.naturalOrder())
+    );
+
+    private static final String COLLECTION = "dealing_range_snapshot";
+    private static final String HISTORY_COLLECTION = "dealing_range_history";
+    private static final String SYMBOL_INTERVAL_INDEX = "symbol_interval";
+
+    private final DealingRangeSnapshotRepository dealingRangeSnapshotRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private record Key(String symbol, EventInterval interval) {}
+
+    // guards the maps below; writers are additionally serialized on this
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Key, DealingRangeSnapshot> snapshots = new HashMap<>();
+    private final Map<EventInterval, EnumMap<Quadrant, TreeSet<String>>> symbolsByQuadrant = new EnumMap<>(EventInterval.class);
+    private volatile boolean loaded;
+
+    /**
+     * One snapshot per (symbol, interval): drops the unique <code>symbol</code> index of the one-snapshot-per-symbol
+     * model, which rejects a second interval of the same symbol, and creates the compound unique index instead.
+     */
+    @PostConstruct
+    public void migrateIndexes() {
+        IndexOperations indexOps = mongoTemplate.indexOps(COLLECTION);
+        for (IndexInfo index : indexOps.getIndexInfo()) {
+            boolean symbolOnly = index.getIndexFields().size() == 1 && "symbol".equals(index.getIndexFields().get(0).getKey());
+            if (symbolOnly && index.isUnique()) {
+                indexOps.dropIndex(index.getName());
+                log.info("Dropped unique index {} on {}.symbol", index.getName(), COLLECTION);
+            }
+        }
+        try {
+            indexOps.ensureIndex(
+                new Index().on("symbol", Sort.Direction.ASC).on("interval", Sort.Direction.ASC).unique().named(SYMBOL_INTERVAL_INDEX)
+            );
+        } catch (RuntimeException e) {
+            // duplicates of a (symbol, interval) must be removed by hand before the index can be built
+            log.error("Could not create unique index {} on {}", SYMBOL_INTERVAL_INDEX, COLLECTION, e);
+        }
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Current snapshot of a symbol/interval.
+     */
+    public Optional<DealingRangeSnapshot> get(String symbol, EventInterval interval) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(snapshots.get(new Key(symbol, interval)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Most recently updated snapshot of a symbol over all intervals.
+     */
+    public Optional<DealingRangeSnapshot> getLatest(String symbol) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(latestOf(symbol));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current snapshots of several symbols in one read: the snapshot of <code>interval</code> for each symbol, or its
+     * most recently updated one when <code>interval</code> is null. Symbols without one are left out; the others keep
+     * the requested order, duplicates once.
+     */
+    public List<DealingRangeSnapshot> getAll(Collection<String> symbols, EventInterval interval) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<DealingRangeSnapshot> result = new ArrayList<>(symbols.size());
+            for (String symbol : new LinkedHashSet<>(symbols)) {
+                DealingRangeSnapshot snapshot = interval != null ? snapshots.get(new Key(symbol, interval)) : latestOf(symbol);
+                if (snapshot != null) {
+                    result.add(snapshot);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current snapshots of an interval, or of all intervals when <code>interval</code> is null, ordered by interval,
+     * quadrant, then symbol.
+     */
+    public List<DealingRangeSnapshot> getAll(EventInterval interval) {
+        return getInQuadrants(EnumSet.allOf(Quadrant.class), interval);
+    }
+
+    /**
+     * Current snapshots in any of the given quadrants, for one interval or all intervals when <code>interval</code> is
+     * null, ordered by interval, quadrant, then symbol.
+     */
+    public List<DealingRangeSnapshot> getInQuadrants(Collection<Quadrant> quadrants, EventInterval interval) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<DealingRangeSnapshot> result = new ArrayList<>();
+            for (Map.Entry<EventInterval, EnumMap<Quadrant, TreeSet<String>>> byInterval : symbolsByQuadrant.entrySet()) {
+                if (interval != null && byInterval.getKey() != interval) {
+                    continue;
+                }
+                for (Map.Entry<Quadrant, TreeSet<String>> byQuadrant : byInterval.getValue().entrySet()) {
+                    if (!quadrants.contains(byQuadrant.getKey())) {
+                        continue;
+                    }
+                    for (String symbol : byQuadrant.getValue()) {
+                        result.add(snapshots.get(new Key(symbol, byInterval.getKey())));
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of symbols currently in each quadrant, for one interval or all intervals when <code>interval</code> is
+     * null. Quadrants without symbols are left out.
+     */
+    public Map<Quadrant, Long> getQuadrantCounts(EventInterval interval) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<Quadrant, Long> counts = new EnumMap<>(Quadrant.class);
+            for (Map.Entry<EventInterval, EnumMap<Quadrant, TreeSet<String>>> byInterval : symbolsByQuadrant.entrySet()) {
+                if (interval != null && byInterval.getKey() != interval) {
+                    continue;
+                }
+                byInterval.getValue().forEach((quadrant, symbols) -> counts.merge(quadrant, (long) symbols.size(), Long::sum));
+            }
+            counts.values().removeIf(count -> count == 0);
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current snapshots of an interval that have been in extreme quadrants since <code>enteredBy</code> or earlier,
+     * ordered by quadrant then symbol.
+     */
+    public List<DealingRangeSnapshot> getInExtremesSince(EventInterval interval, ZonedDateTime enteredBy) {
+        return getInQuadrants(EXTREME_QUADRANTS, interval)
+            .stream()
+            .filter(snapshot -> snapshot.getExtremeSince() != null && !snapshot.getExtremeSince().isAfter(enteredBy))
+            .toList();
+    }
+
+    /**
+     * Store a snapshot as the current one of its symbol/interval, replacing the stored document if there is one.
+     */
+    public DealingRangeSnapshot put(DealingRangeSnapshot snapshot) {
+        Key key = new Key(snapshot.getSymbol(), snapshot.getInterval());
+        synchronized (this) {
+            Optional<DealingRangeSnapshot> current = get(key.symbol(), key.interval());
+            snapshot.setId(current.map(DealingRangeSnapshot::getId).orElse(null));
+            snapshot.setLastUpdated(ZonedDateTime.now());
+            snapshot.setExtremeSince(extremeSince(current.orElse(null), snapshot));
+            DealingRangeSnapshot saved;
+            try {
+                saved = dealingRangeSnapshotRepository.save(snapshot);
+            } catch (RuntimeException e) {
+                loaded = false;
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                index(key, saved);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("{} snapshot for {} ({})", current.isPresent() ? "Updated" : "Created", key.symbol(), key.interval());
+            return saved;
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<DealingRangeSnapshot> stored = dealingRangeSnapshotRepository.findAll();
+            backfillExtremeSince(stored);
+            lock.writeLock().lock();
+            try {
+                snapshots.clear();
+                symbolsByQuadrant.clear();
+                for (DealingRangeSnapshot snapshot : stored) {
+                    if (snapshot.getSymbol() == null || snapshot.getInterval() == null) {
+                        continue;
+                    }
+                    index(new Key(snapshot.getSymbol(), snapshot.getInterval()), snapshot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded = true;
+            log.info("Loaded {} dealing-range snapshots", snapshots.size());
+        }
+    }
+
+    /**
+     * Replace the snapshot of a key and move its symbol to the set of the new quadrant. Caller holds the write lock.
+     */
+    private void index(Key key, DealingRangeSnapshot snapshot) {
+        DealingRangeSnapshot previous = snapshots.put(key, snapshot);
+        EnumMap<Quadrant, TreeSet<String>> byQuadrant = symbolsByQuadrant.computeIfAbsent(key.interval(), i ->
+            new EnumMap<>(Quadrant.class)
+        );
+        if (previous != null) {
+            byQuadrant.get(quadrantOf(previous)).remove(key.symbol());
+        }
+        byQuadrant.computeIfAbsent(quadrantOf(snapshot), q -> new TreeSet<>()).add(key.symbol());
+    }
+
+    /**
+     * Most recently updated snapshot of a symbol over all intervals. Caller holds a lock.
+     */
+    private DealingRangeSnapshot latestOf(String symbol) {
+        DealingRangeSnapshot latest = null;
+        for (EventInterval interval : EventInterval.values()) {
+            DealingRangeSnapshot snapshot = snapshots.get(new Key(symbol, interval));
+            if (snapshot != null && (latest == null || BY_LAST_UPDATED.compare(snapshot, latest) > 0)) {
+                latest = snapshot;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Start of the extreme run a new snapshot is in: kept from the snapshot it replaces if that was already extreme,
+     * otherwise the new snapshot's own time; null when the new quadrant is not extreme.
+     */
+    private static ZonedDateTime extremeSince(DealingRangeSnapshot previous, DealingRangeSnapshot next) {
+        if (!EXTREME_QUADRANTS.contains(next.getCurrentQuadrant())) {
+            return null;
+        }
+        if (previous != null && EXTREME_QUADRANTS.contains(previous.getCurrentQuadrant()) && previous.getExtremeSince() != null) {
+            return previous.getExtremeSince();
+        }
+        return next.getRangeCalculatedAt() != null ? next.getRangeCalculatedAt() : ZonedDateTime.now();
+    }
+
+    /**
+     * Set <code>extremeSince</code> on extreme snapshots stored without it, to the last history record outside the
+     * extremes (their own time when there is none), and store them so this only happens once.
+     */
+    private void backfillExtremeSince(List<DealingRangeSnapshot> stored) {
+        List<DealingRangeSnapshot> missing = stored
+            .stream()
+            .filter(s -> s.getSymbol() != null && s.getInterval() != null)
+            .filter(s -> EXTREME_QUADRANTS.contains(s.getCurrentQuadrant()) && s.getExtremeSince() == null)
+            .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<String> symbols = missing.stream().map(DealingRangeSnapshot::getSymbol).distinct().toList();
+        List<String> extremes = EXTREME_QUADRANTS.stream().map(Quadrant::name).toList();
+
+        // last record outside the extremes, then the first extreme record after it: the start of the current run
+        Map<Key, ZonedDateTime> lastOutside = aggregateTimes(
+            Criteria.where("symbol").in(symbols).and("interval").ne(null).and("timestamp").ne(null).and("currentQuadrant").nin(extremes),
+            false
+        );
+        List<Criteria> runs = new ArrayList<>(missing.size());
+        for (DealingRangeSnapshot snapshot : missing) {
+            Criteria run = Criteria.where("symbol").is(snapshot.getSymbol()).and("interval").is(snapshot.getInterval().name());
+            ZonedDateTime after = lastOutside.get(new Key(snapshot.getSymbol(), snapshot.getInterval()));
+            runs.add(after != null ? run.and("timestamp").gt(Date.from(after.toInstant())) : run.and("timestamp").ne(null));
+        }
+        Map<Key, ZonedDateTime> firstExtreme = aggregateTimes(
+            new Criteria().andOperator(Criteria.where("currentQuadrant").in(extremes), new Criteria().orOperator(runs)),
+            true
+        );
+        for (DealingRangeSnapshot snapshot : missing) {
+            ZonedDateTime since = firstExtreme.get(new Key(snapshot.getSymbol(), snapshot.getInterval()));
+            snapshot.setExtremeSince(since != null ? since : snapshot.getRangeCalculatedAt());
+        }
+        dealingRangeSnapshotRepository.saveAll(missing);
+        log.info("Set the extreme-run start of {} dealing-range snapshots from history", missing.size());
+    }
+
+    /**
+     * Earliest or latest history timestamp per (symbol, interval) among the records matching <code>criteria</code>.
+     * Records whose interval is not an {@link EventInterval} are skipped.
+     */
+    private Map<Key, ZonedDateTime> aggregateTimes(Criteria criteria, boolean earliest) {
+        GroupOperation group = group("symbol", "interval");
+        Aggregation aggregation = newAggregation(
+            match(criteria),
+            earliest ? group.min("timestamp").as("time") : group.max("timestamp").as("time")
+        );
+        Map<Key, ZonedDateTime> times = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, HISTORY_COLLECTION, Document.class).getMappedResults()) {
+            Document id = row.get("_id", Document.class);
+            if (row.getDate("time") == null || id.getString("symbol") == null) {
+                continue;
+            }
+            try {
+                EventInterval interval = EventInterval.valueOf(id.getString("interval"));
+                times.put(new Key(id.getString("symbol"), interval), row.getDate("time").toInstant().atZone(ZoneOffset.UTC));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.warn("Skipping {} records of {} with unknown interval {}", HISTORY_COLLECTION, id.get("symbol"), id.get("interval"));
+            }
+        }
+        return times;
+    }
+
+    private static Quadrant quadrantOf(DealingRangeSnapshot snapshot) {
+        return snapshot.getCurrentQuadrant() != null ? snapshot.getCurrentQuadrant() : Quadrant.UNKNOWN;
+    }
+}
@@ -0,0 +1,320 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+import com.kraj.tradeapp.core.model.DealingRangeHistory;
+import com.kraj.tradeapp.core.model.DealingRangeSnapshot;
+import com.kraj.tradeapp.core.model.EventInterval;
+import com.kraj.tradeapp.core.model.Quadrant;
+import com.kraj.tradeapp.core.model.SessionCalendar;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Daily dealing-range rollups per (symbol, interval, New York date, quadrant) in
+ * <code>dealing_range_daily_stats</code>, so quadrant statistics never read raw history.
+ * <p>
+ * Every history record increments the event count of its quadrant and credits the time since the previous record
+ * to the previous quadrant, split at New York midnight, with one bulk of <code>$inc</code> upserts. Statistics over a
+ * rolling window are a single <code>$match</code>/<code>$group</code> over the rollups of the whole dates in it, the
+ * raw history of the partial date it starts in, and the still-open time since the current snapshot, which no record
+ * has closed yet.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DealingRangeStatsService {
+
+    public static final String COLLECTION = "dealing_range_daily_stats";
+    private static final String HISTORY_COLLECTION = "dealing_range_history";
+
+    private final MongoTemplate mongoTemplate;
+    private final DealingRangeStateCache dealingRangeStateCache;
+
+    @Value("${trading.dealing-range.stats.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    /**
+     * Events and seconds spent in a quadrant.
+     */
+    public record QuadrantTotals(long events, long seconds) {}
+
+    private static final class Rollup {
+
+        private final String symbol;
+        private final EventInterval interval;
+        private final LocalDate date;
+        private final Quadrant quadrant;
+        private long events;
+        private long seconds;
+
+        private Rollup(String symbol, EventInterval interval, LocalDate date, Quadrant quadrant) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.date = date;
+            this.quadrant = quadrant;
+        }
+    }
+
+    @PostConstruct
+    public void ensureIndexes() {
+        mongoTemplate
+            .indexOps(COLLECTION)
+            .ensureIndex(
+                new Index()
+                    .on("symbol", Sort.Direction.ASC)
+                    .on("interval", Sort.Direction.ASC)
+                    .on("date", Sort.Direction.ASC)
+                    .named("symbol_interval_date_idx")
+            );
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAtStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            rebuildFromHistory();
+        } catch (Exception e) {
+            log.error("Rebuild of {} from {} failed", COLLECTION, HISTORY_COLLECTION, e);
+        }
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Roll a new history record into today's statistics. <code>previous</code> is the snapshot it replaces, whose
+     * quadrant is credited with the time until <code>next</code> was calculated.
+     */
+    public void record(Optional<DealingRangeSnapshot> previous, DealingRangeSnapshot next) {
+        Map<String, Rollup> rollups = new HashMap<>();
+        accumulate(
+            rollups,
+            next.getSymbol(),
+            next.getInterval(),
+            previous.map(DealingRangeSnapshot::getCurrentQuadrant).orElse(null),
+            previous.map(DealingRangeSnapshot::getRangeCalculatedAt).orElse(null),
+            next.getCurrentQuadrant(),
+            next.getRangeCalculatedAt()
+        );
+        write(rollups, true);
+    }
+
+    /**
+     * Event counts and time per quadrant of a symbol/interval over the last <code>days</code> x 24 hours. Quadrants
+     * never seen in that window are left out.
+     */
+    public Map<Quadrant, QuadrantTotals> getQuadrantTotals(String symbol, EventInterval interval, int days) {
+        Instant now = Instant.now();
+        Instant since = now.minus(Duration.ofDays(Math.max(days, 1)));
+        // the window starts part-way through this date; the dates after it are whole rollups
+        LocalDate firstDate = LocalDate.ofInstant(since, SessionCalendar.NEW_YORK);
+        Instant firstDateEnd = firstDate.plusDays(1).atStartOfDay(SessionCalendar.NEW_YORK).toInstant();
+        Instant rollupsFrom = firstDateEnd.isBefore(now) ? firstDateEnd : now;
+        Aggregation aggregation = newAggregation(
+            match(Criteria.where("symbol").is(symbol).and("interval").is(interval.name()).and("date").gt(firstDate.toString())),
+            group("quadrant").sum("events").as("events").sum("seconds").as("seconds")
+        );
+
+        Map<Quadrant, long[]> totals = new EnumMap<>(Quadrant.class);
+        for (Document row : mongoTemplate.aggregate(aggregation, COLLECTION, Document.class).getMappedResults()) {
+            long[] total = totals.computeIfAbsent(Quadrant.valueOf(row.getString("_id")), q -> new long[2]);
+            total[0] += ((Number) row.get("events")).longValue();
+            total[1] += ((Number) row.get("seconds")).longValue();
+        }
+        addHistory(totals, symbol, interval, since, rollupsFrom);
+
+        // time since the current snapshot is not in any rollup until the next record closes it
+        dealingRangeStateCache
+            .get(symbol, interval)
+            .filter(current -> current.getCurrentQuadrant() != null && current.getRangeCalculatedAt() != null)
+            .ifPresent(current -> {
+                Instant from = current.getRangeCalculatedAt().toInstant();
+                long seconds = now.getEpochSecond() - (from.isAfter(rollupsFrom) ? from : rollupsFrom).getEpochSecond();
+                if (seconds > 0) {
+                    totals.computeIfAbsent(current.getCurrentQuadrant(), q -> new long[2])[1] += seconds;
+                }
+            });
+
+        Map<Quadrant, QuadrantTotals> result = new EnumMap<>(Quadrant.class);
+        totals.forEach((quadrant, total) -> result.put(quadrant, new QuadrantTotals(total[0], total[1])));
+        return result;
+    }
+
+    /**
+     * Recompute all rollups from <code>dealing_range_history</code>, replacing the collection. Records written while
+     * this runs may be counted twice or not at all, so run it once, when no alerts are arriving.
+     */
+    public int rebuildFromHistory() {
+        long start = System.nanoTime();
+        Map<String, Rollup> rollups = new HashMap<>();
+        Query query = new Query(Criteria.where("timestamp").ne(null)).with(
+            Sort.by(Sort.Direction.ASC, "symbol", "interval", "timestamp")
+        );
+        try (Stream<DealingRangeHistory> history = mongoTemplate.stream(query, DealingRangeHistory.class, HISTORY_COLLECTION)) {
+            DealingRangeHistory[] previous = { null };
+            history.forEach(record -> {
+                DealingRangeHistory prev = previous[0];
+                boolean sameSeries =
+                    prev != null && Objects.equals(prev.getSymbol(), record.getSymbol()) && prev.getInterval() == record.getInterval();
+                accumulate(
+                    rollups,
+                    record.getSymbol(),
+                    record.getInterval(),
+                    sameSeries ? prev.getCurrentQuadrant() : null,
+                    sameSeries ? prev.getTimestamp() : null,
+                    record.getCurrentQuadrant(),
+                    record.getTimestamp()
+                );
+                previous[0] = record;
+            });
+        }
+        mongoTemplate.remove(new Query(), COLLECTION);
+        write(rollups, false);
+        log.info(
+            "Rebuilt {} {} rollups from {} in {} ms",
+            rollups.size(),
+            COLLECTION,
+            HISTORY_COLLECTION,
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return rollups.size();
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    /**
+     * Count the history records with <code>from &lt;= timestamp &lt; to</code> and credit the time between them, and
+     * up to <code>to</code>, to the quadrant in force, starting from the last record before <code>from</code>.
+     */
+    private void addHistory(Map<Quadrant, long[]> totals, String symbol, EventInterval interval, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        DealingRangeHistory before = mongoTemplate.findOne(
+            Query.query(Criteria.where("symbol").is(symbol).and("interval").is(interval).and("timestamp").lt(Date.from(from))).with(
+                Sort.by(Sort.Direction.DESC, "timestamp")
+            ),
+            DealingRangeHistory.class,
+            HISTORY_COLLECTION
+        );
+        List<DealingRangeHistory> records = mongoTemplate.find(
+            Query.query(
+                Criteria.where("symbol").is(symbol).and("interval").is(interval).and("timestamp").gte(Date.from(from)).lt(Date.from(to))
+            ).with(Sort.by(Sort.Direction.ASC, "timestamp")),
+            DealingRangeHistory.class,
+            HISTORY_COLLECTION
+        );
+
+        Quadrant quadrant = before != null ? before.getCurrentQuadrant() : null;
+        Instant time = from;
+        for (DealingRangeHistory record : records) {
+            if (record.getCurrentQuadrant() == null || record.getTimestamp() == null) {
+                continue;
+            }
+            Instant at = record.getTimestamp().toInstant();
+            if (quadrant != null) {
+                totals.computeIfAbsent(quadrant, q -> new long[2])[1] += at.getEpochSecond() - time.getEpochSecond();
+            }
+            totals.computeIfAbsent(record.getCurrentQuadrant(), q -> new long[2])[0]++;
+            quadrant = record.getCurrentQuadrant();
+            time = at;
+        }
+        if (quadrant != null) {
+            totals.computeIfAbsent(quadrant, q -> new long[2])[1] += to.getEpochSecond() - time.getEpochSecond();
+        }
+    }
+
+    /**
+     * Count one record and credit the time since the previous one of the same series to the previous quadrant.
+     */
+    private void accumulate(
+        Map<String, Rollup> rollups,
+        String symbol,
+        EventInterval interval,
+        Quadrant previousQuadrant,
+        ZonedDateTime previousTime,
+        Quadrant quadrant,
+        ZonedDateTime time
+    ) {
+        if (symbol == null || interval == null || quadrant == null || time == null) {
+            return;
+        }
+        Instant to = time.toInstant();
+        rollup(rollups, symbol, interval, LocalDate.ofInstant(to, SessionCalendar.NEW_YORK), quadrant).events++;
+        if (previousQuadrant == null || previousTime == null) {
+            return;
+        }
+        Instant from = previousTime.toInstant();
+        while (from.isBefore(to)) {
+            LocalDate date = LocalDate.ofInstant(from, SessionCalendar.NEW_YORK);
+            Instant dayEnd = date.plusDays(1).atStartOfDay(SessionCalendar.NEW_YORK).toInstant();
+            Instant end = dayEnd.isBefore(to) ? dayEnd : to;
+            rollup(rollups, symbol, interval, date, previousQuadrant).seconds += end.getEpochSecond() - from.getEpochSecond();
+            from = end;
+        }
+    }
+
+    private Rollup rollup(Map<String, Rollup> rollups, String symbol, EventInterval interval, LocalDate date, Quadrant quadrant) {
+        return rollups.computeIfAbsent(rollupId(symbol, interval, date, quadrant), id -> new Rollup(symbol, interval, date, quadrant));
+    }
+
+    private void write(Map<String, Rollup> rollups, boolean increment) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        for (Map.Entry<String, Rollup> entry : rollups.entrySet()) {
+            Rollup rollup = entry.getValue();
+            Update update = new Update()
+                .setOnInsert("symbol", rollup.symbol)
+                .setOnInsert("interval", rollup.interval.name())
+                .setOnInsert("date", rollup.date.toString())
+                .setOnInsert("quadrant", rollup.quadrant.name());
+            if (increment) {
+                update.inc("events", rollup.events).inc("seconds", rollup.seconds);
+            } else {
+                update.set("events", rollup.events).set("seconds", rollup.seconds);
+            }
+            bulk.upsert(Query.query(Criteria.where("_id").is(entry.getKey())), update);
+        }
+        bulk.execute();
+    }
+
+    private static String rollupId(String symbol, EventInterval interval, LocalDate date, Quadrant quadrant) {
+        return symbol + ":" + interval.name() + ":" + date + ":" + quadrant.name();
+    }
+}
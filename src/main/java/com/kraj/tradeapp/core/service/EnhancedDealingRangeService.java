@@ -8,8 +8,8 @@ import com.kraj.tradeapp.core.model.dto.DealingRangeHistoryDto;
 import com.kraj.tradeapp.core.model.persistance.NotificationEvent;
 import com.kraj.tradeapp.core.repository.NotificationEventRepository;
 import com.kraj.tradeapp.core.repository.mongodb.DealingRangeHistoryRepository;
-import com.kraj.tradeapp.core.repository.mongodb.DealingRangeSnapshotRepository;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -21,7 +21,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -29,9 +28,10 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class EnhancedDealingRangeService {
 
-    private final DealingRangeSnapshotRepository dealingRangeSnapshotRepository;
+    private final DealingRangeStateCache dealingRangeStateCache;
     private final DealingRangeHistoryRepository dealingRangeHistoryRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final DealingRangeStatsService dealingRangeStatsService;
+    private final BroadcastService broadcastService;
     private final NotificationEventRepository notificationEventRepository;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -52,74 +52,93 @@ public class EnhancedDealingRangeService {
                 return;
             }
 
-            // Check for current snapshot
-            Optional<DealingRangeSnapshot> currentSnapshotOpt = dealingRangeSnapshotRepository.findBySymbolAndInterval(
+            processSnapshot(newSnapshot);
+        } catch (Exception e) {
+            log.error("Error processing dealing range webhook: {}", jsonPayload, e);
+        }
+    }
+
+    /**
+     * Apply a new snapshot, from a webhook or computed server-side: when the quadrant changed or the price moved
+     * significantly, record history, store it as current and broadcast it. Returns whether it was applied.
+     */
+    public boolean processSnapshot(DealingRangeSnapshot newSnapshot) {
+        // Check for current snapshot
+        Optional<DealingRangeSnapshot> currentSnapshotOpt = dealingRangeStateCache.get(newSnapshot.getSymbol(), newSnapshot.getInterval());
+
+        boolean isQuadrantChange = false;
+        boolean isSignificantPriceChange = false;
+
+        if (currentSnapshotOpt.isPresent()) {
+            DealingRangeSnapshot currentSnapshot = currentSnapshotOpt.get();
+
+            // Check if quadrant changed
+            isQuadrantChange = !currentSnapshot.getCurrentQuadrant().equals(newSnapshot.getCurrentQuadrant());
+
+            // Check for significant price change (configurable threshold)
+            BigDecimal priceChangeThreshold = new BigDecimal("0.001"); // 0.1%
+            if (currentSnapshot.getCurrentPrice() != null && newSnapshot.getCurrentPrice() != null) {
+                BigDecimal priceChange = newSnapshot
+                    .getCurrentPrice()
+                    .subtract(currentSnapshot.getCurrentPrice())
+                    .abs()
+                    .divide(currentSnapshot.getCurrentPrice(), 6, BigDecimal.ROUND_HALF_UP);
+                isSignificantPriceChange = priceChange.compareTo(priceChangeThreshold) > 0;
+            }
+
+            log.debug(
+                "Status check for {}: quadrant_change={}, significant_price_change={}",
                 newSnapshot.getSymbol(),
-                newSnapshot.getInterval()
+                isQuadrantChange,
+                isSignificantPriceChange
             );
+        } else {
+            // New symbol, always process
+            isQuadrantChange = true;
+            log.info("New symbol detected: {}", newSnapshot.getSymbol());
+        }
 
-            boolean isQuadrantChange = false;
-            boolean isSignificantPriceChange = false;
-
-            if (currentSnapshotOpt.isPresent()) {
-                DealingRangeSnapshot currentSnapshot = currentSnapshotOpt.get();
-
-                // Check if quadrant changed
-                isQuadrantChange = !currentSnapshot.getCurrentQuadrant().equals(newSnapshot.getCurrentQuadrant());
-
-                // Check for significant price change (configurable threshold)
-                BigDecimal priceChangeThreshold = new BigDecimal("0.001"); // 0.1%
-                if (currentSnapshot.getCurrentPrice() != null && newSnapshot.getCurrentPrice() != null) {
-                    BigDecimal priceChange = newSnapshot
-                        .getCurrentPrice()
-                        .subtract(currentSnapshot.getCurrentPrice())
-                        .abs()
-                        .divide(currentSnapshot.getCurrentPrice(), 6, BigDecimal.ROUND_HALF_UP);
-                    isSignificantPriceChange = priceChange.compareTo(priceChangeThreshold) > 0;
-                }
-
-                log.info(
-                    "Status check for {}: quadrant_change={}, significant_price_change={}",
-                    newSnapshot.getSymbol(),
-                    isQuadrantChange,
-                    isSignificantPriceChange
-                );
-            } else {
-                // New symbol, always process
-                isQuadrantChange = true;
-                log.info("New symbol detected: {}", newSnapshot.getSymbol());
+        // Process if quadrant changed or if it's a new symbol
+        if (isQuadrantChange || isSignificantPriceChange || !currentSnapshotOpt.isPresent()) {
+            // Save history record before updating current snapshot
+            saveHistoryRecord(newSnapshot, isQuadrantChange ? "QUADRANT_CHANGE" : "PRICE_UPDATE");
+
+            // Update current snapshot
+            dealingRangeStateCache.put(newSnapshot);
+
+            try {
+                dealingRangeStatsService.record(currentSnapshotOpt, newSnapshot);
+            } catch (Exception e) {
+                log.warn("Could not update quadrant statistics for {} ({})", newSnapshot.getSymbol(), newSnapshot.getInterval(), e);
             }
 
-            // Process if quadrant changed or if it's a new symbol
-            if (isQuadrantChange || isSignificantPriceChange || !currentSnapshotOpt.isPresent()) {
-                // Save history record before updating current snapshot
-                saveHistoryRecord(newSnapshot, isQuadrantChange ? "QUADRANT_CHANGE" : "PRICE_UPDATE");
-
-                // Update current snapshot
-                saveOrUpdateCurrentSnapshot(newSnapshot);
-
-                // Create notification event
-                //NotificationEvent notificationEvent = createNotificationEvent(newSnapshot, isQuadrantChange);
-                //notificationEventRepository.save(notificationEvent);
-
-                // Send real-time update
-                DealingRangeDto dto = convertToDto(newSnapshot);
-                dto.setQuadrantChanged(isQuadrantChange);
-                messagingTemplate.convertAndSend("/topic/dealing-range", dto);
-                messagingTemplate.convertAndSend("/topic/dealing-range/" + newSnapshot.getSymbol(), dto);
-
-                log.info(
-                    "Successfully processed dealing range for {}: {} at {} (quadrant_changed: {})",
-                    newSnapshot.getSymbol(),
-                    newSnapshot.getCurrentQuadrant().getDisplayName(),
-                    newSnapshot.getCurrentPrice(),
-                    isQuadrantChange
-                );
+            // Create notification event
+            //NotificationEvent notificationEvent = createNotificationEvent(newSnapshot, isQuadrantChange);
+            //notificationEventRepository.save(notificationEvent);
+
+            // Send real-time update
+            DealingRangeDto dto = convertToDto(newSnapshot);
+            dto.setQuadrantChanged(isQuadrantChange);
+            // Quadrant changes go out immediately, plain price updates are conflated per symbol/interval
+            String broadcastKey = newSnapshot.getSymbol() + ":" + newSnapshot.getInterval();
+            String[] destinations = BroadcastService.dealingRangeTopics(newSnapshot.getSymbol());
+            if (isQuadrantChange) {
+                broadcastService.broadcastLatest(broadcastKey, dto, destinations);
             } else {
-                log.debug("No significant change for {}, skipping processing", newSnapshot.getSymbol());
+                broadcastService.broadcastConflated(broadcastKey, dto, destinations);
             }
-        } catch (Exception e) {
-            log.error("Error processing dealing range webhook: {}", jsonPayload, e);
+
+            log.info(
+                "Successfully processed dealing range for {}: {} at {} (quadrant_changed: {})",
+                newSnapshot.getSymbol(),
+                newSnapshot.getCurrentQuadrant().getDisplayName(),
+                newSnapshot.getCurrentPrice(),
+                isQuadrantChange
+            );
+            return true;
+        } else {
+            log.debug("No significant change for {}, skipping processing", newSnapshot.getSymbol());
+            return false;
         }
     }
 
@@ -135,7 +154,7 @@ public class EnhancedDealingRangeService {
             return Optional.empty();
         }
 
-        return dealingRangeSnapshotRepository.findBySymbolAndInterval(symbol.toUpperCase(), interval).map(this::convertToDto);
+        return dealingRangeStateCache.get(symbol.toUpperCase(), interval).map(this::convertToDto);
     }
 
     /**
@@ -146,34 +165,61 @@ public class EnhancedDealingRangeService {
             return Optional.empty();
         }
 
-        return dealingRangeSnapshotRepository.findBySymbol(symbol.toUpperCase()).map(this::convertToDto);
+        return dealingRangeStateCache.getLatest(symbol.toUpperCase()).map(this::convertToDto);
     }
 
     /**
-     * Get all symbols with their current quadrants for a specific interval
+     * Get all symbols with their current quadrants for every interval
      */
     public List<DealingRangeDto> getCurrentQuadrants() {
-        return dealingRangeSnapshotRepository.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
+        return dealingRangeStateCache.getAll(null).stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
     /**
      * Get all symbols with their current quadrants for a specific interval
      */
     public List<DealingRangeDto> getCurrentQuadrants(EventInterval interval) {
-        return dealingRangeSnapshotRepository.findByInterval(interval).stream().map(this::convertToDto).collect(Collectors.toList());
+        return dealingRangeStateCache.getAll(interval).stream().map(this::convertToDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Get current quadrants of several symbols in one lookup, for an interval or each symbol's latest when interval is
+     * null; symbols without a dealing range are left out
+     */
+    public List<DealingRangeDto> getCurrentQuadrants(List<String> symbols, @Nullable EventInterval interval) {
+        List<String> normalized = symbols.stream().filter(StringUtils::isNotBlank).map(String::toUpperCase).toList();
+        return dealingRangeStateCache.getAll(normalized, interval).stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
     /**
      * Get symbols currently in specific quadrant
      */
     public List<DealingRangeDto> getSymbolsInQuadrant(Quadrant quadrant, EventInterval interval) {
-        return dealingRangeSnapshotRepository
-            .findByCurrentQuadrantAndInterval(quadrant, interval)
+        return dealingRangeStateCache
+            .getInQuadrants(EnumSet.of(quadrant), interval)
             .stream()
             .map(this::convertToDto)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Get symbols currently in extreme positions (breaches, Q1, Q4)
+     */
+    public List<DealingRangeDto> getExtremePositions(EventInterval interval) {
+        return dealingRangeStateCache
+            .getInQuadrants(DealingRangeStateCache.EXTREME_QUADRANTS, interval)
+            .stream()
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Number of symbols currently in each quadrant, for one interval or all intervals when interval is null
+     */
+    public Map<Quadrant, Long> getQuadrantCounts(@Nullable EventInterval interval) {
+        return dealingRangeStateCache.getQuadrantCounts(interval);
+    }
+
     // ========================================================================
     // HISTORY QUERIES
     // ========================================================================
@@ -221,31 +267,31 @@ public class EnhancedDealingRangeService {
     }
 
     /**
-     * Get statistics for symbol's quadrant distribution over time
+     * Get statistics for symbol's quadrant distribution over time: event counts and time spent per quadrant over the
+     * last <code>days</code> x 24 hours, from the daily rollups
      */
     public Map<String, Object> getQuadrantStatistics(String symbol, EventInterval interval, int days) {
-        ZonedDateTime since = ZonedDateTime.now().minusDays(days);
-
-        List<DealingRangeHistory> history = dealingRangeHistoryRepository.findBySymbolAndIntervalAndTimestampAfterOrderByTimestampDesc(
+        Map<Quadrant, DealingRangeStatsService.QuadrantTotals> totals = dealingRangeStatsService.getQuadrantTotals(
             symbol.toUpperCase(),
             interval,
-            since
+            days
         );
 
-        Map<Quadrant, Long> quadrantCounts = history
-            .stream()
-            .collect(Collectors.groupingBy(DealingRangeHistory::getCurrentQuadrant, Collectors.counting()));
-
-        long totalEvents = history.size();
-        Map<String, Double> quadrantPercentages = quadrantCounts
-            .entrySet()
-            .stream()
-            .collect(
-                Collectors.toMap(
-                    entry -> entry.getKey().name(),
-                    entry -> totalEvents > 0 ? ((entry.getValue() * 100.0) / totalEvents) : 0.0
-                )
-            );
+        long totalEvents = totals.values().stream().mapToLong(DealingRangeStatsService.QuadrantTotals::events).sum();
+        long totalSeconds = totals.values().stream().mapToLong(DealingRangeStatsService.QuadrantTotals::seconds).sum();
+
+        Map<Quadrant, Long> quadrantCounts = new EnumMap<>(Quadrant.class);
+        Map<String, Double> quadrantPercentages = new HashMap<>();
+        Map<Quadrant, Long> quadrantSeconds = new EnumMap<>(Quadrant.class);
+        Map<String, Double> quadrantTimePercentages = new HashMap<>();
+        totals.forEach((quadrant, total) -> {
+            if (total.events() > 0) {
+                quadrantCounts.put(quadrant, total.events());
+                quadrantPercentages.put(quadrant.name(), (total.events() * 100.0) / totalEvents);
+            }
+            quadrantSeconds.put(quadrant, total.seconds());
+            quadrantTimePercentages.put(quadrant.name(), totalSeconds > 0 ? (total.seconds() * 100.0) / totalSeconds : 0.0);
+        });
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("symbol", symbol);
@@ -254,6 +300,9 @@ public class EnhancedDealingRangeService {
         stats.put("totalEvents", totalEvents);
         stats.put("quadrantCounts", quadrantCounts);
         stats.put("quadrantPercentages", quadrantPercentages);
+        stats.put("totalSeconds", totalSeconds);
+        stats.put("quadrantSeconds", quadrantSeconds);
+        stats.put("quadrantTimePercentages", quadrantTimePercentages);
 
         return stats;
     }
@@ -266,37 +315,13 @@ public class EnhancedDealingRangeService {
      * Check for symbols that have been in extreme positions for extended periods
      */
     public List<DealingRangeDto> findSymbolsInExtremesForDuration(EventInterval interval, int minutes) {
-        ZonedDateTime threshold = ZonedDateTime.now().minusMinutes(minutes);
-
-        // Find symbols currently in extremes
-        List<DealingRangeSnapshot> extremeSnapshots = dealingRangeSnapshotRepository.findExtremePositionsByInterval(interval);
+        ZonedDateTime now = ZonedDateTime.now();
 
         List<DealingRangeDto> result = new ArrayList<>();
-
-        for (DealingRangeSnapshot snapshot : extremeSnapshots) {
-            // Check if they've been in extremes for the specified duration
-            List<DealingRangeHistory> recentHistory =
-                dealingRangeHistoryRepository.findBySymbolAndIntervalAndTimestampAfterOrderByTimestampDesc(
-                    snapshot.getSymbol(),
-                    interval,
-                    threshold
-                );
-
-            boolean stuckInExtreme = recentHistory
-                .stream()
-                .allMatch(
-                    h ->
-                        h.getCurrentQuadrant() == Quadrant.BREACH_ABOVE_RANGE ||
-                        h.getCurrentQuadrant() == Quadrant.BREACH_BELOW_RANGE ||
-                        h.getCurrentQuadrant() == Quadrant.Q1_75_100 ||
-                        h.getCurrentQuadrant() == Quadrant.Q4_0_25
-                );
-
-            if (stuckInExtreme) {
-                DealingRangeDto dto = convertToDto(snapshot);
-                dto.setMinutesInCurrentQuadrant(minutes);
-                result.add(dto);
-            }
+        for (DealingRangeSnapshot snapshot : dealingRangeStateCache.getInExtremesSince(interval, now.minusMinutes(minutes))) {
+            DealingRangeDto dto = convertToDto(snapshot);
+            dto.setMinutesInCurrentQuadrant((int) Duration.between(snapshot.getExtremeSince(), now).toMinutes());
+            result.add(dto);
         }
 
         return result;
@@ -330,23 +355,6 @@ public class EnhancedDealingRangeService {
         log.debug("Saved history record for {} - {}", snapshot.getSymbol(), eventType);
     }
 
-    private void saveOrUpdateCurrentSnapshot(DealingRangeSnapshot newSnapshot) {
-        Optional<DealingRangeSnapshot> existingOpt = dealingRangeSnapshotRepository.findBySymbolAndInterval(
-            newSnapshot.getSymbol(),
-            newSnapshot.getInterval()
-        );
-
-        if (existingOpt.isPresent()) {
-            DealingRangeSnapshot existing = existingOpt.get();
-            updateSnapshot(existing, newSnapshot);
-            dealingRangeSnapshotRepository.save(existing);
-            log.debug("Updated snapshot for {} ({})", existing.getSymbol(), existing.getInterval());
-        } else {
-            dealingRangeSnapshotRepository.save(newSnapshot);
-            log.debug("Created new snapshot for {} ({})", newSnapshot.getSymbol(), newSnapshot.getInterval());
-        }
-    }
-
     private NotificationEvent createNotificationEvent(DealingRangeSnapshot snapshot, boolean isQuadrantChange) {
         return NotificationEvent.builder()
             .created(ZonedDateTime.now())
@@ -489,24 +497,6 @@ public class EnhancedDealingRangeService {
         return dto;
     }
 
-    private void updateSnapshot(DealingRangeSnapshot existing, DealingRangeSnapshot newData) {
-        existing.setCurrentPrice(newData.getCurrentPrice());
-        existing.setCurrentQuadrant(newData.getCurrentQuadrant());
-        existing.setRangeHigh(newData.getRangeHigh());
-        existing.setRangeLow(newData.getRangeLow());
-        existing.setQ1Level(newData.getQ1Level());
-        existing.setQ2Level(newData.getQ2Level());
-        existing.setQ3Level(newData.getQ3Level());
-        existing.setChartTimeframe(newData.getChartTimeframe());
-        existing.setInterval(newData.getInterval());
-        existing.setLastUpdated(ZonedDateTime.now());
-        existing.setRangeCalculatedAt(newData.getRangeCalculatedAt());
-        existing.setAlertMessage(newData.getAlertMessage());
-        existing.setSource(newData.getSource());
-        existing.setLookbackBars(newData.getLookbackBars());
-        existing.setRangeSize(newData.getRangeSize());
-    }
-
     // ========================================================================
     // HELPER METHODS
     // ========================================================================
@@ -0,0 +1,76 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link BarFeed} over local files, one <code>&lt;SYMBOL&gt;.csv</code> per symbol with rows
+ * <code>timestamp,open,high,low,close</code>. The timestamp is either epoch millis or an ISO-8601 instant; blank
+ * lines, <code>#</code> comments and a header row are skipped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "trading.ohlc.backfill.feed", havingValue = "file", matchIfMissing = true)
+public class FileBarFeed implements BarFeed {
+
+    private static final int CHUNK_BARS = 16 * 1024;
+
+    @Value("${trading.ohlc.backfill.file-dir:${java.io.tmpdir}/trade-app/backfill}")
+    private String fileDir;
+
+    @Override
+    public int fetch(String symbol, Instant from, Instant to, MappedBarStore.Sink sink) throws IOException {
+        Path file = Path.of(fileDir).resolve(symbol + ".csv");
+        if (!Files.isRegularFile(file)) {
+            log.warn("No backfill file {} for {}", file, symbol);
+            return 0;
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        OHLCBarBuffer chunk = new OHLCBarBuffer(CHUNK_BARS);
+        chunk.setSymbol(symbol);
+        int supplied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || !Character.isDigit(line.charAt(0))) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length < 5) {
+                    throw new IOException("Malformed backfill row in " + file + ": " + line);
+                }
+                long epochMillis = fields[0].indexOf('T') >= 0 ? Instant.parse(fields[0].trim()).toEpochMilli() : Long.parseLong(fields[0].trim());
+                if (epochMillis < fromMillis || epochMillis >= toMillis) {
+                    continue;
+                }
+                chunk.add(epochMillis, price(fields[1]), price(fields[2]), price(fields[3]), price(fields[4]));
+                supplied++;
+                if (chunk.size() == CHUNK_BARS) {
+                    sink.put(chunk);
+                    chunk.clear();
+                    chunk.setSymbol(symbol);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            sink.put(chunk);
+        }
+        return supplied;
+    }
+
+    private static long price(String field) {
+        return OHLCBarBuffer.toScaled(new BigDecimal(field.trim()));
+    }
+}
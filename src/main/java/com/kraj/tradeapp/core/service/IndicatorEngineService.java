@@ -0,0 +1,362 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.IndicatorSeries;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCBuckets;
+import com.kraj.tradeapp.core.model.OHLCCandle;
+import com.kraj.tradeapp.core.model.SessionCalendar;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Server-side technical indicators (EMA, RSI, ATR, session average price, rolling high/low) per symbol and
+ * timeframe, computed on closed bars (see {@link IndicatorSeries}).
+ * <p>
+ * The 1m series is fed with every ingested bar; the higher timeframes with the bars the {@link CandleEngineService}
+ * closes. The first time a symbol is seen its series are warmed up once from recent 1m history (the bar cache, or
+ * <code>ohlc_data</code> when the symbol is not cached), after which no storage is read. A symbol costs a few
+ * kilobytes of primitive state.
+ * <p>
+ * Every applied bar, warm-up included, is also handed to the registered {@link BarListener}s, so other engines
+ * share this closed-bar stream. Bars are collected under the symbol's lock and delivered once it is released.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndicatorEngineService {
+
+    public static final String BASE_TIMEFRAME = "1m";
+
+    private final BarCacheService barCacheService;
+    private final OhlcJdbcRepository ohlcJdbcRepository;
+    private final List<BarListener> barListeners;
+
+    @Value("${trading.candles.timeframes:5m,15m,30m,1h,4h}")
+    private String[] timeframes;
+
+    @Value("${trading.indicators.ema-periods:9,21,50}")
+    private int[] emaPeriods;
+
+    @Value("${trading.indicators.rsi-period:14}")
+    private int rsiPeriod;
+
+    @Value("${trading.indicators.atr-period:14}")
+    private int atrPeriod;
+
+    @Value("${trading.indicators.range-period:20}")
+    private int rangePeriod;
+
+    @Value("${trading.indicators.warmup-hours:120}")
+    private long warmupHours;
+
+    // symbol -> series of 1m and every configured timeframe
+    private final Map<String, SymbolIndicators> symbols = new ConcurrentHashMap<>();
+
+    /**
+     * Latest indicator values of a symbol/timeframe. Prices are in price units; values not available yet (too few
+     * bars) are null. <code>asOf</code> is the start of the last bar applied, as stored for that timeframe.
+     */
+    public record IndicatorValues(
+        String symbol,
+        String timeframe,
+        Instant asOf,
+        long bars,
+        Map<Integer, BigDecimal> ema,
+        Double rsi,
+        BigDecimal atr,
+        BigDecimal sessionAveragePrice,
+        BigDecimal rollingHigh,
+        BigDecimal rollingLow
+    ) {}
+
+    /**
+     * Consumer of the closed bars applied by the engine. <code>time</code> is the bar's epoch millis for 1m and its
+     * bucket start (see {@link OHLCBuckets}) for the other timeframes.
+     */
+    public interface BarListener {
+        void onBar(String symbol, String timeframe, long time, long open, long high, long low, long close);
+
+        /**
+         * A live payload of <code>symbol</code> has been applied, up to the 1m bar at <code>epochMillis</code>. Not
+         * called during warm-up.
+         */
+        void onUpdated(String symbol, long epochMillis);
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Apply a payload of closed 1m bars and the aggregated bars it changed; only closed aggregated bars are used.
+     */
+    public void onBars(OHLCBarBuffer bars, List<OHLCCandle> candles) {
+        if (bars.isEmpty() || bars.getSymbol() == null) {
+            return;
+        }
+        SymbolIndicators indicators = indicators(bars.getSymbol(), bars.epochMillis(0));
+        List<AppliedBar> applied;
+        synchronized (indicators) {
+            for (int i = 0; i < bars.size(); i++) {
+                indicators.onMinuteBar(bars.epochMillis(i), bars.openScaled(i), bars.highScaled(i), bars.lowScaled(i), bars.closeScaled(i));
+            }
+            for (OHLCCandle candle : candles) {
+                if (candle.closed()) {
+                    indicators.onCandle(candle.timeframe(), candle.bucketStartSeconds(), candle.open(), candle.high(), candle.low(), candle.close());
+                }
+            }
+            applied = indicators.drainApplied();
+        }
+        // listeners store and broadcast, so they run after the lock is released and never hold up indicator reads
+        for (AppliedBar bar : applied) {
+            notifyBar(bars.getSymbol(), bar);
+        }
+        long lastMillis = bars.epochMillis(bars.size() - 1);
+        for (BarListener listener : barListeners) {
+            try {
+                listener.onUpdated(bars.getSymbol(), lastMillis);
+            } catch (Exception e) {
+                log.error("Bar listener {} failed for {}", listener.getClass().getSimpleName(), bars.getSymbol(), e);
+            }
+        }
+    }
+
+    /**
+     * Indicator values of every timeframe of a symbol, 1m first.
+     */
+    public List<IndicatorValues> getIndicators(String symbol) {
+        SymbolIndicators indicators = symbols.get(symbol);
+        if (indicators == null) {
+            return List.of();
+        }
+        synchronized (indicators) {
+            List<IndicatorValues> values = new ArrayList<>(indicators.series.size());
+            indicators.series.forEach((timeframe, series) -> {
+                if (series.bars() > 0) {
+                    values.add(indicators.values(timeframe, series));
+                }
+            });
+            return values;
+        }
+    }
+
+    /**
+     * Indicator values of one symbol/timeframe, empty until a bar of it was applied.
+     */
+    public Optional<IndicatorValues> getIndicators(String symbol, String timeframe) {
+        SymbolIndicators indicators = symbols.get(symbol);
+        if (indicators == null) {
+            return Optional.empty();
+        }
+        synchronized (indicators) {
+            IndicatorSeries series = indicators.series.get(timeframe);
+            return series == null || series.bars() == 0 ? Optional.empty() : Optional.of(indicators.values(timeframe, series));
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private SymbolIndicators indicators(String symbol, long firstBarMillis) {
+        SymbolIndicators indicators = symbols.computeIfAbsent(symbol, SymbolIndicators::new);
+        synchronized (indicators) {
+            if (!indicators.warmedUp) {
+                indicators.warmedUp = true;
+                warmUp(indicators, firstBarMillis);
+            }
+        }
+        return indicators;
+    }
+
+    // replays recent 1m history, building the higher timeframe bars here; the bucket still forming at the end is
+    // dropped, the candle engine closes it later
+    private void warmUp(SymbolIndicators indicators, long untilMillis) {
+        Instant to = Instant.ofEpochMilli(untilMillis);
+        Instant from = to.minus(Duration.ofHours(warmupHours));
+        long start = System.nanoTime();
+        long[] replayed = { 0 };
+        try {
+            boolean cached = barCacheService.forEachBar(
+                indicators.symbol,
+                from,
+                to,
+                (epochMillis, open, high, low, close) -> {
+                    indicators.replay(epochMillis, open, high, low, close);
+                    replayed[0]++;
+                }
+            );
+            if (!cached) {
+                ohlcJdbcRepository.streamBars(
+                    indicators.symbol,
+                    from,
+                    to,
+                    chunk -> {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            indicators.replay(chunk.epochMillis(i), chunk.openScaled(i), chunk.highScaled(i), chunk.lowScaled(i), chunk.closeScaled(i));
+                        }
+                        replayed[0] += chunk.size();
+                    }
+                );
+            }
+            log.info(
+                "Warmed up {} indicators from {} 1m bars ({}) in {} ms",
+                indicators.symbol,
+                replayed[0],
+                cached ? "bar cache" : "ohlc_data",
+                (System.nanoTime() - start) / 1_000_000
+            );
+        } catch (Exception e) {
+            log.error("Indicator warm-up failed for {}; indicators start from live bars", indicators.symbol, e);
+        }
+    }
+
+    private void notifyBar(String symbol, AppliedBar bar) {
+        for (BarListener listener : barListeners) {
+            try {
+                listener.onBar(symbol, bar.timeframe(), bar.time(), bar.open(), bar.high(), bar.low(), bar.close());
+            } catch (Exception e) {
+                log.error("Bar listener {} failed for {} {}", listener.getClass().getSimpleName(), symbol, bar.timeframe(), e);
+            }
+        }
+    }
+
+    // a bar applied under the symbol lock, handed to the listeners once the lock is released
+    private record AppliedBar(String timeframe, long time, long open, long high, long low, long close) {}
+
+    private static BigDecimal price(double scaled) {
+        return Double.isNaN(scaled) ? null : OHLCBarBuffer.toDecimal(Math.round(scaled));
+    }
+
+    private final class SymbolIndicators {
+
+        private final String symbol;
+        private final Map<String, IndicatorSeries> series = new LinkedHashMap<>();
+        private final String[] candleTimeframes;
+        private final long[] intervalSeconds;
+        private final IndicatorSeries[] candleSeries;
+        private boolean warmedUp;
+        private List<AppliedBar> applied = new ArrayList<>();
+
+        // warm-up bucket being built per timeframe
+        private final long[] replayBucket;
+        private final long[] replayOpen;
+        private final long[] replayHigh;
+        private final long[] replayLow;
+        private final long[] replayClose;
+
+        SymbolIndicators(String symbol) {
+            this.symbol = symbol;
+            this.candleTimeframes = Arrays.stream(timeframes).map(String::trim).toArray(String[]::new);
+            int n = candleTimeframes.length;
+            this.intervalSeconds = new long[n];
+            this.candleSeries = new IndicatorSeries[n];
+            series.put(BASE_TIMEFRAME, newSeries());
+            for (int t = 0; t < n; t++) {
+                intervalSeconds[t] = OHLCBuckets.timeframeSeconds(candleTimeframes[t]);
+                candleSeries[t] = newSeries();
+                series.put(candleTimeframes[t], candleSeries[t]);
+            }
+            this.replayBucket = new long[n];
+            Arrays.fill(replayBucket, Long.MIN_VALUE);
+            this.replayOpen = new long[n];
+            this.replayHigh = new long[n];
+            this.replayLow = new long[n];
+            this.replayClose = new long[n];
+        }
+
+        void onMinuteBar(long epochMillis, long open, long high, long low, long close) {
+            if (series.get(BASE_TIMEFRAME).onBar(epochMillis, SessionCalendar.sessionId(epochMillis), open, high, low, close)) {
+                collect(BASE_TIMEFRAME, epochMillis, open, high, low, close);
+            }
+        }
+
+        void onCandle(String timeframe, long bucketStartSeconds, long open, long high, long low, long close) {
+            for (int t = 0; t < candleTimeframes.length; t++) {
+                if (candleTimeframes[t].equals(timeframe)) {
+                    applyCandle(t, bucketStartSeconds, open, high, low, close);
+                    return;
+                }
+            }
+        }
+
+        void replay(long epochMillis, long open, long high, long low, long close) {
+            onMinuteBar(epochMillis, open, high, low, close);
+            for (int t = 0; t < candleTimeframes.length; t++) {
+                long bucket = OHLCBuckets.bucketStartSeconds(epochMillis, intervalSeconds[t]);
+                if (bucket != replayBucket[t]) {
+                    if (replayBucket[t] != Long.MIN_VALUE) {
+                        applyCandle(t, replayBucket[t], replayOpen[t], replayHigh[t], replayLow[t], replayClose[t]);
+                    }
+                    replayBucket[t] = bucket;
+                    replayOpen[t] = open;
+                    replayHigh[t] = high;
+                    replayLow[t] = low;
+                } else {
+                    replayHigh[t] = Math.max(replayHigh[t], high);
+                    replayLow[t] = Math.min(replayLow[t], low);
+                }
+                replayClose[t] = close;
+            }
+        }
+
+        // a bucket never spans the 17:00 close, so its last second identifies its session
+        private void applyCandle(int t, long bucketStartSeconds, long open, long high, long low, long close) {
+            int sessionId = SessionCalendar.sessionIdOfLocal(bucketStartSeconds + intervalSeconds[t] - 1);
+            if (candleSeries[t].onBar(bucketStartSeconds, sessionId, open, high, low, close)) {
+                collect(candleTimeframes[t], bucketStartSeconds, open, high, low, close);
+            }
+        }
+
+        private void collect(String timeframe, long time, long open, long high, long low, long close) {
+            if (!barListeners.isEmpty()) {
+                applied.add(new AppliedBar(timeframe, time, open, high, low, close));
+            }
+        }
+
+        // bars applied since the last drain, warm-up included
+        List<AppliedBar> drainApplied() {
+            List<AppliedBar> drained = applied;
+            applied = new ArrayList<>();
+            return drained;
+        }
+
+        IndicatorValues values(String timeframe, IndicatorSeries s) {
+            int[] periods = s.emaPeriods();
+            Map<Integer, BigDecimal> ema = new LinkedHashMap<>();
+            for (int k = 0; k < periods.length; k++) {
+                ema.put(periods[k], price(s.ema(k)));
+            }
+            double rsi = s.rsi();
+            return new IndicatorValues(
+                symbol,
+                timeframe,
+                BASE_TIMEFRAME.equals(timeframe) ? Instant.ofEpochMilli(s.lastTime()) : Instant.ofEpochSecond(s.lastTime()),
+                s.bars(),
+                ema,
+                Double.isNaN(rsi) ? null : Math.round(rsi * 100) / 100.0,
+                price(s.atr()),
+                price(s.sessionAveragePrice()),
+                OHLCBarBuffer.toDecimal(s.rollingHigh()),
+                OHLCBarBuffer.toDecimal(s.rollingLow())
+            );
+        }
+
+        private IndicatorSeries newSeries() {
+            return new IndicatorSeries(emaPeriods, rsiPeriod, atrPeriod, rangePeriod);
+        }
+    }
+}
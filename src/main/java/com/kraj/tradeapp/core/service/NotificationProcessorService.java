@@ -26,7 +26,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -39,7 +38,7 @@ public class NotificationProcessorService implements ApplicationListener<Applica
     private final ReentrantLock EVENT_PROCESSOR_LOCK = new ReentrantLock();
 
     // Core dependencies
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BroadcastService broadcastService;
     private final TradeSignalSnapshotProcessor tradeSignalSnapshotProcessor;
     private final NotificationEventRepository notificationEventRepository;
     private final TradeSignalRepository tradeSignalRepository;
@@ -53,6 +52,17 @@ public class NotificationProcessorService implements ApplicationListener<Applica
     private final Queue<String> failedEventsQueue = new LinkedList<>();
     private final ConcurrentHashMap<Long, List<String>> qKronosBuckets = new ConcurrentHashMap<>();
 
+    // event id -> DTO of its current version (checked against lastUpdated), least recently used evicted first
+    private static final int DTO_CACHE_SIZE = 10_000;
+    private final Map<Long, CachedDto> dtoCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedDto> eldest) {
+                return size() > DTO_CACHE_SIZE;
+            }
+        }
+    );
+
     // ========================================================================
     // PUBLIC API METHODS
     // ========================================================================
@@ -103,7 +113,7 @@ public class NotificationProcessorService implements ApplicationListener<Applica
 
         // Send WebSocket notification
         NotificationEventDto eventDto = getDto(notificationEvent);
-        messagingTemplate.convertAndSend("/topic/events", List.of(eventDto));
+        broadcastService.broadcast(List.of(eventDto), BroadcastService.eventsTopic(eventDto.getSymbol(), eventDto.getInterval()));
     }
 
     /**
@@ -247,7 +257,7 @@ public class NotificationProcessorService implements ApplicationListener<Applica
 
         // Send WebSocket notification
         NotificationEventDto eventDto = getDto(notificationEvent);
-        messagingTemplate.convertAndSend("/topic/events", List.of(eventDto));
+        broadcastService.broadcast(List.of(eventDto), BroadcastService.eventsTopic(eventDto.getSymbol(), eventDto.getInterval()));
 
         // Handle strategy processing if needed
         handleStrategyProcessing(notificationEvent);
@@ -454,6 +464,20 @@ public class NotificationProcessorService implements ApplicationListener<Applica
         return notificationEventRepository.getBetweenDatetime(symbol, from, to).stream().map(this::getDto).toList();
     }
 
+    /**
+     * Events of a symbol with an id above the given watermark, oldest first.
+     */
+    public List<NotificationEventDto> getNotificationEventsAfter(String symbol, long lastId) {
+        return notificationEventRepository.findBySymbolAfterId(symbol, lastId).stream().map(this::getDto).toList();
+    }
+
+    /**
+     * Highest event id of a symbol, or 0 when it has none.
+     */
+    public long getLatestNotificationEventId(String symbol) {
+        return notificationEventRepository.findMaxIdBySymbol(symbol);
+    }
+
     public List<NotificationEventDto> getNotificationEventsForInterval(
         String symbol,
         ZonedDateTime from,
@@ -478,14 +502,28 @@ public class NotificationProcessorService implements ApplicationListener<Applica
         );
     }
 
+    /**
+     * DTO for the current version of an event. Built once per (id, lastUpdated) and shared afterwards,
+     * together with its serialized JSON.
+     */
     private NotificationEventDto getDto(NotificationEvent event) {
-        int minsSinceEventTime = (int) event.getDatetime().until(ZonedDateTime.now(), ChronoUnit.MINUTES);
-        int hoursSinceEventTime = minsSinceEventTime / 60;
-        String sinceCreatedStr = hoursSinceEventTime > 0 ? hoursSinceEventTime + "hr(s) ago" : minsSinceEventTime + "min(s) ago";
+        if (event.getId() == null) {
+            return buildDto(event);
+        }
+        CachedDto cached = dtoCache.get(event.getId());
+        if (cached != null && cached.lastUpdated().isEqual(event.getLastUpdated())) {
+            return cached.dto();
+        }
+        NotificationEventDto dto = buildDto(event);
+        dtoCache.put(event.getId(), new CachedDto(event.getLastUpdated(), dto));
+        return dto;
+    }
 
+    private NotificationEventDto buildDto(NotificationEvent event) {
         return NotificationEventDto.builder()
             .id(event.getId())
             .datetime(event.getDatetime().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+            .datetimeEpochMs(event.getDatetime().toInstant().toEpochMilli())
             .symbol(event.getSymbol())
             .source(event.getSource())
             .indicator(event.getIndicator())
@@ -506,10 +544,11 @@ public class NotificationProcessorService implements ApplicationListener<Applica
             .strategyProcessStatus(event.getStrategyProcessStatus())
             .strategyProcessMsg(event.getStrategyProcessMsg())
             .strategyProcessedAt(event.getStrategyProcessedAt() == null ? null : event.getStrategyProcessedAt().toString())
-            .sinceCreatedStr(sinceCreatedStr)
             .build();
     }
 
+    private record CachedDto(ZonedDateTime lastUpdated, NotificationEventDto dto) {}
+
     public static ChronoUnit determineTimeUnit(long numericValue) {
         if (numericValue > 1_000_000_000_000L) {
             return ChronoUnit.MILLIS;
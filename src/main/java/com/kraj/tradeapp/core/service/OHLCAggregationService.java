@@ -3,57 +3,67 @@ package com.kraj.tradeapp.core.service;
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
 
 import com.kraj.tradeapp.core.model.persistance.mongodb.OHLCData;
+import com.kraj.tradeapp.core.repository.mongodb.OhlcTimeSeriesRepository;
+import jakarta.annotation.PostConstruct;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
+import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.*;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation.WhenDocumentsDontMatch;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation.WhenDocumentsMatch;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+/**
+ * Mongo aggregation of 1m bars in the <code>ohlc_bars</code> time-series collection into higher timeframes.
+ * <p>
+ * Aggregated bars live in the persistent <code>ohlc_aggregated</code> collection, keyed by
+ * <code>{symbol, timeframe, bucket}</code> as the document id. Each run recomputes only the buckets from the
+ * requested start onwards and <code>$merge</code>s them in place, so readers never see the collection empty and
+ * its indexes are built once.
+ */
+@Slf4j
 @Service
 public class OHLCAggregationService {
 
+    static final String AGGREGATED_COLLECTION = "ohlc_aggregated";
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
-    public static void main(String[] args) {
-        System.out.println(Instant.now().toString());
-        System.out.println(Instant.now().minus(3 * 60, ChronoUnit.MINUTES));
+    @PostConstruct
+    public void ensureIndexes() {
+        // documents left by the old drop-and-reinsert have a bar epoch id and no timeframe
+        mongoTemplate.remove(Query.query(Criteria.where("timeframe").exists(false)), AGGREGATED_COLLECTION);
+        mongoTemplate
+            .indexOps(AGGREGATED_COLLECTION)
+            .ensureIndex(
+                new Index()
+                    .on("symbol", Sort.Direction.ASC)
+                    .on("timeframe", Sort.Direction.ASC)
+                    .on("timestamp", Sort.Direction.ASC)
+                    .named("symbol_timeframe_timestamp_idx")
+            );
     }
 
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
     public List<OHLCData> aggregateOHLCWithLookback(String symbol, int intervalMinutes) {
         int lookbackMultiplier = 100; // Look back 3 intervals to catch late data
         Instant lookbackTime = Instant.now().minus(lookbackMultiplier * intervalMinutes, ChronoUnit.MINUTES);
 
         long intervalMillis = intervalMinutes * 60 * 1000;
 
-        System.out.println("🔍 Lookback Time in Java: " + Date.from(lookbackTime));
-
-        List<OHLCData> debugResults = mongoTemplate.find(
-            Query.query(Criteria.where("symbol").is(symbol).and("timestamp").gte(Date.from(lookbackTime))),
-            OHLCData.class,
-            "ohlc_data"
-        );
-
-        System.out.println("✅ Matching Documents Count: " + debugResults.size());
-
-        Aggregation debugAggregation = newAggregation(project("symbol", "open", "high", "low", "close", "timestamp"));
-        AggregationResults<OHLCData> debugResults1 = mongoTemplate.aggregate(debugAggregation, "ohlc_data", OHLCData.class);
-        System.out.println("✅ Documents after Projection: " + debugResults1.getMappedResults().size());
-
-        Aggregation aggregation1 = newAggregation(
-            match(Criteria.where("symbol").is(symbol).and("timestamp").gte(Date.from(lookbackTime))),
-            project("symbol", "open", "high", "low", "close", "timestamp")
-        );
-
-        AggregationResults<OHLCData> results1 = mongoTemplate.aggregate(aggregation1, "ohlc_data", OHLCData.class);
-        System.out.println("✅ Aggregated Documents: " + results1.getMappedResults().size());
-
         Aggregation aggregation = newAggregation(
             match(Criteria.where("symbol").is(symbol).and("timestamp").gte(Date.from(lookbackTime))), // Lookback window
             project("symbol", "open", "high", "low", "close", "timestamp")
@@ -107,31 +117,68 @@ public class OHLCAggregationService {
                 .as("timestamp")
         );
 
-        // Run aggregation on "ohlc_data"
-        AggregationResults<OHLCData> results = mongoTemplate.aggregate(aggregation, "ohlc_data", OHLCData.class);
-
-        // Overwrite the "ohlc_aggregated" collection with new results
-        //        mongoTemplate.dropCollection("ohlc_aggregated"); // Clear old data
-        //        mongoTemplate.insert(results.getMappedResults(), "ohlc_aggregated"); // Insert new data
-
+        AggregationResults<OHLCData> results = mongoTemplate.aggregate(aggregation, OhlcTimeSeriesRepository.COLLECTION, OHLCData.class);
         return results.getMappedResults();
     }
 
+    /**
+     * Recompute the last 100 buckets of <code>symbol</code> at <code>intervalMinutes</code>, merge them into
+     * <code>ohlc_aggregated</code> and return them in time order.
+     */
     public List<OHLCData> aggregateOHLCWithLookbackV2(String symbol, int intervalMinutes) {
-        int lookbackMultiplier = 100; // Look back 3 intervals to catch late data
+        int lookbackMultiplier = 100; // Look back 100 intervals to catch late data
         long lookbackMillis = Instant.now().minus(lookbackMultiplier * intervalMinutes, ChronoUnit.MINUTES).toEpochMilli();
+        long firstBucket = mergeAggregated(symbol, intervalMinutes, lookbackMillis);
+        return findAggregated(symbol, intervalMinutes, firstBucket);
+    }
 
-        long intervalMillis = intervalMinutes * 60 * 1000;
-
+    /**
+     * Recompute every bucket of <code>symbol</code> at <code>intervalMinutes</code> from the one containing
+     * <code>fromMillis</code> onwards and <code>$merge</code> them into <code>ohlc_aggregated</code>; older buckets are
+     * left untouched. Returns the epoch millis of the first recomputed bucket.
+     */
+    public long mergeAggregated(String symbol, int intervalMinutes, long fromMillis) {
+        long intervalMillis = intervalMinutes * 60_000L;
+        // start at a bucket boundary so the first bucket is rebuilt from all of its bars, not just the tail
+        long firstBucket = fromMillis - Math.floorMod(fromMillis, intervalMillis);
+        String timeframe = intervalMinutes + "m";
+
+        long start = System.nanoTime();
         Aggregation aggregation = newAggregation(
-            match(Criteria.where("symbol").is(symbol).and("_id").gte(lookbackMillis)), // ✅ Use `_id` instead of `timestamp`
-            project("symbol", "open", "high", "low", "close", "_id")
-                .and(context -> new Document("$subtract", List.of("$_id", new Document("$mod", List.of("$_id", intervalMillis)))))
-                .as("aggregatedId"), // ✅ Bucket `_id` into intervals
-            group("symbol", "aggregatedId").first("open").as("open").max("high").as("high").min("low").as("low").last("close").as("close"),
+            match(Criteria.where("symbol").is(symbol).and("timestamp").gte(new Date(firstBucket))),
+            sort(Sort.Direction.ASC, "timestamp"),
+            project("symbol", "open", "high", "low", "close")
+                .and(
+                    context ->
+                        new Document(
+                            "$subtract",
+                            List.of(
+                                new Document("$toLong", "$timestamp"),
+                                new Document("$mod", List.of(new Document("$toLong", "$timestamp"), intervalMillis))
+                            )
+                        )
+                )
+                .as("bucket"),
+            group("bucket")
+                .first("symbol")
+                .as("symbol")
+                .first("open")
+                .as("open")
+                .max("high")
+                .as("high")
+                .min("low")
+                .as("low")
+                .last("close")
+                .as("close"),
             project()
+                .and(context -> new Document("symbol", "$symbol").append("timeframe", timeframe).append("bucket", "$_id"))
+                .as("_id")
                 .and("symbol")
                 .as("symbol")
+                .and(context -> new Document("$literal", timeframe))
+                .as("timeframe")
+                .and(context -> new Document("$toDate", "$_id"))
+                .as("timestamp")
                 .and("open")
                 .as("open")
                 .and("high")
@@ -139,18 +186,42 @@ public class OHLCAggregationService {
                 .and("low")
                 .as("low")
                 .and("close")
-                .as("close")
-                .and(context -> new Document("$toDate", "$aggregatedId"))
-                .as("timestamp") // ✅ Convert `_id` back to BSON Date
+                .as("close"),
+            merge()
+                .intoCollection(AGGREGATED_COLLECTION)
+                .whenMatched(WhenDocumentsMatch.replaceDocument())
+                .whenNotMatched(WhenDocumentsDontMatch.insertNewDocument())
+                .build()
         );
+        mongoTemplate.aggregate(aggregation, OhlcTimeSeriesRepository.COLLECTION, Document.class);
+        log.debug(
+            "Merged {} {} buckets from {} into {} in {} ms",
+            symbol,
+            timeframe,
+            Instant.ofEpochMilli(firstBucket),
+            AGGREGATED_COLLECTION,
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return firstBucket;
+    }
 
-        // Run aggregation on "ohlc_data"
-        AggregationResults<OHLCData> results = mongoTemplate.aggregate(aggregation, "ohlc_data", OHLCData.class);
-
-        // Overwrite the "ohlc_aggregated" collection with new results
-        mongoTemplate.dropCollection("ohlc_aggregated"); // Clear old data
-        mongoTemplate.insert(results.getMappedResults(), "ohlc_aggregated"); // Insert new data
-
-        return results.getMappedResults();
+    /**
+     * Aggregated bars of <code>symbol</code> at <code>intervalMinutes</code> starting at or after
+     * <code>fromMillis</code>, in time order. The OHLCData id is the bucket epoch millis.
+     */
+    public List<OHLCData> findAggregated(String symbol, int intervalMinutes, long fromMillis) {
+        Aggregation aggregation = newAggregation(
+            match(
+                Criteria.where("symbol")
+                    .is(symbol)
+                    .and("timeframe")
+                    .is(intervalMinutes + "m")
+                    .and("timestamp")
+                    .gte(Date.from(Instant.ofEpochMilli(fromMillis)))
+            ),
+            sort(Sort.Direction.ASC, "timestamp"),
+            project("symbol", "timestamp", "open", "high", "low", "close").and("_id.bucket").as("_id")
+        );
+        return mongoTemplate.aggregate(aggregation, AGGREGATED_COLLECTION, OHLCData.class).getMappedResults();
     }
 }
@@ -0,0 +1,124 @@
+package com.kraj.tradeapp.core.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCBuckets;
+import com.kraj.tradeapp.core.model.OHLCDownsampler;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Chart reads of OHLC bars over arbitrary ranges, reduced server-side to a bounded number of points.
+ * <p>
+ * 1m bars come from the local bar cache when the symbol is loaded, otherwise from a <code>ohlc_data</code> cursor, and
+ * are folded into the requested timeframe as they are read, without being collected first. In {@link Mode#OHLC} the
+ * timeframe is widened to a multiple that fits the range into <code>maxPoints</code> bars; in {@link Mode#LTTB} the
+ * timeframe is kept and Largest-Triangle-Three-Buckets picks <code>maxPoints</code> representative bars by close.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OHLCChartService {
+
+    public static final int MAX_POINTS_LIMIT = 10_000;
+
+    private static final int MAX_EXPECTED_BARS = 64 * 1024;
+
+    private final BarCacheService barCacheService;
+    private final OhlcJdbcRepository ohlcJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Mode {
+        OHLC,
+        LTTB,
+    }
+
+    /**
+     * Downsampled bars and how they were produced.
+     */
+    public record ChartBars(String symbol, String timeframe, long intervalSeconds, Mode mode, String source, OHLCBarBuffer bars) {}
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Bars of <code>symbol</code> with <code>from &lt;= time &lt; to</code>, at most <code>maxPoints</code> of them.
+     */
+    public ChartBars query(String symbol, String timeframe, Instant from, Instant to, int maxPoints, Mode mode) {
+        long baseSeconds = OHLCBuckets.timeframeSeconds(timeframe);
+        if (baseSeconds < 60 || baseSeconds % 60 != 0) {
+            throw new IllegalArgumentException("Chart timeframe must be a whole number of minutes: " + timeframe);
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Chart range is empty: " + from + " - " + to);
+        }
+        int points = Math.max(3, Math.min(maxPoints, MAX_POINTS_LIMIT));
+        long rangeSeconds = to.getEpochSecond() - from.getEpochSecond();
+        long intervalSeconds = mode == Mode.OHLC ? OHLCDownsampler.intervalFor(rangeSeconds, baseSeconds, points) : baseSeconds;
+
+        long start = System.nanoTime();
+        OHLCDownsampler.Rebucketer rebucketer = new OHLCDownsampler.Rebucketer(
+            symbol,
+            intervalSeconds,
+            (int) Math.min(rangeSeconds / intervalSeconds + 1, MAX_EXPECTED_BARS)
+        );
+        String source = "cache";
+        if (!barCacheService.forEachBar(symbol, from, to, rebucketer)) {
+            source = "postgres";
+            ohlcJdbcRepository.forEachBar(symbol, from, to, rebucketer);
+        }
+        OHLCBarBuffer bars = rebucketer.finish();
+        if (mode == Mode.LTTB) {
+            bars = OHLCDownsampler.lttb(bars, points);
+        }
+        log.debug(
+            "Chart {} {} {} - {}: {} bars at {}s from {} in {} ms",
+            symbol,
+            mode,
+            from,
+            to,
+            bars.size(),
+            intervalSeconds,
+            source,
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return new ChartBars(symbol, timeframe, intervalSeconds, mode, source, bars);
+    }
+
+    /**
+     * Write the bars as <code>{"symbol":..,"timeframe":..,"intervalSeconds":..,"mode":..,"source":..,
+     * "bars":[[epochMillis,open,high,low,close],...]}</code>.
+     */
+    public void writeJson(ChartBars chart, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeStringField("symbol", chart.symbol());
+            json.writeStringField("timeframe", chart.timeframe());
+            json.writeNumberField("intervalSeconds", chart.intervalSeconds());
+            json.writeStringField("mode", chart.mode().name());
+            json.writeStringField("source", chart.source());
+            json.writeArrayFieldStart("bars");
+            OHLCBarBuffer bars = chart.bars();
+            for (int i = 0; i < bars.size(); i++) {
+                json.writeStartArray();
+                json.writeNumber(bars.epochMillis(i));
+                json.writeNumber(OHLCBarBuffer.toDouble(bars.openScaled(i)));
+                json.writeNumber(OHLCBarBuffer.toDouble(bars.highScaled(i)));
+                json.writeNumber(OHLCBarBuffer.toDouble(bars.lowScaled(i)));
+                json.writeNumber(OHLCBarBuffer.toDouble(bars.closeScaled(i)));
+                json.writeEndArray();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+}
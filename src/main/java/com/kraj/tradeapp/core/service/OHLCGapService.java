@@ -0,0 +1,258 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCGap;
+import com.kraj.tradeapp.core.model.SessionCalendar;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Detection and backfill of missing 1m bars in <code>ohlc_data</code>.
+ * <p>
+ * The scanner walks each symbol's bars in time order and keeps only the missing minutes that fall inside a
+ * futures session (see {@link SessionCalendar}), so the daily halt and weekends are not reported. The ends of the
+ * scanned range count as bars, so an outage still running at the end of the scan, or already running at its start, is
+ * reported as well. Open gaps are recorded per symbol until a later scan or backfill finds them filled.
+ * <p>
+ * The gap registry is kept in memory only. After a restart it holds what the first scheduled scan finds over the
+ * last <code>trading.ohlc.gaps.scan-lookback-hours</code>; older gaps have to be scanned for again.
+ * <p>
+ * A backfill reads the gap ranges from the configured {@link BarFeed}, upserts the bars found through the bulk
+ * <code>COPY</code> loader (re-running it changes nothing), mirrors them into the bar cache and Mongo, and then
+ * re-aggregates only the buckets overlapping each filled gap.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OHLCGapService {
+
+    private final OhlcJdbcRepository ohlcJdbcRepository;
+    private final BarFeed barFeed;
+    private final BarCacheService barCacheService;
+    private final OHLCService ohlcService;
+
+    @Value("${trading.candles.timeframes:5m,15m,30m,1h,4h}")
+    private String[] timeframes;
+
+    @Value("${trading.ohlc.gaps.scan-lookback-hours:48}")
+    private long scanLookbackHours;
+
+    @Value("${trading.ohlc.gaps.auto-backfill:false}")
+    private boolean autoBackfill;
+
+    // symbol -> open gaps in time order
+    private final Map<String, List<OHLCGap>> gaps = new ConcurrentHashMap<>();
+
+    /**
+     * Bars found in the feed for the recorded gaps, bars inserted or changed in <code>ohlc_data</code>, and the
+     * gaps still open afterwards.
+     */
+    public record BackfillResult(String symbol, int fetched, int upserted, int aggregated, List<OHLCGap> remaining) {}
+
+    // ========================================================================
+    // SCHEDULED SCAN
+    // ========================================================================
+
+    @Scheduled(
+        fixedDelayString = "${trading.ohlc.gaps.scan-interval-ms:900000}",
+        initialDelayString = "${trading.ohlc.gaps.scan-interval-ms:900000}"
+    )
+    public void scanRecent() {
+        // the bar of the minute before this one may still be on its way
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(Duration.ofMinutes(1));
+        Instant from = now.minus(Duration.ofHours(scanLookbackHours));
+        Map<String, Instant> latestBars;
+        try {
+            latestBars = ohlcJdbcRepository.findLatestBars();
+        } catch (Exception e) {
+            log.error("OHLC gap scan could not read latest bars", e);
+            return;
+        }
+        for (String symbol : latestBars.keySet()) {
+            try {
+                List<OHLCGap> found = scan(symbol, from, now);
+                if (!found.isEmpty() && autoBackfill) {
+                    backfill(symbol);
+                }
+            } catch (Exception e) {
+                log.error("OHLC gap scan failed for {}", symbol, e);
+            }
+        }
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Find the in-session minutes of <code>symbol</code> with <code>from &lt;= time &lt; to</code> that have no bar
+     * and record them as gaps, replacing what was recorded for that range. The range is narrowed to whole minutes.
+     */
+    public List<OHLCGap> scan(String symbol, Instant from, Instant to) {
+        Instant start = from.truncatedTo(ChronoUnit.MINUTES);
+        if (start.isBefore(from)) {
+            start = start.plus(Duration.ofMinutes(1));
+        }
+        Instant end = to.truncatedTo(ChronoUnit.MINUTES);
+        if (!start.isBefore(end)) {
+            return List.of();
+        }
+        List<OHLCGap> found = new ArrayList<>();
+        for (OHLCGap hole : ohlcJdbcRepository.findBarHoles(symbol, start, end)) {
+            splitBySession(hole, found);
+        }
+        record(symbol, start, end, found);
+        if (!found.isEmpty()) {
+            log.warn(
+                "{} has {} gap(s), {} missing minutes between {} and {}",
+                symbol,
+                found.size(),
+                found.stream().mapToLong(OHLCGap::missingMinutes).sum(),
+                start,
+                end
+            );
+        }
+        return found;
+    }
+
+    /**
+     * Fill the recorded gaps of <code>symbol</code> from the bar feed and re-aggregate the affected buckets.
+     */
+    public BackfillResult backfill(String symbol) throws IOException {
+        List<OHLCGap> open = gaps.getOrDefault(symbol, List.of());
+        if (open.isEmpty()) {
+            return new BackfillResult(symbol, 0, 0, 0, List.of());
+        }
+        Instant from = open.get(0).from();
+        Instant to = open.get(open.size() - 1).to();
+
+        long[] starts = new long[open.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = open.get(i).from().toEpochMilli();
+        }
+        OHLCBarBuffer filled = new OHLCBarBuffer();
+        filled.setSymbol(symbol);
+        barFeed.fetch(
+            symbol,
+            from,
+            to,
+            chunk -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (inGap(open, starts, chunk.epochMillis(i))) {
+                        filled.add(chunk.epochMillis(i), chunk.openScaled(i), chunk.highScaled(i), chunk.lowScaled(i), chunk.closeScaled(i));
+                    }
+                }
+            }
+        );
+        if (filled.isEmpty()) {
+            log.warn("Backfill feed has no bars for the {} gap(s) of {}", open.size(), symbol);
+            return new BackfillResult(symbol, 0, 0, 0, open);
+        }
+
+        int upserted = loadBars(filled).upserted();
+        int aggregated = 0;
+        for (OHLCGap gap : open) {
+            aggregated += ohlcJdbcRepository.rollupAggregatedRange(symbol, timeframeList(), gap.from(), gap.to());
+        }
+        List<OHLCGap> remaining = scan(symbol, from, to);
+        log.info(
+            "Backfilled {} {} bars ({} inserted/changed), {} aggregated bars rebuilt, {} gap(s) left",
+            filled.size(),
+            symbol,
+            upserted,
+            aggregated,
+            remaining.size()
+        );
+        return new BackfillResult(symbol, filled.size(), upserted, aggregated, remaining);
+    }
+
+    /**
+     * Store historical bars in <code>ohlc_data</code> with the idempotent bulk upsert and mirror them into the bar
+     * cache and Mongo. Aggregated bars are not touched.
+     */
+    public OhlcJdbcRepository.LoadResult loadBars(OHLCBarBuffer bars) {
+        OhlcJdbcRepository.LoadResult result = ohlcJdbcRepository.upsertBars(bars);
+        barCacheService.append(bars);
+        try {
+            ohlcService.saveBars(bars);
+        } catch (Exception e) {
+            log.error("Backfilled {} bars stored in Postgres but not in Mongo", bars.getSymbol(), e);
+        }
+        return result;
+    }
+
+    /**
+     * Open gaps per symbol, oldest first, as recorded since this instance started.
+     */
+    public Map<String, List<OHLCGap>> getGaps() {
+        return new TreeMap<>(gaps);
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    // keep the runs of missing minutes during which the market was trading
+    private static void splitBySession(OHLCGap hole, List<OHLCGap> out) {
+        long runStart = -1;
+        long end = hole.to().toEpochMilli();
+        for (long minute = hole.from().toEpochMilli(); minute < end; minute += 60_000) {
+            boolean open = SessionCalendar.isSessionOpen(minute);
+            if (open && runStart < 0) {
+                runStart = minute;
+            } else if (!open && runStart >= 0) {
+                out.add(new OHLCGap(hole.symbol(), Instant.ofEpochMilli(runStart), Instant.ofEpochMilli(minute)));
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            out.add(new OHLCGap(hole.symbol(), Instant.ofEpochMilli(runStart), hole.to()));
+        }
+    }
+
+    private void record(String symbol, Instant from, Instant to, List<OHLCGap> found) {
+        gaps.compute(symbol, (s, existing) -> {
+            List<OHLCGap> merged = new ArrayList<>();
+            if (existing != null) {
+                for (OHLCGap gap : existing) {
+                    if (!gap.to().isAfter(from) || !gap.from().isBefore(to)) {
+                        merged.add(gap);
+                    }
+                }
+            }
+            merged.addAll(found);
+            merged.sort((a, b) -> a.from().compareTo(b.from()));
+            return merged.isEmpty() ? null : List.copyOf(merged);
+        });
+    }
+
+    private static boolean inGap(List<OHLCGap> open, long[] starts, long epochMillis) {
+        int i = Arrays.binarySearch(starts, epochMillis);
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return i >= 0 && epochMillis < open.get(i).to().toEpochMilli();
+    }
+
+    private List<String> timeframeList() {
+        List<String> list = new ArrayList<>(timeframes.length);
+        for (String timeframe : timeframes) {
+            list.add(timeframe.trim());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,288 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.SessionCalendar;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bulk load of historical 1m bars for a symbol and date range from the configured {@link BarFeed}.
+ * <p>
+ * The range is split into chunks of New York trading dates that run in parallel on a fixed pool; the feed paces
+ * its own requests (see {@link PolygonBarFeed}). Each page the feed returns goes straight into
+ * <code>ohlc_data</code> through the idempotent <code>COPY</code> upsert and into Mongo, and once a chunk is
+ * stored its aggregated buckets are rebuilt and the chunk is checkpointed in <code>ohlc_backfill_chunks</code>.
+ * Submitting the same range again skips the checkpointed chunks, so an interrupted job resumes where it stopped.
+ * The bar cache of the symbol is rebuilt once at the end rather than per page.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OHLCHistoricalBackfillService {
+
+    private static final String CHECKPOINT_COLLECTION = "ohlc_backfill_chunks";
+
+    private final BarFeed barFeed;
+    private final OhlcJdbcRepository ohlcJdbcRepository;
+    private final OHLCService ohlcService;
+    private final BarCacheService barCacheService;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${trading.candles.timeframes:5m,15m,30m,1h,4h}")
+    private String[] timeframes;
+
+    @Value("${trading.ohlc.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${trading.ohlc.backfill.chunk-days:5}")
+    private int chunkDays;
+
+    private ExecutorService executor;
+
+    // job id -> progress, most recent jobs included until restart
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Progress of a backfill job. <code>skipped</code> chunks were already checkpointed by an earlier run.
+     */
+    public record JobStatus(
+        String id,
+        String symbol,
+        LocalDate from,
+        LocalDate to,
+        String state,
+        int chunks,
+        int completed,
+        int skipped,
+        int failed,
+        long bars,
+        long upserted,
+        Instant startedAt,
+        Instant finishedAt
+    ) {}
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(
+            parallelism,
+            task -> {
+                Thread thread = new Thread(task, "ohlc-backfill-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    @PreDestroy
+    public void stop() {
+        // unfinished chunks are not checkpointed and are fetched again when the job is resubmitted
+        executor.shutdownNow();
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Start loading <code>symbol</code> for the New York trading dates <code>from</code> to <code>to</code>
+     * inclusive. Returns at once with the job's initial status; a job already running for the same range is
+     * returned as-is.
+     */
+    public JobStatus submit(String symbol, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        String id = symbol + ":" + from + ":" + to;
+        Job running = jobs.get(id);
+        if (running != null && running.isRunning()) {
+            return running.status();
+        }
+
+        Set<String> done = checkpointedChunks(symbol);
+        List<LocalDate[]> pending = new ArrayList<>();
+        int chunks = 0;
+        for (LocalDate first = from; !first.isAfter(to); first = first.plusDays(chunkDays)) {
+            LocalDate last = first.plusDays(chunkDays - 1L);
+            LocalDate[] chunk = { first, last.isAfter(to) ? to : last };
+            chunks++;
+            if (!done.contains(chunkId(symbol, chunk[0], chunk[1]))) {
+                pending.add(chunk);
+            }
+        }
+        Job job = new Job(id, symbol, from, to, chunks, chunks - pending.size());
+        // a concurrent submit of the same range may have started it meanwhile; only the job installed here runs
+        Job current = jobs.compute(id, (key, existing) -> existing != null && existing.isRunning() ? existing : job);
+        if (current != job) {
+            return current.status();
+        }
+        log.info("Backfill {} started: {} chunk(s) of {} day(s), {} already done", id, chunks, chunkDays, job.skipped);
+        if (pending.isEmpty()) {
+            finish(job);
+        }
+        for (LocalDate[] chunk : pending) {
+            executor.execute(() -> runChunk(job, chunk[0], chunk[1]));
+        }
+        return job.status();
+    }
+
+    /**
+     * Status of the jobs submitted since startup.
+     */
+    public Map<String, JobStatus> getJobs() {
+        Map<String, JobStatus> statuses = new LinkedHashMap<>();
+        jobs.values().stream().sorted((a, b) -> a.startedAt.compareTo(b.startedAt)).forEach(job -> statuses.put(job.id, job.status()));
+        return statuses;
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private void runChunk(Job job, LocalDate first, LocalDate last) {
+        Instant from = first.atStartOfDay(SessionCalendar.NEW_YORK).toInstant();
+        Instant to = last.plusDays(1).atStartOfDay(SessionCalendar.NEW_YORK).toInstant();
+        long start = System.nanoTime();
+        try {
+            int fetched = barFeed.fetch(
+                job.symbol,
+                from,
+                to,
+                page -> {
+                    job.upserted.addAndGet(ohlcJdbcRepository.upsertBars(page).upserted());
+                    ohlcService.saveBars(page);
+                }
+            );
+            job.bars.addAndGet(fetched);
+            if (fetched > 0) {
+                ohlcJdbcRepository.rollupAggregatedRange(job.symbol, timeframeList(), from, to);
+            }
+            mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(chunkId(job.symbol, first, last))),
+                Update.update("symbol", job.symbol).set("bars", fetched).set("completedAt", new Date()),
+                CHECKPOINT_COLLECTION
+            );
+            job.completed.incrementAndGet();
+            log.debug("Backfill {} chunk {} - {}: {} bars in {} ms", job.id, first, last, fetched, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            job.failed.incrementAndGet();
+            log.error("Backfill {} chunk {} - {} failed; resubmit the job to retry it", job.id, first, last, e);
+        }
+        if (job.remaining.decrementAndGet() == 0) {
+            finish(job);
+        }
+    }
+
+    private void finish(Job job) {
+        job.finishedAt = Instant.now();
+        if (job.bars.get() > 0 && barCacheService.isLoaded(job.symbol)) {
+            try {
+                barCacheService.rebuild(job.symbol);
+            } catch (Exception e) {
+                log.error("Bar cache rebuild after backfill {} failed", job.id, e);
+            }
+        }
+        log.info(
+            "Backfill {} finished: {} chunk(s) done, {} skipped, {} failed, {} bars ({} inserted/changed)",
+            job.id,
+            job.completed.get(),
+            job.skipped,
+            job.failed.get(),
+            job.bars.get(),
+            job.upserted.get()
+        );
+    }
+
+    private Set<String> checkpointedChunks(String symbol) {
+        Set<String> done = new HashSet<>();
+        for (Document checkpoint : mongoTemplate.find(Query.query(Criteria.where("symbol").is(symbol)), Document.class, CHECKPOINT_COLLECTION)) {
+            done.add(checkpoint.getString("_id"));
+        }
+        return done;
+    }
+
+    private static String chunkId(String symbol, LocalDate first, LocalDate last) {
+        return symbol + ":" + first + ":" + last;
+    }
+
+    private List<String> timeframeList() {
+        List<String> list = new ArrayList<>(timeframes.length);
+        for (String timeframe : timeframes) {
+            list.add(timeframe.trim());
+        }
+        return list;
+    }
+
+    private static final class Job {
+
+        final String id;
+        final String symbol;
+        final LocalDate from;
+        final LocalDate to;
+        final int chunks;
+        final int skipped;
+        final Instant startedAt = Instant.now();
+        final AtomicInteger remaining;
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicLong bars = new AtomicLong();
+        final AtomicLong upserted = new AtomicLong();
+        volatile Instant finishedAt;
+
+        Job(String id, String symbol, LocalDate from, LocalDate to, int chunks, int skipped) {
+            this.id = id;
+            this.symbol = symbol;
+            this.from = from;
+            this.to = to;
+            this.chunks = chunks;
+            this.skipped = skipped;
+            this.remaining = new AtomicInteger(chunks - skipped);
+        }
+
+        boolean isRunning() {
+            return finishedAt == null;
+        }
+
+        JobStatus status() {
+            String state = isRunning() ? "RUNNING" : failed.get() > 0 ? "FAILED" : "DONE";
+            return new JobStatus(
+                id,
+                symbol,
+                from,
+                to,
+                state,
+                chunks,
+                completed.get(),
+                skipped,
+                failed.get(),
+                bars.get(),
+                upserted.get(),
+                startedAt,
+                finishedAt
+            );
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.kraj.tradeapp.core.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCCandle;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point for posted 1m OHLC payloads.
+ * <p>
+ * The request body is streamed through a Jackson parser into an {@link OHLCBarBuffer}; no DTO list or per-bar
+ * {@link java.math.BigDecimal} is materialized. Once the payload decodes it is written to the {@link OHLCJournal}
+ * and the webhook is acknowledged; the Mongo and Postgres sinks then store it independently, each from its own
+ * bounded queue with batching and retry ({@link OHLCSinkWorker}), so a slow sink never delays the other. The
+ * in-memory candle and indicator engines and the local bar cache are fed after the Postgres write.
+ * <p>
+ * A payload a sink could not store after its retries is parked and re-driven to that sink on a schedule until it
+ * is stored, so the journal only has to be replayed at startup for payloads still pending at shutdown. The journal
+ * directory must be configured explicitly and survive restarts.
+ */
+@Slf4j
+@Service
+public class OHLCIngestService {
+
+    public enum Sink {
+        MONGO,
+        POSTGRES,
+    }
+
+    private static final Set<Sink> ALL_SINKS = EnumSet.allOf(Sink.class);
+    private static final Set<Sink> POSTGRES_ONLY = EnumSet.of(Sink.POSTGRES);
+
+    private final JsonFactory jsonFactory;
+    private final OHLCService ohlcService;
+    private final SqlOHLCService sqlOHLCService;
+    private final CandleEngineService candleEngineService;
+    private final IndicatorEngineService indicatorEngineService;
+    private final BarCacheService barCacheService;
+
+    @Value("${trading.ohlc.fanout.journal-dir:}")
+    private String journalDir;
+
+    @Value("${trading.ohlc.fanout.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${trading.ohlc.fanout.batch-max-payloads:32}")
+    private int batchMaxPayloads;
+
+    @Value("${trading.ohlc.fanout.retry-max-attempts:5}")
+    private int retryMaxAttempts;
+
+    @Value("${trading.ohlc.fanout.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    private OHLCJournal journal;
+    private List<OHLCJournal.Entry> toReplay = List.of();
+    private final Map<Sink, OHLCSinkWorker> workers = new EnumMap<>(Sink.class);
+    // payloads some sink failed to store, by journal sequence, waiting for the next re-drive
+    private final Map<Long, Pending> parked = new ConcurrentSkipListMap<>();
+
+    /**
+     * A journaled payload on its way through the sinks it was posted for (or, when re-driven, the sinks that have
+     * not stored it yet).
+     */
+    record Pending(OHLCJournal.Entry entry, OHLCBarBuffer bars, AtomicInteger remaining, Set<Sink> failed) {
+        Pending(OHLCJournal.Entry entry, OHLCBarBuffer bars, int sinks) {
+            this(entry, bars, new AtomicInteger(sinks), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public OHLCIngestService(
+        ObjectMapper objectMapper,
+        OHLCService ohlcService,
+        SqlOHLCService sqlOHLCService,
+        CandleEngineService candleEngineService,
+        IndicatorEngineService indicatorEngineService,
+        BarCacheService barCacheService
+    ) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.ohlcService = ohlcService;
+        this.sqlOHLCService = sqlOHLCService;
+        this.candleEngineService = candleEngineService;
+        this.indicatorEngineService = indicatorEngineService;
+        this.barCacheService = barCacheService;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (journalDir == null || journalDir.isBlank()) {
+            throw new IllegalStateException(
+                "trading.ohlc.fanout.journal-dir (env OHLC_JOURNAL_DIR) must be set to a persistent directory, " +
+                "see src/main/docker/app.yml"
+            );
+        }
+        journal = new OHLCJournal(Path.of(journalDir));
+        // taken before the web server accepts posts, so only payloads left over from the last run are replayed
+        toReplay = journal.pending();
+        workers.put(Sink.MONGO, newWorker(Sink.MONGO, ohlcService::saveBars));
+        workers.put(
+            Sink.POSTGRES,
+            newWorker(Sink.POSTGRES, bars -> {
+                sqlOHLCService.saveBars(bars);
+                updateCandles(bars);
+                barCacheService.append(bars);
+            })
+        );
+        workers.values().forEach(OHLCSinkWorker::start);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.values().forEach(OHLCSinkWorker::stop);
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Journal a payload for both Mongo and Postgres. Returns false when a sink queue is full and the payload was
+     * not accepted.
+     */
+    public boolean ingest(InputStream body) throws IOException {
+        return accept(body, ALL_SINKS);
+    }
+
+    /**
+     * Journal a payload for Postgres only. Returns false when the Postgres queue is full.
+     */
+    public boolean ingestSql(InputStream body) throws IOException {
+        return accept(body, POSTGRES_ONLY);
+    }
+
+    /**
+     * Queued payloads per sink.
+     */
+    public Map<Sink, Integer> getQueueDepths() {
+        Map<Sink, Integer> depths = new LinkedHashMap<>();
+        workers.forEach((sink, worker) -> depths.put(sink, worker.queued()));
+        return depths;
+    }
+
+    /**
+     * Journaled payloads waiting for a re-drive after a sink failed to store them.
+     */
+    public int getParkedCount() {
+        return parked.size();
+    }
+
+    /**
+     * Re-queue payloads journaled but not stored before the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        int replayed = 0;
+        for (OHLCJournal.Entry entry : toReplay) {
+            try {
+                OHLCBarBuffer bars = decode(entry.read());
+                Pending pending = new Pending(entry, bars, entry.sinks().size());
+                for (Sink sink : entry.sinks()) {
+                    workers.get(sink).put(pending);
+                }
+                replayed++;
+            } catch (IOException | IllegalArgumentException e) {
+                log.error("Skipping unreadable journaled OHLC payload {}", entry.file(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        toReplay = List.of();
+        if (replayed > 0) {
+            log.info("Replayed {} journaled OHLC payloads", replayed);
+        }
+    }
+
+    /**
+     * Offer parked payloads again to the sinks that failed them, oldest first. A payload that fails again, or finds
+     * the queue full, is parked for the next run.
+     */
+    @Scheduled(
+        initialDelayString = "${trading.ohlc.fanout.redrive-interval-ms:60000}",
+        fixedDelayString = "${trading.ohlc.fanout.redrive-interval-ms:60000}"
+    )
+    public void redriveParked() {
+        int redriven = 0;
+        for (Long sequence : parked.keySet()) {
+            Pending failed = parked.remove(sequence);
+            if (failed == null) {
+                continue;
+            }
+            Set<Sink> sinks = EnumSet.copyOf(failed.failed());
+            Pending pending = new Pending(failed.entry(), failed.bars(), sinks.size());
+            for (Sink sink : sinks) {
+                if (!workers.get(sink).offer(pending)) {
+                    onStored(sink, pending, false);
+                }
+            }
+            redriven++;
+        }
+        if (redriven > 0) {
+            log.info("Re-drove {} parked OHLC payloads", redriven);
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private boolean accept(InputStream body, Set<Sink> sinks) throws IOException {
+        byte[] payload = body.readAllBytes();
+        OHLCBarBuffer bars = decode(payload);
+        if (bars.isEmpty()) {
+            return true;
+        }
+        for (Sink sink : sinks) {
+            if (workers.get(sink).remainingCapacity() == 0) {
+                log.warn("{} sink queue is full, rejecting {} {} bars", sink, bars.size(), bars.getSymbol());
+                return false;
+            }
+        }
+        OHLCJournal.Entry entry = journal.append(payload, sinks);
+        Pending pending = new Pending(entry, bars, sinks.size());
+        for (Sink sink : sinks) {
+            if (!workers.get(sink).offer(pending)) {
+                // lost a race for the last slot; the payload stays journaled and is stored on the next re-drive
+                log.warn("{} sink queue filled up, {} {} bars kept in the journal", sink, bars.size(), bars.getSymbol());
+                onStored(sink, pending, false);
+            }
+        }
+        return true;
+    }
+
+    private void onStored(Sink sink, Pending pending, boolean stored) {
+        if (!stored) {
+            pending.failed().add(sink);
+        }
+        if (pending.remaining().decrementAndGet() > 0) {
+            return;
+        }
+        if (!pending.failed().isEmpty()) {
+            log.warn("OHLC payload {} parked for {} re-drive", pending.entry().file().getFileName(), pending.failed());
+            parked.put(pending.entry().sequence(), pending);
+            return;
+        }
+        try {
+            journal.delete(pending.entry());
+        } catch (IOException e) {
+            log.error("Could not delete journaled OHLC payload {}", pending.entry().file(), e);
+        }
+    }
+
+    private OHLCSinkWorker newWorker(Sink sink, OHLCSinkWorker.BarWriter writer) {
+        return new OHLCSinkWorker(sink, queueCapacity, batchMaxPayloads, retryMaxAttempts, retryBackoffMs, writer, this::onStored);
+    }
+
+    // 1m bars are already stored at this point; a failed candle update is repaired by the SQL rollup
+    private void updateCandles(OHLCBarBuffer buffer) {
+        List<OHLCCandle> changed = List.of();
+        try {
+            changed = candleEngineService.onBars(buffer);
+        } catch (Exception e) {
+            log.error("Candle engine update failed for {}", buffer.getSymbol(), e);
+        }
+        try {
+            indicatorEngineService.onBars(buffer, changed);
+        } catch (Exception e) {
+            log.error("Indicator update failed for {}", buffer.getSymbol(), e);
+        }
+    }
+
+    private OHLCBarBuffer decode(byte[] payload) throws IOException {
+        OHLCBarBuffer buffer = new OHLCBarBuffer();
+        long start = System.nanoTime();
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            buffer.read(parser);
+        }
+        if (!buffer.isEmpty() && buffer.getSymbol() == null) {
+            throw new IllegalArgumentException("OHLC payload has no symbol");
+        }
+        log.debug("Decoded {} OHLC bars for {} in {} µs", buffer.size(), buffer.getSymbol(), (System.nanoTime() - start) / 1_000);
+        return buffer;
+    }
+}
@@ -0,0 +1,108 @@
+package com.kraj.tradeapp.core.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Durable file journal of posted OHLC payloads.
+ * <p>
+ * Each payload is written to its own file, <code>{sequence}.{SINK-SINK}.json</code>, and forced to disk before the
+ * webhook is acknowledged. The file is deleted once every sink named in it has stored the bars; files still
+ * present at startup are replayed in sequence order.
+ */
+final class OHLCJournal {
+
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final AtomicLong sequence;
+
+    OHLCJournal(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.sequence = new AtomicLong(pending().stream().mapToLong(Entry::sequence).max().orElse(0));
+    }
+
+    record Entry(long sequence, Path file, Set<OHLCIngestService.Sink> sinks) {
+        byte[] read() throws IOException {
+            return Files.readAllBytes(file);
+        }
+    }
+
+    /**
+     * Write a payload and force it to disk. The file only appears under its final name once complete.
+     */
+    Entry append(byte[] payload, Set<OHLCIngestService.Sink> sinks) throws IOException {
+        long seq = sequence.incrementAndGet();
+        String name = String.format(
+            "%020d.%s%s",
+            seq,
+            sinks.stream().map(Enum::name).sorted().collect(Collectors.joining("-")),
+            SUFFIX
+        );
+        Path file = directory.resolve(name);
+        Path tmp = directory.resolve(name + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        return new Entry(seq, file, sinks);
+    }
+
+    void delete(Entry entry) throws IOException {
+        Files.deleteIfExists(entry.file());
+    }
+
+    /**
+     * Journaled payloads not yet stored by all their sinks, oldest first.
+     */
+    List<Entry> pending() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Entry entry = parse(file);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        entries.sort((a, b) -> Long.compare(a.sequence(), b.sequence()));
+        return entries;
+    }
+
+    private static Entry parse(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(SUFFIX)) {
+            return null;
+        }
+        String[] parts = name.substring(0, name.length() - SUFFIX.length()).split("\\.");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            Set<OHLCIngestService.Sink> sinks = EnumSet.noneOf(OHLCIngestService.Sink.class);
+            for (String sink : parts[1].split("-")) {
+                sinks.add(OHLCIngestService.Sink.valueOf(sink));
+            }
+            return new Entry(Long.parseLong(parts[0]), file, Collections.unmodifiableSet(sinks));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.OHLCBuckets;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Background rollup of <code>ohlc_data</code> into <code>ohlc_aggregated</code>.
+ * <p>
+ * A watermark per (symbol, timeframe) holds the start of the newest bucket already rolled up. Each run only
+ * touches symbols that received new 1m bars and re-aggregates from the watermark bucket (the open bar) onwards
+ * with one bulk upsert per symbol; unchanged rows are not rewritten. A symbol seen for the first time is seeded
+ * from the newest stored aggregated bar, or from the initial lookback when it has none.
+ * <p>
+ * Lag is the number of seconds of buckets between the newest aggregated bar and the newest 1m bar, measured
+ * before each run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OHLCRollupService {
+
+    private final OhlcJdbcRepository ohlcJdbcRepository;
+
+    @Value("${trading.candles.timeframes:5m,15m,30m,1h,4h}")
+    private String[] timeframes;
+
+    @Value("${trading.candles.rollup-initial-lookback-hours:72}")
+    private long initialLookbackHours;
+
+    // symbol -> newest 1m bar covered by the last successful rollup
+    private final Map<String, Instant> rolledUpTo = new ConcurrentHashMap<>();
+
+    // symbol -> timeframe -> start of the newest rolled-up bucket (epoch seconds as stored)
+    private final Map<String, Map<String, Long>> watermarks = new ConcurrentHashMap<>();
+
+    // symbol -> timeframe -> lag in seconds, as measured by the last run
+    private final Map<String, Map<String, Long>> lagSeconds = new ConcurrentHashMap<>();
+
+    private volatile Instant lastRunAt;
+    private volatile long lastRunMillis;
+
+    // ========================================================================
+    // SCHEDULED ROLLUP
+    // ========================================================================
+
+    @Scheduled(
+        fixedDelayString = "${trading.candles.rollup-interval-ms:60000}",
+        initialDelayString = "${trading.candles.rollup-interval-ms:60000}"
+    )
+    public void rollup() {
+        long start = System.currentTimeMillis();
+        Map<String, Instant> latestBars;
+        try {
+            latestBars = ohlcJdbcRepository.findLatestBars();
+        } catch (Exception e) {
+            log.error("OHLC rollup could not read latest bars", e);
+            return;
+        }
+        int upserted = 0;
+        for (Map.Entry<String, Instant> entry : latestBars.entrySet()) {
+            String symbol = entry.getKey();
+            Instant latest = entry.getValue();
+            if (latest.equals(rolledUpTo.get(symbol))) {
+                continue;
+            }
+            try {
+                upserted += rollupSymbol(symbol, latest);
+                rolledUpTo.put(symbol, latest);
+            } catch (Exception e) {
+                log.error("OHLC rollup failed for {}", symbol, e);
+            }
+        }
+        lastRunAt = Instant.now();
+        lastRunMillis = lastRunAt.toEpochMilli() - start;
+        if (upserted > 0) {
+            log.info("OHLC rollup upserted {} aggregated bars in {} ms, lag {}", upserted, lastRunMillis, lagSeconds);
+        }
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Lag per symbol and timeframe in seconds, plus when the last run finished and how long it took.
+     */
+    public Map<String, Object> getRollupStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("lastRunAt", lastRunAt);
+        status.put("lastRunMillis", lastRunMillis);
+        status.put("lagSeconds", new TreeMap<>(lagSeconds));
+        status.put("rolledUpTo", new TreeMap<>(rolledUpTo));
+        return status;
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private int rollupSymbol(String symbol, Instant latest) {
+        long latestMillis = latest.toEpochMilli();
+        Map<String, Instant> stored = ohlcJdbcRepository.findAggregatedWatermarks(symbol);
+        Map<String, Long> symbolWatermarks = watermarks.computeIfAbsent(symbol, s -> new ConcurrentHashMap<>());
+        Map<String, Long> symbolLag = new LinkedHashMap<>();
+        Map<String, Long> firstBuckets = new LinkedHashMap<>();
+
+        for (String tf : timeframes) {
+            String timeframe = tf.trim();
+            long intervalSeconds = OHLCBuckets.timeframeSeconds(timeframe);
+            long latestBucket = OHLCBuckets.bucketStartSeconds(latestMillis, intervalSeconds);
+            Instant storedMark = stored.get(timeframe);
+
+            symbolLag.put(timeframe, storedMark == null ? -1 : Math.max(0, latestBucket - storedMark.getEpochSecond()));
+
+            Long watermark = symbolWatermarks.get(timeframe);
+            if (watermark == null) {
+                watermark = storedMark != null
+                    ? storedMark.getEpochSecond()
+                    : OHLCBuckets.bucketStartSeconds(latestMillis - initialLookbackHours * 3_600_000, intervalSeconds);
+            }
+            firstBuckets.put(timeframe, watermark);
+        }
+
+        int upserted = ohlcJdbcRepository.rollupAggregatedFrom(symbol, firstBuckets);
+
+        // every bar up to latest is now aggregated, so the open bar becomes the next starting point
+        for (String timeframe : firstBuckets.keySet()) {
+            symbolWatermarks.put(timeframe, OHLCBuckets.bucketStartSeconds(latestMillis, OHLCBuckets.timeframeSeconds(timeframe)));
+        }
+        lagSeconds.put(symbol, symbolLag);
+        return upserted;
+    }
+}
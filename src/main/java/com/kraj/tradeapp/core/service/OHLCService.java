@@ -1,17 +1,11 @@
 package com.kraj.tradeapp.core.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kraj.tradeapp.core.model.CommonUtil;
-import com.kraj.tradeapp.core.model.TimeFrame;
-import com.kraj.tradeapp.core.model.dto.OHLCMarketDto;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
 import com.kraj.tradeapp.core.model.persistance.mongodb.OHLCData;
-import com.kraj.tradeapp.core.repository.mongodb.OHLCRepository;
-import java.math.BigDecimal;
+import com.kraj.tradeapp.core.repository.mongodb.OhlcTimeSeriesRepository;
+import jakarta.annotation.PostConstruct;
 import java.time.Instant;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,56 +14,42 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class OHLCService {
 
-    private final OHLCRepository ohlcRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OhlcTimeSeriesRepository ohlcTimeSeriesRepository;
 
-    public void handleOHLCDataPost(String payload) throws JsonProcessingException {
-        // Parse the payload and save the OHLC data
-        OHLCMarketDto ohlcMarketDto = objectMapper.readValue(payload, OHLCMarketDto.class);
-        List<OHLCData> ohlcDataList = new ArrayList<>();
-        ohlcMarketDto
-            .getOhlc()
-            .forEach(ohlcDto -> {
-                OHLCData ohlcData = OHLCData.builder()
-                    .id(ohlcDto.getEpochMillis())
-                    .nyDateTimeId(CommonUtil.getTimeIndexNY(ohlcDto.getEpochMillis()))
-                    .symbol(ohlcMarketDto.getSymbol())
-                    .timestamp(Instant.ofEpochMilli(ohlcDto.getEpochMillis()))
-                    .open(ohlcDto.getOpen())
-                    .high(ohlcDto.getHigh())
-                    .low(ohlcDto.getLow())
-                    .close(ohlcDto.getClose())
-                    .timeframe(TimeFrame.M1)
-                    .build();
-                ohlcDataList.add(ohlcData);
-            });
-        ohlcRepository.saveAll(ohlcDataList);
+    @PostConstruct
+    public void ensureCollection() {
+        ohlcTimeSeriesRepository.ensureCollection();
     }
 
-    public void saveOHLCData(OHLCData ohlcData) {
-        ohlcRepository.save(ohlcData);
+    /**
+     * Store decoded 1m bars in the <code>ohlc_bars</code> time-series collection; re-posted bars replace the
+     * earlier copy.
+     */
+    public void saveBars(OHLCBarBuffer bars) {
+        ohlcTimeSeriesRepository.replaceBars(bars);
     }
 
     public Optional<OHLCData> aggregateOHLC(String symbol, ZonedDateTime start, ZonedDateTime end) {
-        List<OHLCData> ohlcDataList = ohlcRepository.findBySymbolAndTimestampBetween(symbol, start, end);
-
-        if (ohlcDataList.isEmpty()) {
+        // end is inclusive here, findBars is half-open
+        OHLCBarBuffer bars = ohlcTimeSeriesRepository.findBars(symbol, start.toInstant().toEpochMilli(), end.toInstant().toEpochMilli() + 1);
+        if (bars.isEmpty()) {
             return Optional.empty();
         }
 
-        BigDecimal open = ohlcDataList.get(0).getOpen();
-        BigDecimal high = BigDecimal.valueOf(ohlcDataList.stream().mapToDouble(p -> p.getHigh().doubleValue()).max().orElse(0));
-        BigDecimal low = BigDecimal.valueOf(ohlcDataList.stream().mapToDouble(p -> p.getLow().doubleValue()).min().orElse(0));
-        BigDecimal close = ohlcDataList.get(ohlcDataList.size() - 1).getClose();
+        long high = Long.MIN_VALUE;
+        long low = Long.MAX_VALUE;
+        for (int i = 0; i < bars.size(); i++) {
+            high = Math.max(high, bars.highScaled(i));
+            low = Math.min(low, bars.lowScaled(i));
+        }
 
-        Instant openDateTime = ohlcDataList.get(0).getTimestamp();
         OHLCData aggregatedOHLC = new OHLCData();
         aggregatedOHLC.setSymbol(symbol);
-        aggregatedOHLC.setTimestamp(openDateTime); // Use the open time as the timestamp
-        aggregatedOHLC.setOpen(open);
-        aggregatedOHLC.setHigh(high);
-        aggregatedOHLC.setLow(low);
-        aggregatedOHLC.setClose(close);
+        aggregatedOHLC.setTimestamp(Instant.ofEpochMilli(bars.epochMillis(0))); // Use the open time as the timestamp
+        aggregatedOHLC.setOpen(bars.open(0));
+        aggregatedOHLC.setHigh(OHLCBarBuffer.toDecimal(high));
+        aggregatedOHLC.setLow(OHLCBarBuffer.toDecimal(low));
+        aggregatedOHLC.setClose(bars.close(bars.size() - 1));
 
         return Optional.of(aggregatedOHLC);
     }
@@ -0,0 +1,160 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One OHLC sink behind its own bounded queue and thread.
+ * <p>
+ * The worker drains up to <code>maxBatch</code> queued payloads at a time, merges payloads of the same symbol into
+ * a single write and retries a failed write with exponential backoff. Each payload is reported back exactly once,
+ * as stored or as failed; a failed payload stays in the journal until a re-drive stores it.
+ */
+@Slf4j
+final class OHLCSinkWorker implements Runnable {
+
+    @FunctionalInterface
+    interface BarWriter {
+        void write(OHLCBarBuffer bars) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Completion {
+        void done(OHLCIngestService.Sink sink, OHLCIngestService.Pending pending, boolean stored);
+    }
+
+    private final OHLCIngestService.Sink sink;
+    private final BlockingQueue<OHLCIngestService.Pending> queue;
+    private final int maxBatch;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final BarWriter writer;
+    private final Completion completion;
+    private final Thread thread;
+
+    private volatile boolean running;
+
+    OHLCSinkWorker(
+        OHLCIngestService.Sink sink,
+        int capacity,
+        int maxBatch,
+        int maxAttempts,
+        long backoffMillis,
+        BarWriter writer,
+        Completion completion
+    ) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.writer = writer;
+        this.completion = completion;
+        this.thread = new Thread(this, "ohlc-sink-" + sink.name().toLowerCase());
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stop after the batch in flight; payloads still queued remain journaled.
+     */
+    void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    boolean offer(OHLCIngestService.Pending pending) {
+        return queue.offer(pending);
+    }
+
+    void put(OHLCIngestService.Pending pending) throws InterruptedException {
+        queue.put(pending);
+    }
+
+    int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        List<OHLCIngestService.Pending> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            for (List<OHLCIngestService.Pending> group : groupBySymbol(batch)) {
+                boolean stored = writeWithRetry(merge(group));
+                for (OHLCIngestService.Pending pending : group) {
+                    completion.done(sink, pending, stored);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private boolean writeWithRetry(OHLCBarBuffer bars) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                writer.write(bars);
+                return true;
+            } catch (Exception e) {
+                if (attempt == maxAttempts) {
+                    log.error("{} sink failed to store {} {} bars after {} attempts", sink, bars.size(), bars.getSymbol(), attempt, e);
+                    return false;
+                }
+                long delay = backoffMillis << (attempt - 1);
+                log.warn("{} sink write of {} {} bars failed (attempt {}), retrying in {} ms", sink, bars.size(), bars.getSymbol(), attempt, delay, e);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<List<OHLCIngestService.Pending>> groupBySymbol(List<OHLCIngestService.Pending> batch) {
+        Map<String, List<OHLCIngestService.Pending>> groups = new LinkedHashMap<>();
+        for (OHLCIngestService.Pending pending : batch) {
+            groups.computeIfAbsent(pending.bars().getSymbol(), s -> new ArrayList<>()).add(pending);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    // payloads are merged in arrival order, so a bar repeated by a later payload is written last
+    private static OHLCBarBuffer merge(List<OHLCIngestService.Pending> group) {
+        if (group.size() == 1) {
+            return group.get(0).bars();
+        }
+        int size = group.stream().mapToInt(p -> p.bars().size()).sum();
+        OHLCBarBuffer merged = new OHLCBarBuffer(size);
+        merged.setSymbol(group.get(0).bars().getSymbol());
+        for (OHLCIngestService.Pending pending : group) {
+            merged.addAll(pending.bars());
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,155 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.repository.mongodb.OhlcTimeSeriesRepository;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * One-off copy of the legacy <code>ohlc_data</code> documents into the <code>ohlc_bars</code> time-series
+ * collection.
+ * <p>
+ * Each symbol is copied in time order in batches, and the timestamp of the last copied bar is checkpointed in
+ * <code>ohlc_migrations</code> after every batch, so an interrupted run resumes where it stopped. Bars the live
+ * ingest has already written are replaced rather than duplicated. Prices are read whatever their stored type
+ * (string, Decimal128 or double) and written as doubles.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OHLCTimeSeriesMigrationService {
+
+    private static final String LEGACY_COLLECTION = "ohlc_data";
+    private static final String CHECKPOINT_COLLECTION = "ohlc_migrations";
+
+    private final MongoTemplate mongoTemplate;
+    private final OhlcTimeSeriesRepository ohlcTimeSeriesRepository;
+
+    @Value("${trading.ohlc.mongo.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${trading.ohlc.mongo.migrate-batch-size:10000}")
+    private int batchSize;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAtStartup() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (Exception e) {
+            log.error("Migration of {} into {} failed; it resumes on the next start", LEGACY_COLLECTION, OhlcTimeSeriesRepository.COLLECTION, e);
+        }
+    }
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Copy every symbol's remaining legacy bars. Returns the number of bars copied per symbol by this run.
+     */
+    public Map<String, Long> migrate() {
+        ohlcTimeSeriesRepository.ensureCollection();
+        Map<String, Long> copied = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        for (String symbol : mongoTemplate.findDistinct(new Query(), "symbol", LEGACY_COLLECTION, String.class)) {
+            copied.put(symbol, migrateSymbol(symbol));
+        }
+        log.info(
+            "Migrated {} into {} in {} ms: {}; legacy {}, time-series {}",
+            LEGACY_COLLECTION,
+            OhlcTimeSeriesRepository.COLLECTION,
+            (System.nanoTime() - start) / 1_000_000,
+            copied,
+            ohlcTimeSeriesRepository.collectionStats(LEGACY_COLLECTION),
+            ohlcTimeSeriesRepository.collectionStats(OhlcTimeSeriesRepository.COLLECTION)
+        );
+        return copied;
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private long migrateSymbol(String symbol) {
+        Document checkpoint = mongoTemplate.findById(symbol, Document.class, CHECKPOINT_COLLECTION);
+        Date after = checkpoint == null ? null : checkpoint.getDate("lastTimestamp");
+
+        OHLCBarBuffer batch = new OHLCBarBuffer(batchSize);
+        batch.setSymbol(symbol);
+        long copied = 0;
+        try (
+            MongoCursor<Document> cursor = mongoTemplate
+                .getCollection(LEGACY_COLLECTION)
+                .find(after == null ? Filters.eq("symbol", symbol) : Filters.and(Filters.eq("symbol", symbol), Filters.gt("timestamp", after)))
+                .projection(Projections.fields(Projections.include("timestamp", "open", "high", "low", "close"), Projections.excludeId()))
+                .sort(Sorts.ascending("timestamp"))
+                .batchSize(batchSize)
+                .iterator()
+        ) {
+            while (cursor.hasNext()) {
+                Document bar = cursor.next();
+                batch.add(
+                    bar.getDate("timestamp").getTime(),
+                    toScaled(bar.get("open")),
+                    toScaled(bar.get("high")),
+                    toScaled(bar.get("low")),
+                    toScaled(bar.get("close"))
+                );
+                if (batch.size() == batchSize) {
+                    copied += flush(symbol, batch);
+                }
+            }
+        }
+        copied += flush(symbol, batch);
+        log.info("Migrated {} {} bars into {}", copied, symbol, OhlcTimeSeriesRepository.COLLECTION);
+        return copied;
+    }
+
+    private int flush(String symbol, OHLCBarBuffer batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int written = ohlcTimeSeriesRepository.replaceBars(batch);
+        mongoTemplate.upsert(
+            Query.query(Criteria.where("_id").is(symbol)),
+            Update.update("lastTimestamp", new Date(batch.epochMillis(batch.size() - 1))),
+            CHECKPOINT_COLLECTION
+        );
+        batch.clear();
+        batch.setSymbol(symbol);
+        return written;
+    }
+
+    private static long toScaled(Object price) {
+        if (price instanceof Decimal128 decimal) {
+            return OHLCBarBuffer.toScaled(decimal.bigDecimalValue());
+        }
+        if (price instanceof Number number) {
+            return OHLCBarBuffer.toScaled(number.doubleValue());
+        }
+        return OHLCBarBuffer.toScaled(new BigDecimal(String.valueOf(price)));
+    }
+}
@@ -0,0 +1,244 @@
+package com.kraj.tradeapp.core.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kraj.tradeapp.config.TradeAppConfigOptions;
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link BarFeed} over the Polygon.io aggregates endpoint
+ * (<code>/v2/aggs/ticker/{ticker}/range/1/minute/{from}/{to}</code>).
+ * <p>
+ * Pages (up to 50,000 bars) are followed through <code>next_url</code> and parsed with a streaming parser straight
+ * into a reused bar buffer. Every request, from any thread, takes a permit from a shared per-minute rate limiter;
+ * 429 and 5xx responses are retried with backoff. The base URL is configurable so a local HTTP stub can stand in
+ * for Polygon.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "trading.ohlc.backfill.feed", havingValue = "polygon")
+public class PolygonBarFeed implements BarFeed {
+
+    private static final int PAGE_LIMIT = 50_000;
+
+    private final ObjectMapper objectMapper;
+    private final TradeAppConfigOptions tradeAppConfigOptions;
+
+    @Value("${trading.ohlc.backfill.polygon.base-url:https://api.polygon.io}")
+    private String baseUrl;
+
+    // SYMBOL=TICKER pairs; symbols not listed are requested as-is
+    @Value("${trading.ohlc.backfill.polygon.tickers:}")
+    private String[] tickers;
+
+    @Value("${trading.ohlc.backfill.polygon.requests-per-minute:5}")
+    private int requestsPerMinute;
+
+    @Value("${trading.ohlc.backfill.polygon.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Value("${trading.ohlc.backfill.polygon.retry-max-attempts:5}")
+    private int retryMaxAttempts;
+
+    @Value("${trading.ohlc.backfill.polygon.retry-backoff-ms:15000}")
+    private long retryBackoffMs;
+
+    private final Map<String, String> tickerBySymbol = new HashMap<>();
+    private String apiKey;
+    private HttpClient httpClient;
+    private RateLimiter rateLimiter;
+
+    @PostConstruct
+    public void init() {
+        for (String pair : tickers) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2) {
+                tickerBySymbol.put(parts[0].trim().toUpperCase(), parts[1].trim());
+            }
+        }
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(requestTimeoutMs)).build();
+        rateLimiter = new RateLimiter(requestsPerMinute);
+        apiKey = tradeAppConfigOptions.getPolygonIOApiKey();
+        if (StringUtils.isBlank(apiKey)) {
+            log.warn("No Polygon API key configured (trade.app.options.polygonIOApiKey); requests are sent unauthenticated");
+        }
+    }
+
+    @Override
+    public int fetch(String symbol, Instant from, Instant to, MappedBarStore.Sink sink) throws IOException {
+        String ticker = tickerBySymbol.getOrDefault(symbol.toUpperCase(), symbol);
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        // Polygon's range is inclusive at both ends
+        String url =
+            StringUtils.removeEnd(baseUrl, "/") +
+            "/v2/aggs/ticker/" +
+            URLEncoder.encode(ticker, StandardCharsets.UTF_8) +
+            "/range/1/minute/" +
+            fromMillis +
+            "/" +
+            (toMillis - 1) +
+            "?adjusted=true&sort=asc&limit=" +
+            PAGE_LIMIT;
+
+        OHLCBarBuffer page = new OHLCBarBuffer(PAGE_LIMIT);
+        int supplied = 0;
+        int pages = 0;
+        while (url != null) {
+            page.clear();
+            page.setSymbol(symbol);
+            url = fetchPage(url, page, fromMillis, toMillis);
+            pages++;
+            if (!page.isEmpty()) {
+                supplied += page.size();
+                sink.put(page);
+            }
+        }
+        log.debug("Fetched {} {} bars ({}) from Polygon in {} page(s) for {} - {}", supplied, symbol, ticker, pages, from, to);
+        return supplied;
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    // reads one page into the buffer and returns the next page's URL, or null on the last page
+    private String fetchPage(String url, OHLCBarBuffer page, long fromMillis, long toMillis) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofMillis(requestTimeoutMs)).GET();
+        if (StringUtils.isNotBlank(apiKey)) {
+            request.header("Authorization", "Bearer " + apiKey);
+        }
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<InputStream> response;
+            try {
+                rateLimiter.acquire();
+                response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while fetching " + redact(url));
+            }
+            int status = response.statusCode();
+            if (status == 200) {
+                try (InputStream body = response.body()) {
+                    return parsePage(body, page, fromMillis, toMillis);
+                }
+            }
+            response.body().close();
+            if ((status == 429 || status >= 500) && attempt < retryMaxAttempts) {
+                long backoff = response.headers().firstValueAsLong("Retry-After").orElse(0) * 1000;
+                backoff = Math.max(backoff, retryBackoffMs << (attempt - 1));
+                log.warn("Polygon returned {} for {}, retrying in {} ms ({}/{})", status, redact(url), backoff, attempt, retryMaxAttempts);
+                sleep(backoff);
+                continue;
+            }
+            throw new IOException("Polygon returned " + status + " for " + redact(url));
+        }
+    }
+
+    private String parsePage(InputStream body, OHLCBarBuffer page, long fromMillis, long toMillis) throws IOException {
+        String nextUrl = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Polygon response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readBar(parser, page, fromMillis, toMillis);
+                    }
+                } else if ("next_url".equals(field) && value == JsonToken.VALUE_STRING) {
+                    nextUrl = parser.getText();
+                } else if ("status".equals(field) && "ERROR".equals(parser.getText())) {
+                    throw new IOException("Polygon reported an error");
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return nextUrl;
+    }
+
+    private static void readBar(JsonParser parser, OHLCBarBuffer page, long fromMillis, long toMillis) throws IOException {
+        long t = Long.MIN_VALUE;
+        double o = 0, h = 0, l = 0, c = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "t" -> t = parser.getLongValue();
+                case "o" -> o = parser.getDoubleValue();
+                case "h" -> h = parser.getDoubleValue();
+                case "l" -> l = parser.getDoubleValue();
+                case "c" -> c = parser.getDoubleValue();
+                default -> parser.skipChildren();
+            }
+        }
+        if (t >= fromMillis && t < toMillis) {
+            page.add(t, OHLCBarBuffer.toScaled(o), OHLCBarBuffer.toScaled(h), OHLCBarBuffer.toScaled(l), OHLCBarBuffer.toScaled(c));
+        }
+    }
+
+    private static String redact(String url) {
+        return url.replaceAll("apiKey=[^&]*", "apiKey=***");
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during Polygon backoff");
+        }
+    }
+
+    /**
+     * Spaces requests evenly at <code>permitsPerMinute</code>, shared by all fetching threads.
+     */
+    static final class RateLimiter {
+
+        private final long intervalNanos;
+        private long nextFreeNanos = System.nanoTime();
+
+        RateLimiter(int permitsPerMinute) {
+            this.intervalNanos = 60_000_000_000L / Math.max(1, permitsPerMinute);
+        }
+
+        void acquire() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextFreeNanos);
+                nextFreeNanos = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            }
+        }
+    }
+}
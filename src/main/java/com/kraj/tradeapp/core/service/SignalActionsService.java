@@ -17,7 +17,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -25,7 +24,7 @@ public class SignalActionsService {
 
     private final Logger log = LoggerFactory.getLogger(SignalActionsService.class);
 
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final BroadcastService broadcastService;
     private final List<SignalActionProcessor> processors;
 
     // In-memory storage - replace with database repository in production
@@ -36,8 +35,8 @@ public class SignalActionsService {
     private String processorMode; // SIMULATION or REAL_TIME
 
     @Autowired
-    public SignalActionsService(SimpMessagingTemplate simpMessagingTemplate, List<SignalActionProcessor> processors) {
-        this.simpMessagingTemplate = simpMessagingTemplate;
+    public SignalActionsService(BroadcastService broadcastService, List<SignalActionProcessor> processors) {
+        this.broadcastService = broadcastService;
         this.processors = processors;
     }
 
@@ -371,8 +370,9 @@ public class SignalActionsService {
     }
 
     private void broadcastSignalActionsUpdate() {
+        // The full list supersedes any earlier snapshot, so bursts of updates collapse into one push
         List<SignalActionDTO> allSignalActions = getAllSignalActions();
-        simpMessagingTemplate.convertAndSend("/topic/signal-actions", allSignalActions);
-        log.debug("Broadcasted signal actions update to {} subscribers", allSignalActions.size());
+        broadcastService.broadcastConflated("signal-actions", allSignalActions, "/topic/signal-actions");
+        log.debug("Queued signal actions update with {} actions", allSignalActions.size());
     }
 }
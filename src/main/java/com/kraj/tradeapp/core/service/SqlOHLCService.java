@@ -1,24 +1,11 @@
 package com.kraj.tradeapp.core.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kraj.tradeapp.core.model.CommonUtil;
-import com.kraj.tradeapp.core.model.dto.OHLCDto;
-import com.kraj.tradeapp.core.model.dto.OHLCMarketDto;
-import com.kraj.tradeapp.core.model.persistance.AggregatedSqlOHLC;
-import com.kraj.tradeapp.core.model.persistance.AggregatedSqlOHLCProjection;
-import com.kraj.tradeapp.core.model.persistance.SqlOHLCData;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
 import com.kraj.tradeapp.core.repository.AggregatedSqlOHLCRepository;
-import com.kraj.tradeapp.core.repository.SqlOhlcDataRepository;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
 import jakarta.transaction.Transactional;
-import java.math.BigDecimal;
-import java.sql.Timestamp;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -26,10 +13,8 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class SqlOHLCService {
 
-    ObjectMapper objectMapper = new ObjectMapper();
-
     private final AggregatedSqlOHLCRepository aggregatedOHLCRepository;
-    private final SqlOhlcDataRepository ohlcRepository;
+    private final OhlcJdbcRepository ohlcJdbcRepository;
 
     @Transactional
     public void aggregateOHLC(String timeframe, long intervalMillis, int lookbackMultiplier) {
@@ -85,71 +70,19 @@ public class SqlOHLCService {
     //        }
     //    }
 
-    public void handleOHLCDataPost(String payload) throws JsonProcessingException {
-        // Parse the payload and save the OHLC data
-        OHLCMarketDto ohlcMarketDto = objectMapper.readValue(payload, OHLCMarketDto.class);
-
-        List<SqlOHLCData> ohlcDataList = new ArrayList<>();
-
-        for (OHLCDto dto : ohlcMarketDto.getOhlc()) {
-            SqlOHLCData ohlcData = SqlOHLCData.builder()
-                .nyDateTimeId(CommonUtil.getTimeIndexNY(dto.getEpochMillis()))
-                .symbol(ohlcMarketDto.getSymbol())
-                .timestamp(Instant.ofEpochMilli(dto.getEpochMillis()))
-                .open(dto.getOpen())
-                .high(dto.getHigh())
-                .low(dto.getLow())
-                .close(dto.getClose())
-                .build();
-            ohlcDataList.add(ohlcData);
-        }
-
-        int batchSize = 100;
-        for (int i = 0; i < ohlcDataList.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, ohlcDataList.size());
-
-            List<SqlOHLCData> batch = ohlcDataList.subList(i, end);
-
-            try {
-                ohlcRepository.saveAll(batch);
-            } catch (Exception e) {
-                System.err.println("Failed batch at index " + i);
-                e.printStackTrace();
-            }
-        }
+    /**
+     * Store decoded 1m bars in <code>ohlc_data</code> through the COPY + upsert bulk path.
+     * Idempotent: bars already stored with the same prices are left untouched.
+     */
+    public OhlcJdbcRepository.LoadResult saveBars(OHLCBarBuffer bars) {
+        return ohlcJdbcRepository.upsertBars(bars);
     }
 
-    @Transactional
-    public void aggregateAndSaveOHLC(String timeframe, long intervalMillis, int lookbackMultiplier) {
-        long lookbackMillis = intervalMillis + (lookbackMultiplier * intervalMillis);
-
-        // Fetch aggregated data
-        List<AggregatedSqlOHLCProjection> rawData = aggregatedOHLCRepository.fetchAggregatedOHLC_futuresV7(
-            intervalMillis,
-            timeframe,
-            lookbackMillis
-        );
-
-        // Convert to AggregatedOHLC entities
-        List<AggregatedSqlOHLC> aggregatedOhlcs = rawData
-            .stream()
-            .map(row -> {
-                AggregatedSqlOHLC ohlc = new AggregatedSqlOHLC();
-                //Timestamp timestamp = (Timestamp) row[0];
-                //            ohlc.setId(((Number) row[0]).longValue());
-                ohlc.setSymbol(row.getSymbol());
-                ohlc.setTimeframe(row.getTimeframe());
-                ohlc.setTimestamp(row.getTimestamp());
-                ohlc.setNyDateTimeId(CommonUtil.getTimeIndexNY(row.getTimestamp().toEpochMilli()));
-                ohlc.setOpen(row.getOpen());
-                ohlc.setHigh(row.getHigh());
-                ohlc.setLow(row.getLow());
-                ohlc.setClose(row.getClose());
-                return ohlc;
-            })
-            .collect(Collectors.toList());
-
-        // Save all records to the database
-        aggregatedOHLCRepository.saveAll(aggregatedOhlcs);
+    /**
+     * Rebuild <code>ohlc_aggregated</code> for the given timeframes ("5m" -> lookback in seconds) with one
+     * set-based rollup over <code>ohlc_data</code>. Returns the number of aggregated rows inserted or changed.
+     */
+    public int rollupAggregated(Map<String, Long> lookbackSecondsByTimeframe) {
+        return ohlcJdbcRepository.rollupAggregated(lookbackSecondsByTimeframe, Instant.now());
     }
 }
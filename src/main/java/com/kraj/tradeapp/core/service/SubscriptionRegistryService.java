@@ -0,0 +1,116 @@
+package com.kraj.tradeapp.core.service;
+
+import com.kraj.tradeapp.core.model.WireEncoding;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Tracks which broker destinations currently have STOMP subscribers.
+ * <p>
+ * Subscriptions may be exact (<code>/topic/events/NQ/M5</code>) or patterns
+ * (<code>/topic/events/NQ/**</code>), the same way the simple broker matches them, so
+ * {@link #hasSubscribers(String)} answers whether a message published to a destination would reach anyone.
+ * Subscriptions carrying an <code>encoding</code> header are recorded under their encoded broker destination,
+ * matching the rewrite applied on the inbound channel.
+ */
+@Slf4j
+@Service
+public class SubscriptionRegistryService {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    // subscribed destination (exact or pattern) -> number of live subscriptions; only changed through merge/compute so
+    // a subscribe can never increment a count an unsubscribe is removing
+    private final Map<String, Integer> destinationCounts = new ConcurrentHashMap<>();
+
+    // ========================================================================
+    // PUBLIC API METHODS
+    // ========================================================================
+
+    /**
+     * Whether at least one live subscription matches the given destination.
+     */
+    public boolean hasSubscribers(String destination) {
+        for (String subscribed : destinationCounts.keySet()) {
+            if (matches(subscribed, destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Live subscription counts keyed by subscribed destination, for monitoring.
+     */
+    public Map<String, Integer> getSubscriptionCounts() {
+        return new TreeMap<>(destinationCounts);
+    }
+
+    // ========================================================================
+    // SESSION EVENTS
+    // ========================================================================
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        String destination = WireEncoding.fromHeader(accessor.getFirstNativeHeader(WireEncoding.HEADER)).toBrokerDestination(
+            accessor.getDestination()
+        );
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+        String previous = sessionSubscriptions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        destinationCounts.merge(destination, 1, Integer::sum);
+        log.debug("Session {} subscribed to {}", sessionId, destination);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    // ========================================================================
+    // PRIVATE HELPER METHODS
+    // ========================================================================
+
+    private boolean matches(String subscribed, String destination) {
+        return pathMatcher.isPattern(subscribed) ? pathMatcher.match(subscribed, destination) : subscribed.equals(destination);
+    }
+
+    private void decrement(String destination) {
+        destinationCounts.computeIfPresent(destination, (d, count) -> count <= 1 ? null : count - 1);
+    }
+}
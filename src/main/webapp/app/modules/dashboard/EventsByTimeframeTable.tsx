@@ -26,14 +26,14 @@ const EventsByTimeframeTable = () => {
     fetchData();
 
     connectWebSocket();
-    const subscription: Subscription = subscribeToTopic('/topic/events').subscribe(event => {
+    const subscription: Subscription = subscribeToTopic('/topic/events/**').subscribe(event => {
       setData(event);
       setUpdated(true);
       setTimeout(() => setUpdated(false), 1000);
     });
 
     return () => {
-      unsubscribeFromTopic('/topic/events');
+      unsubscribeFromTopic('/topic/events/**');
       disconnectWebSocket();
       subscription.unsubscribe();
     };
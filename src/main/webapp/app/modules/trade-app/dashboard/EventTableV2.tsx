@@ -27,6 +27,13 @@ const timePresets = [
 
 const ITEMS_PER_PAGE = 50;
 
+// Relative event age, computed on the client from the epoch timestamp sent by the server
+const sinceEventStr = (epochMs: number): string => {
+  const minutes = Math.max(0, Math.floor((Date.now() - epochMs) / 60000));
+  const hours = Math.floor(minutes / 60);
+  return hours > 0 ? `${hours}hr(s) ago` : `${minutes}min(s) ago`;
+};
+
 const candleTypes = [
   { value: 'CLASSIC', label: 'Classic' },
   { value: 'HEIKIN_ASHI', label: 'Heiken Ashi' },
@@ -186,6 +193,10 @@ const EventTableV2: React.FC<EventTableProps> = ({ data }) => {
       header: () => <span>Event Time</span>,
       cell: info => format(new Date(info.getValue()), 'PPpp'),
     }),
+    columnHelper.accessor('datetimeEpochMs', {
+      header: () => <span>Since</span>,
+      cell: info => sinceEventStr(info.getValue()),
+    }),
     columnHelper.accessor('created', {
       header: () => <span>Created Time</span>,
       cell: info => format(new Date(info.getValue()), 'PPpp'),
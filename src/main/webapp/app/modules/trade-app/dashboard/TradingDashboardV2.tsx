@@ -2,7 +2,6 @@ import React, { useEffect, useState } from 'react';
 import { Container, Row, Col, Card, Nav, Tab } from 'react-bootstrap';
 import { Event, TradeSignal, AccTrade, EventsByTimeInterval } from 'app/shared/model/trade-app-module';
 import SockJS from 'sockjs-client';
-import { Storage } from 'react-jhipster';
 import { Stomp } from '@stomp/stompjs';
 import EventTableV2 from './EventTableV2';
 import AccTradesTable from './AccTradesTable';
@@ -38,7 +37,6 @@ const TradingDashboardV2: React.FC = () => {
       direction: 'LONG',
       status: 'ACTIVE',
       price: '100',
-      sinceCreatedStr: '1 minute ago',
       source: 'TradingView',
     },
   ]);
@@ -61,23 +59,6 @@ const TradingDashboardV2: React.FC = () => {
     const sock = new SockJS(WS_URL);
     const stompClient = Stomp.over(sock);
 
-    // Fetch initial state from REST API
-    const fetchInitialData = async () => {
-      try {
-        const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
-        const response = await fetch(`/api/v1/dashboard/events/${symbol}`, {
-          headers: {
-            Authorization: `Bearer ${token}`,
-          },
-        });
-        const eventsRes = await response.json();
-        setEvents(eventsRes);
-      } catch (error) {
-        console.error('Error fetching initial data:', error);
-      }
-    };
-    fetchInitialData();
-
     stompClient.connect({}, () => {
       // Subscribe to symbol-specific topics
       //               stompClient.subscribe(`/topic/trades/${symbol}`, (message) => {
@@ -87,9 +68,17 @@ const TradingDashboardV2: React.FC = () => {
       //               stompClient.subscribe(`/topic/signals/${symbol}`, (message) => {
       //                   setSignals(JSON.parse(message.body));
       //               });
-      stompClient.subscribe(`/topic/events/${symbol}`, message => {
+      // Rolling 24h window once on subscribe, then only new events (newest first)
+      stompClient.subscribe(`/app/events/${symbol}`, message => {
         setEvents(JSON.parse(message.body));
       });
+      stompClient.subscribe(`/topic/v2/events/${symbol}`, message => {
+        const newEvents: Event[] = JSON.parse(message.body);
+        setEvents(prev => {
+          const known = new Set((prev || []).map(event => event.id));
+          return [...newEvents.filter(event => !known.has(event.id)), ...(prev || [])];
+        });
+      });
     });
 
     return () => {
@@ -1,6 +1,7 @@
 export interface Event {
   id: number;
   datetime: string; // LocalDateTime
+  datetimeEpochMs: number;
   symbol: string;
   source: string;
   indicator: string;
@@ -38,7 +39,6 @@ export interface TradeSignal {
   price: string;
   source: string;
   strategy: string;
-  sinceCreatedStr: string;
 }
 
 export interface AccTrade {
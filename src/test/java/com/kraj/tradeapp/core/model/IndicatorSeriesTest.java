@@ -0,0 +1,113 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link IndicatorSeries}.
+ */
+class IndicatorSeriesTest {
+
+    @Test
+    void emaIsSeededWithTheSimpleAverage() {
+        IndicatorSeries series = new IndicatorSeries(new int[] { 3 }, 14, 14, 20);
+        close(series, 1, 1);
+        close(series, 2, 2);
+        assertThat(Double.isNaN(series.ema(0))).isTrue();
+
+        close(series, 3, 3);
+        assertThat(series.ema(0)).isEqualTo((double) scaled(2));
+
+        // alpha = 2 / (3 + 1)
+        close(series, 4, 6);
+        assertThat(series.ema(0)).isEqualTo((double) scaled(4));
+    }
+
+    @Test
+    void rsiUsesWilderSmoothing() {
+        IndicatorSeries series = new IndicatorSeries(new int[0], 2, 14, 20);
+        close(series, 1, 10);
+        close(series, 2, 11);
+        assertThat(Double.isNaN(series.rsi())).isTrue();
+
+        close(series, 3, 12);
+        assertThat(series.rsi()).isEqualTo(100.0);
+
+        // average gain (1 + 0) / 2, average loss (0 + 1) / 2
+        close(series, 4, 11);
+        assertThat(series.rsi()).isEqualTo(50.0);
+    }
+
+    @Test
+    void flatPricesGiveANeutralRsi() {
+        IndicatorSeries series = new IndicatorSeries(new int[0], 2, 14, 20);
+        for (int i = 1; i <= 4; i++) {
+            close(series, i, 10);
+        }
+
+        assertThat(series.rsi()).isEqualTo(50.0);
+    }
+
+    @Test
+    void atrCountsGapsFromThePreviousClose() {
+        IndicatorSeries series = new IndicatorSeries(new int[0], 14, 2, 20);
+        series.onBar(1, 1, scaled(9), scaled(11), scaled(9), scaled(10));
+        assertThat(Double.isNaN(series.atr())).isTrue();
+
+        // true range 15 - 10 = 5; the seed is the mean of 2 and 5
+        series.onBar(2, 1, scaled(14), scaled(15), scaled(14), scaled(14.5));
+        assertThat(series.atr()).isEqualTo((double) scaled(3.5));
+
+        series.onBar(3, 1, scaled(14.5), scaled(15), scaled(14), scaled(14.5));
+        assertThat(series.atr()).isEqualTo((double) scaled(2.25));
+    }
+
+    @Test
+    void sessionAverageRestartsWithANewSession() {
+        IndicatorSeries series = new IndicatorSeries(new int[0], 14, 14, 20);
+        assertThat(Double.isNaN(series.sessionAveragePrice())).isTrue();
+
+        series.onBar(1, 20240311, 0, scaled(12), scaled(9), scaled(9));
+        series.onBar(2, 20240311, 0, scaled(15), scaled(12), scaled(12));
+        assertThat(series.sessionAveragePrice()).isEqualTo((double) scaled(11.5));
+
+        series.onBar(3, 20240312, 0, scaled(21), scaled(21), scaled(21));
+        assertThat(series.sessionAveragePrice()).isEqualTo((double) scaled(21));
+    }
+
+    @Test
+    void rollingRangeCoversTheLastBars() {
+        IndicatorSeries series = new IndicatorSeries(new int[0], 14, 14, 2);
+        series.onBar(1, 1, 0, 30, 1, 0);
+        series.onBar(2, 1, 0, 20, 5, 0);
+        assertThat(series.rollingHigh()).isEqualTo(30L);
+        assertThat(series.rollingLow()).isEqualTo(1L);
+
+        series.onBar(3, 1, 0, 10, 8, 0);
+        assertThat(series.rollingHigh()).isEqualTo(20L);
+        assertThat(series.rollingLow()).isEqualTo(5L);
+    }
+
+    @Test
+    void barsNotNewerThanTheLastAreIgnored() {
+        IndicatorSeries series = new IndicatorSeries(new int[] { 1 }, 14, 14, 20);
+        assertThat(close(series, 5, 1)).isTrue();
+
+        assertThat(close(series, 5, 2)).isFalse();
+        assertThat(close(series, 4, 3)).isFalse();
+
+        assertThat(series.bars()).isEqualTo(1L);
+        assertThat(series.lastTime()).isEqualTo(5L);
+        assertThat(series.ema(0)).isEqualTo((double) scaled(1));
+    }
+
+    private static boolean close(IndicatorSeries series, long time, double price) {
+        long scaled = scaled(price);
+        return series.onBar(time, 1, scaled, scaled, scaled, scaled);
+    }
+
+    private static long scaled(double price) {
+        return OHLCBarBuffer.toScaled(price);
+    }
+}
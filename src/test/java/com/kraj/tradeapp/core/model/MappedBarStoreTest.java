@@ -0,0 +1,118 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link MappedBarStore}.
+ */
+class MappedBarStoreTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void newStoreIsEmptyAndNeedsRebuild() throws Exception {
+        try (MappedBarStore store = MappedBarStore.open(directory.resolve("NQ.bars"), 1024)) {
+            assertThat(store.needsRebuild()).isTrue();
+            assertThat(store.size()).isZero();
+            assertThat(store.lastEpochMillis()).isEqualTo(Long.MIN_VALUE);
+        }
+    }
+
+    @Test
+    void rangeReadsAreHalfOpen() throws Exception {
+        try (MappedBarStore store = MappedBarStore.open(directory.resolve("NQ.bars"), 1024)) {
+            store.appendAll(bars(0, 1, 2, 3, 4));
+
+            assertThat(epochs(store, minute(1), minute(3))).containsExactly(minute(1), minute(2));
+            assertThat(epochs(store, minute(1), minute(3) + 1)).containsExactly(minute(1), minute(2), minute(3));
+            assertThat(epochs(store, minute(5), minute(9))).isEmpty();
+            assertThat(store.copyRange("NQ", minute(0), minute(2)).size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void lateBarsAreInsertedInOrderAndRepeatedBarsOverwritten() throws Exception {
+        try (MappedBarStore store = MappedBarStore.open(directory.resolve("NQ.bars"), 1024)) {
+            store.appendAll(bars(0, 2, 4));
+            store.appendAll(bars(3, 1));
+            OHLCBarBuffer restated = new OHLCBarBuffer(1);
+            restated.add(minute(2), 7, 9, 6, 8);
+            store.appendAll(restated);
+
+            assertThat(store.size()).isEqualTo(5);
+            assertThat(epochs(store, Long.MIN_VALUE, Long.MAX_VALUE)).containsExactly(minute(0), minute(1), minute(2), minute(3), minute(4));
+            long[] close = new long[1];
+            store.forEach(minute(2), minute(3), (epoch, o, h, l, c) -> close[0] = c);
+            assertThat(close[0]).isEqualTo(8);
+        }
+    }
+
+    @Test
+    void fullColumnsGrowWithoutLosingBars() throws Exception {
+        try (MappedBarStore store = MappedBarStore.open(directory.resolve("NQ.bars"), 1024)) {
+            long[] minutes = new long[3000];
+            for (int i = 0; i < minutes.length; i++) {
+                minutes[i] = i;
+            }
+            store.appendAll(bars(minutes));
+
+            assertThat(store.size()).isEqualTo(3000);
+            assertThat(store.lastEpochMillis()).isEqualTo(minute(2999));
+            assertThat(epochs(store, minute(1023), minute(1026))).containsExactly(minute(1023), minute(1024), minute(1025));
+        }
+    }
+
+    @Test
+    void cleanlyClosedStoreReopensWithItsBars() throws Exception {
+        Path file = directory.resolve("NQ.bars");
+        try (MappedBarStore store = MappedBarStore.open(file, 1024)) {
+            store.rebuild(sink -> sink.put(bars(0, 1, 2)));
+        }
+
+        try (MappedBarStore store = MappedBarStore.open(file, 1024)) {
+            assertThat(store.needsRebuild()).isFalse();
+            assertThat(store.size()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void storeNotClosedCleanlyNeedsRebuild() throws Exception {
+        Path file = directory.resolve("NQ.bars");
+        MappedBarStore crashed = MappedBarStore.open(file, 1024);
+        crashed.appendAll(bars(0, 1, 2));
+
+        try (MappedBarStore store = MappedBarStore.open(file, 1024)) {
+            assertThat(store.needsRebuild()).isTrue();
+            assertThat(store.size()).isZero();
+        }
+        crashed.close();
+    }
+
+    private static long minute(long n) {
+        return n * MINUTE;
+    }
+
+    private static OHLCBarBuffer bars(long... minutes) {
+        OHLCBarBuffer bars = new OHLCBarBuffer(minutes.length);
+        bars.setSymbol("NQ");
+        for (long m : minutes) {
+            bars.add(minute(m), m, m + 2, m - 1, m + 1);
+        }
+        return bars;
+    }
+
+    private static List<Long> epochs(MappedBarStore store, long from, long to) {
+        List<Long> epochs = new ArrayList<>();
+        store.forEach(from, to, (epoch, open, high, low, close) -> epochs.add(epoch));
+        return epochs;
+    }
+}
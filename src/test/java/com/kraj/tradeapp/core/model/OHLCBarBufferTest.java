@@ -0,0 +1,116 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the streaming decode of {@link OHLCBarBuffer}.
+ */
+class OHLCBarBufferTest {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void decodesBarsAndSkipsUnknownFields() throws IOException {
+        OHLCBarBuffer bars = read(
+            "{\"meta\": {\"src\": [1, 2]}, \"sym\": \"NQ\", \"ohlc\": [" +
+            "{\"d\": 1000, \"o\": 18234, \"h\": 18240.25, \"l\": \"18230.5\", \"c\": 18235.125, \"v\": 12}," +
+            "{\"x\": [{}], \"d\": 61000, \"o\": -1.5, \"h\": 2, \"l\": -2.000001, \"c\": \"+0.75\"}" +
+            "], \"tail\": null}"
+        );
+
+        assertThat(bars.getSymbol()).isEqualTo("NQ");
+        assertThat(bars.size()).isEqualTo(2);
+        assertThat(bars.epochMillis(0)).isEqualTo(1000L);
+        assertThat(bars.openScaled(0)).isEqualTo(18_234_000_000L);
+        assertThat(bars.highScaled(0)).isEqualTo(18_240_250_000L);
+        assertThat(bars.lowScaled(0)).isEqualTo(18_230_500_000L);
+        assertThat(bars.closeScaled(0)).isEqualTo(18_235_125_000L);
+        assertThat(bars.epochMillis(1)).isEqualTo(61_000L);
+        assertThat(bars.openScaled(1)).isEqualTo(-1_500_000L);
+        assertThat(bars.lowScaled(1)).isEqualTo(-2_000_001L);
+        assertThat(bars.closeScaled(1)).isEqualTo(750_000L);
+    }
+
+    @Test
+    void pricesOutsideThePlainFormFallBackToBigDecimal() throws IOException {
+        OHLCBarBuffer bars = read("{\"ohlc\": [{\"d\": 0, \"o\": 1.5e2, \"h\": \"1.23456789\", \"l\": 1.0000004, \"c\": 1E-6}]}");
+
+        assertThat(bars.openScaled(0)).isEqualTo(150_000_000L);
+        assertThat(bars.highScaled(0)).isEqualTo(1_234_568L);
+        assertThat(bars.lowScaled(0)).isEqualTo(1_000_000L);
+        assertThat(bars.closeScaled(0)).isEqualTo(1L);
+    }
+
+    @Test
+    void barWithoutAPriceIsRejected() {
+        assertThatThrownBy(() -> read("{\"ohlc\": [{\"d\": 5, \"o\": 1, \"h\": 1, \"l\": 1}]}"))
+            .isInstanceOf(JsonParseException.class)
+            .hasMessageContaining("OHLC bar at 5 is missing a price");
+    }
+
+    @Test
+    void payloadMustBeAnObject() {
+        assertThatThrownBy(() -> read("[1, 2]")).isInstanceOf(JsonParseException.class);
+    }
+
+    @Test
+    void parseScaledRejectsAnythingButPlainDecimals() {
+        assertThat(parseScaled("-12.5")).isEqualTo(-12_500_000L);
+        assertThat(parseScaled("+3")).isEqualTo(3_000_000L);
+        assertThat(parseScaled("0.000001")).isEqualTo(1L);
+        assertThat(parseScaled("7.")).isEqualTo(7_000_000L);
+        assertThat(parseScaled("")).isEqualTo(Long.MIN_VALUE);
+        assertThat(parseScaled("-")).isEqualTo(Long.MIN_VALUE);
+        assertThat(parseScaled(".")).isEqualTo(Long.MIN_VALUE);
+        assertThat(parseScaled("1.2.3")).isEqualTo(Long.MIN_VALUE);
+        assertThat(parseScaled("1e3")).isEqualTo(Long.MIN_VALUE);
+        assertThat(parseScaled("1.0000001")).isEqualTo(Long.MIN_VALUE);
+        assertThat(parseScaled("99999999999999999999")).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void scaledPricesConvertWithoutRounding() {
+        long scaled = OHLCBarBuffer.toScaled(new BigDecimal("18234.25"));
+
+        assertThat(scaled).isEqualTo(18_234_250_000L);
+        assertThat(OHLCBarBuffer.toDecimal(scaled)).isEqualTo(new BigDecimal("18234.250000"));
+        assertThat(OHLCBarBuffer.toDouble(scaled)).isEqualTo(18234.25);
+        assertThat(OHLCBarBuffer.toScaled(0.1 + 0.2)).isEqualTo(300_000L);
+    }
+
+    @Test
+    void clearedBufferIsReusedForTheNextPayload() throws IOException {
+        OHLCBarBuffer bars = new OHLCBarBuffer(16);
+        try (JsonParser parser = JSON.createParser("{\"sym\": \"ES\", \"ohlc\": [{\"d\": 1, \"o\": 1, \"h\": 1, \"l\": 1, \"c\": 1}]}")) {
+            bars.read(parser);
+        }
+        bars.clear();
+        try (JsonParser parser = JSON.createParser("{\"sym\": \"NQ\", \"ohlc\": [{\"d\": 2, \"o\": 2, \"h\": 2, \"l\": 2, \"c\": 2}]}")) {
+            bars.read(parser);
+        }
+
+        assertThat(bars.getSymbol()).isEqualTo("NQ");
+        assertThat(bars.size()).isEqualTo(1);
+        assertThat(bars.epochMillis(0)).isEqualTo(2L);
+    }
+
+    private static OHLCBarBuffer read(String json) throws IOException {
+        OHLCBarBuffer bars = new OHLCBarBuffer();
+        try (JsonParser parser = JSON.createParser(json)) {
+            bars.read(parser);
+        }
+        return bars;
+    }
+
+    private static long parseScaled(String text) {
+        return OHLCBarBuffer.parseScaled(text.toCharArray(), 0, text.length());
+    }
+}
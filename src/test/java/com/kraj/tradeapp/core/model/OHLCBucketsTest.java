@@ -0,0 +1,55 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link OHLCBuckets}.
+ */
+class OHLCBucketsTest {
+
+    @Test
+    void timeframeLabelsConvertToSeconds() {
+        assertThat(OHLCBuckets.timeframeSeconds("30s")).isEqualTo(30L);
+        assertThat(OHLCBuckets.timeframeSeconds("5m")).isEqualTo(300L);
+        assertThat(OHLCBuckets.timeframeSeconds(" 4H ")).isEqualTo(14_400L);
+        assertThat(OHLCBuckets.timeframeSeconds("1d")).isEqualTo(86_400L);
+        assertThatThrownBy(() -> OHLCBuckets.timeframeSeconds("1w")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void wallClockFollowsTheNewYorkOffset() {
+        assertThat(OHLCBuckets.nyLocalEpochSeconds(millis("2024-01-15T15:00:00Z"))).isEqualTo(local("2024-01-15T10:00"));
+        assertThat(OHLCBuckets.nyLocalEpochSeconds(millis("2024-07-15T15:00:00Z"))).isEqualTo(local("2024-07-15T11:00"));
+    }
+
+    @Test
+    void bucketsAreAnchoredAtTheSessionClose() {
+        // 4h buckets start at 17:00, 21:00, 01:00, 05:00, 09:00 and 13:00 New York
+        assertThat(OHLCBuckets.bucketStartSeconds(millis("2024-01-16T15:00:00Z"), 14_400)).isEqualTo(local("2024-01-16T09:00"));
+        assertThat(OHLCBuckets.bucketStartSeconds(millis("2024-01-16T22:30:00Z"), 3600)).isEqualTo(local("2024-01-16T17:00"));
+        // a daily bar runs from 17:00 to 17:00
+        assertThat(OHLCBuckets.bucketStartSeconds(millis("2024-01-16T21:59:00Z"), 86_400)).isEqualTo(local("2024-01-15T17:00"));
+        assertThat(OHLCBuckets.bucketStartSeconds(millis("2024-01-16T22:00:00Z"), 86_400)).isEqualTo(local("2024-01-16T17:00"));
+    }
+
+    @Test
+    void bucketsStayOnTheWallClockGridAcrossDst() {
+        assertThat(OHLCBuckets.bucketStartSeconds(millis("2024-03-08T15:10:00Z"), 900)).isEqualTo(local("2024-03-08T10:00"));
+        assertThat(OHLCBuckets.bucketStartSeconds(millis("2024-03-11T14:10:00Z"), 900)).isEqualTo(local("2024-03-11T10:00"));
+        assertThat(OHLCBuckets.bucketStartSeconds(millis("2024-11-04T15:10:00Z"), 900)).isEqualTo(local("2024-11-04T10:00"));
+    }
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    private static long local(String dateTime) {
+        return LocalDateTime.parse(dateTime).toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,116 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link OHLCDownsampler}.
+ */
+class OHLCDownsamplerTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void intervalIsTheSmallestMultipleThatFits() {
+        assertThat(OHLCDownsampler.intervalFor(86_400, 60, 1000)).isEqualTo(120);
+        assertThat(OHLCDownsampler.intervalFor(60_000, 60, 1000)).isEqualTo(60);
+        assertThat(OHLCDownsampler.intervalFor(60_001, 60, 1000)).isEqualTo(120);
+        assertThat(OHLCDownsampler.intervalFor(0, 300, 1000)).isEqualTo(300);
+    }
+
+    @Test
+    void rebucketerFoldsBarsOnTheSessionGrid() {
+        // 10:00 to 10:07 New York
+        long start = Instant.parse("2024-03-05T15:00:00Z").toEpochMilli();
+        OHLCDownsampler.Rebucketer rebucketer = new OHLCDownsampler.Rebucketer("NQ", 300, 4);
+        for (int i = 0; i < 8; i++) {
+            bar(rebucketer, start + i * MINUTE, i + 1);
+        }
+
+        OHLCBarBuffer out = rebucketer.finish();
+
+        assertThat(out.size()).isEqualTo(2);
+        assertThat(out.epochMillis(0)).isEqualTo(start);
+        assertThat(out.openScaled(0)).isEqualTo(OHLCBarBuffer.toScaled(1.0));
+        assertThat(out.highScaled(0)).isEqualTo(OHLCBarBuffer.toScaled(5.5));
+        assertThat(out.lowScaled(0)).isEqualTo(OHLCBarBuffer.toScaled(0.5));
+        assertThat(out.closeScaled(0)).isEqualTo(OHLCBarBuffer.toScaled(5.0));
+        assertThat(out.epochMillis(1)).isEqualTo(start + 5 * MINUTE);
+        assertThat(out.openScaled(1)).isEqualTo(OHLCBarBuffer.toScaled(6.0));
+        assertThat(out.closeScaled(1)).isEqualTo(OHLCBarBuffer.toScaled(8.0));
+    }
+
+    @Test
+    void bucketStartingBeforeSpringForwardKeepsItsStandardTimeStart() {
+        // 4h bucket from 01:00 EST; its first bar is at 03:00 EDT
+        OHLCDownsampler.Rebucketer rebucketer = new OHLCDownsampler.Rebucketer("BTCUSDT", 4 * 3600, 1);
+        bar(rebucketer, Instant.parse("2024-03-10T07:00:00Z").toEpochMilli(), 1);
+        bar(rebucketer, Instant.parse("2024-03-10T07:01:00Z").toEpochMilli(), 2);
+
+        OHLCBarBuffer out = rebucketer.finish();
+
+        assertThat(out.size()).isEqualTo(1);
+        assertThat(Instant.ofEpochMilli(out.epochMillis(0))).isEqualTo(Instant.parse("2024-03-10T06:00:00Z"));
+    }
+
+    @Test
+    void bucketStartingBeforeFallBackKeepsItsDaylightTimeStart() {
+        // 4h bucket from the first 01:00 (EDT); its first bar is at 02:00 EST
+        OHLCDownsampler.Rebucketer rebucketer = new OHLCDownsampler.Rebucketer("BTCUSDT", 4 * 3600, 1);
+        bar(rebucketer, Instant.parse("2024-11-03T07:00:00Z").toEpochMilli(), 1);
+
+        OHLCBarBuffer out = rebucketer.finish();
+
+        assertThat(Instant.ofEpochMilli(out.epochMillis(0))).isEqualTo(Instant.parse("2024-11-03T05:00:00Z"));
+    }
+
+    @Test
+    void lttbReturnsSmallInputsUnchanged() {
+        OHLCBarBuffer bars = flat(5);
+
+        assertThat(OHLCDownsampler.lttb(bars, 5)).isSameAs(bars);
+        assertThat(OHLCDownsampler.lttb(bars, 2)).isSameAs(bars);
+    }
+
+    @Test
+    void lttbKeepsTheEndsAndTheSpike() {
+        OHLCBarBuffer bars = new OHLCBarBuffer();
+        for (int i = 0; i < 100; i++) {
+            long price = OHLCBarBuffer.toScaled(i == 50 ? 100.0 : 1.0);
+            bars.add(i * MINUTE, price, price, price, price);
+        }
+
+        OHLCBarBuffer out = OHLCDownsampler.lttb(bars, 10);
+
+        assertThat(out.size()).isEqualTo(10);
+        assertThat(out.epochMillis(0)).isZero();
+        assertThat(out.epochMillis(9)).isEqualTo(99 * MINUTE);
+        boolean spikeKept = false;
+        for (int i = 1; i < out.size(); i++) {
+            assertThat(out.epochMillis(i)).isGreaterThan(out.epochMillis(i - 1));
+            spikeKept |= out.epochMillis(i) == 50 * MINUTE;
+        }
+        assertThat(spikeKept).isTrue();
+    }
+
+    private static void bar(OHLCDownsampler.Rebucketer rebucketer, long epochMillis, double price) {
+        rebucketer.bar(
+            epochMillis,
+            OHLCBarBuffer.toScaled(price),
+            OHLCBarBuffer.toScaled(price + 0.5),
+            OHLCBarBuffer.toScaled(price - 0.5),
+            OHLCBarBuffer.toScaled(price)
+        );
+    }
+
+    private static OHLCBarBuffer flat(int size) {
+        OHLCBarBuffer bars = new OHLCBarBuffer();
+        bars.setSymbol("NQ");
+        for (int i = 0; i < size; i++) {
+            bars.add(i * MINUTE, 1, 1, 1, 1);
+        }
+        return bars;
+    }
+}
@@ -0,0 +1,49 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link Quadrant#of(long, long, long)}.
+ */
+class QuadrantTest {
+
+    private static final long LOW = OHLCBarBuffer.toScaled(100.0);
+    private static final long HIGH = OHLCBarBuffer.toScaled(200.0);
+
+    @Test
+    void pricesOutsideTheRangeAreBreaches() {
+        assertThat(Quadrant.of(HIGH + 1, LOW, HIGH)).isEqualTo(Quadrant.BREACH_ABOVE_RANGE);
+        assertThat(Quadrant.of(LOW - 1, LOW, HIGH)).isEqualTo(Quadrant.BREACH_BELOW_RANGE);
+    }
+
+    @Test
+    void quadrantsIncludeTheirLowerBoundary() {
+        assertThat(Quadrant.of(LOW, LOW, HIGH)).isEqualTo(Quadrant.Q4_0_25);
+        assertThat(Quadrant.of(price(125.0), LOW, HIGH)).isEqualTo(Quadrant.Q3_25_50);
+        assertThat(Quadrant.of(price(150.0), LOW, HIGH)).isEqualTo(Quadrant.Q2_50_75);
+        assertThat(Quadrant.of(price(175.0), LOW, HIGH)).isEqualTo(Quadrant.Q1_75_100);
+        assertThat(Quadrant.of(HIGH, LOW, HIGH)).isEqualTo(Quadrant.Q1_75_100);
+    }
+
+    @Test
+    void levelsAreExactJustBelowABoundary() {
+        // 124.999999 is one scaled unit under the 25% level
+        assertThat(Quadrant.of(price(125.0) - 1, LOW, HIGH)).isEqualTo(Quadrant.Q4_0_25);
+        assertThat(Quadrant.of(price(175.0) - 1, LOW, HIGH)).isEqualTo(Quadrant.Q2_50_75);
+    }
+
+    @Test
+    void rangeSizeNotDivisibleByFourIsNotRounded() {
+        // range 0..3 scaled units: the 25% level is 0.75, so 1 is already in Q3
+        assertThat(Quadrant.of(0, 0, 3)).isEqualTo(Quadrant.Q4_0_25);
+        assertThat(Quadrant.of(1, 0, 3)).isEqualTo(Quadrant.Q3_25_50);
+        assertThat(Quadrant.of(2, 0, 3)).isEqualTo(Quadrant.Q2_50_75);
+        assertThat(Quadrant.of(3, 0, 3)).isEqualTo(Quadrant.Q1_75_100);
+    }
+
+    private static long price(double value) {
+        return OHLCBarBuffer.toScaled(value);
+    }
+}
@@ -0,0 +1,67 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RollingExtremes}.
+ */
+class RollingExtremesTest {
+
+    @Test
+    void emptyWindowReportsSentinels() {
+        RollingExtremes extremes = new RollingExtremes(3);
+
+        assertThat(extremes.high()).isEqualTo(Long.MIN_VALUE);
+        assertThat(extremes.low()).isEqualTo(Long.MAX_VALUE);
+        assertThat(extremes.isFull()).isFalse();
+    }
+
+    @Test
+    void oldBarsLeaveTheWindow() {
+        RollingExtremes extremes = new RollingExtremes(3);
+        extremes.push(10, 1);
+        extremes.push(8, 3);
+        extremes.push(9, 2);
+        assertThat(extremes.high()).isEqualTo(10);
+        assertThat(extremes.low()).isEqualTo(1);
+        assertThat(extremes.isFull()).isTrue();
+
+        extremes.push(7, 4);
+
+        assertThat(extremes.high()).isEqualTo(9);
+        assertThat(extremes.low()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesABruteForceScanOverRandomBars() {
+        Random random = new Random(42);
+        for (int period : new int[] { 1, 2, 5, 20 }) {
+            RollingExtremes extremes = new RollingExtremes(period);
+            long[] highs = new long[1_000];
+            long[] lows = new long[1_000];
+            for (int i = 0; i < highs.length; i++) {
+                lows[i] = random.nextInt(100);
+                highs[i] = lows[i] + random.nextInt(10);
+                extremes.push(highs[i], lows[i]);
+
+                long high = Long.MIN_VALUE;
+                long low = Long.MAX_VALUE;
+                for (int j = Math.max(0, i - period + 1); j <= i; j++) {
+                    high = Math.max(high, highs[j]);
+                    low = Math.min(low, lows[j]);
+                }
+                assertThat(extremes.high()).as("high of bar %d, period %d", i, period).isEqualTo(high);
+                assertThat(extremes.low()).as("low of bar %d, period %d", i, period).isEqualTo(low);
+            }
+        }
+    }
+
+    @Test
+    void periodMustBePositive() {
+        assertThatThrownBy(() -> new RollingExtremes(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
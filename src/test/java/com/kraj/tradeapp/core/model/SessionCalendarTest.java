@@ -0,0 +1,106 @@
+package com.kraj.tradeapp.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link SessionCalendar}.
+ */
+class SessionCalendarTest {
+
+    private static final DateTimeFormatter TIME_INDEX = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    @Test
+    void matchesJavaTimeAroundDstChanges() {
+        // every minute of the spring-forward and fall-back weekends, plus the seconds around each change
+        for (String from : new String[] { "2024-03-08T00:00:00Z", "2024-11-01T00:00:00Z", "2099-03-06T00:00:00Z" }) {
+            long start = Instant.parse(from).getEpochSecond();
+            for (long second = start; second < start + 4 * 86_400; second += 60) {
+                assertMatches(second);
+            }
+        }
+        long springForward = Instant.parse("2024-03-10T07:00:00Z").getEpochSecond();
+        long fallBack = Instant.parse("2024-11-03T06:00:00Z").getEpochSecond();
+        for (int delta = -2; delta <= 2; delta++) {
+            assertMatches(springForward + delta);
+            assertMatches(fallBack + delta);
+        }
+    }
+
+    @Test
+    void instantsOutsideThePrecomputedYearsFallBackToZoneRules() {
+        assertMatches(Instant.parse("1995-07-04T12:00:00Z").getEpochSecond());
+        assertMatches(Instant.parse("2105-01-02T12:00:00Z").getEpochSecond());
+    }
+
+    @Test
+    void sessionRunsFromSixPmToFivePmAndIsNamedByItsClosingDate() {
+        // Sunday 18:00 EDT opens Monday's session
+        long sundayOpen = millis("2024-03-10T22:00:00Z");
+        assertThat(SessionCalendar.isSessionOpen(sundayOpen - 60_000)).isFalse();
+        assertThat(SessionCalendar.isSessionOpen(sundayOpen)).isTrue();
+        assertThat(SessionCalendar.sessionId(sundayOpen)).isEqualTo(20240311);
+        assertThat(SessionCalendar.sessionOpenMillis(sundayOpen + 3_600_000)).isEqualTo(sundayOpen);
+        assertThat(SessionCalendar.sessionCloseMillis(sundayOpen)).isEqualTo(millis("2024-03-11T21:00:00Z"));
+
+        // daily halt 17:00-18:00
+        assertThat(SessionCalendar.isSessionOpen(millis("2024-03-12T20:59:00Z"))).isTrue();
+        assertThat(SessionCalendar.isSessionOpen(millis("2024-03-12T21:00:00Z"))).isFalse();
+        assertThat(SessionCalendar.isSessionOpen(millis("2024-03-12T22:00:00Z"))).isTrue();
+        assertThat(SessionCalendar.sessionId(millis("2024-03-12T20:59:00Z"))).isEqualTo(20240312);
+        assertThat(SessionCalendar.sessionId(millis("2024-03-12T22:00:00Z"))).isEqualTo(20240313);
+
+        // Friday 17:00 to Sunday 18:00 is closed
+        assertThat(SessionCalendar.isSessionOpen(millis("2024-03-15T20:59:00Z"))).isTrue();
+        assertThat(SessionCalendar.isSessionOpen(millis("2024-03-15T21:00:00Z"))).isFalse();
+        assertThat(SessionCalendar.isSessionOpen(millis("2024-03-16T15:00:00Z"))).isFalse();
+    }
+
+    @Test
+    void tradingSessionWindowsAreInclusive() {
+        assertThat(SessionCalendar.tradingSession(millis("2024-01-16T14:29:00Z"))).isNull();
+        assertThat(SessionCalendar.tradingSession(millis("2024-01-16T14:30:00Z"))).isEqualTo(TradingSession.NEW_YORK_AM);
+        assertThat(SessionCalendar.tradingSession(millis("2024-01-16T16:59:00Z"))).isEqualTo(TradingSession.NEW_YORK_AM);
+        assertThat(SessionCalendar.tradingSession(millis("2024-01-16T17:00:00Z"))).isEqualTo(TradingSession.NEW_YORK_LUNCH);
+        // 09:30 EDT
+        assertThat(SessionCalendar.tradingSession(millis("2024-07-16T13:30:00Z"))).isEqualTo(TradingSession.NEW_YORK_AM);
+    }
+
+    private static void assertMatches(long epochSecond) {
+        ZonedDateTime ny = Instant.ofEpochSecond(epochSecond).atZone(SessionCalendar.NEW_YORK);
+        long epochMillis = epochSecond * 1000;
+        LocalDateTime local = ny.toLocalDateTime();
+
+        assertThat(SessionCalendar.offsetSeconds(epochSecond)).isEqualTo(ny.getOffset().getTotalSeconds());
+        assertThat(SessionCalendar.nyLocalEpochSeconds(epochMillis)).isEqualTo(local.toEpochSecond(ZoneOffset.UTC));
+        assertThat(SessionCalendar.timeIndex(epochMillis)).isEqualTo(Long.parseLong(local.format(TIME_INDEX)));
+        assertThat(SessionCalendar.isSessionOpen(epochMillis)).isEqualTo(isOpen(local));
+        // the repeated hour of the fall-back resolves to its first occurrence, as in java.time
+        assertThat(SessionCalendar.toEpochSeconds(local.toEpochSecond(ZoneOffset.UTC))).isEqualTo(
+            local.atZone(SessionCalendar.NEW_YORK).toEpochSecond()
+        );
+    }
+
+    private static boolean isOpen(LocalDateTime local) {
+        LocalTime time = local.toLocalTime();
+        boolean afterClose = !time.isBefore(LocalTime.of(17, 0));
+        boolean afterOpen = !time.isBefore(LocalTime.of(18, 0));
+        return switch (local.getDayOfWeek()) {
+            case FRIDAY -> !afterClose;
+            case SATURDAY -> false;
+            case SUNDAY -> afterOpen;
+            default -> !afterClose || afterOpen;
+        };
+    }
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+}
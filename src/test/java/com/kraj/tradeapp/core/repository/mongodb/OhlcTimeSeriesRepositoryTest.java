@@ -0,0 +1,75 @@
+package com.kraj.tradeapp.core.repository.mongodb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.mongodb.client.MongoCursor;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Test class for the reads of {@link OhlcTimeSeriesRepository}.
+ */
+class OhlcTimeSeriesRepositoryTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class, RETURNS_DEEP_STUBS);
+    private final OhlcTimeSeriesRepository repository = new OhlcTimeSeriesRepository(mongoTemplate);
+
+    @Test
+    void restatedMinuteKeepsTheCopyInsertedLast() {
+        ObjectId first = new ObjectId("65e72000aaaaaaaaaa000001");
+        ObjectId stale = new ObjectId("65e72000aaaaaaaaaa000002");
+        // inserted a minute later
+        ObjectId restated = new ObjectId("65e7203cbbbbbbbbbb000001");
+        // both copies stored while the restatement is in flight, in either order
+        stored(bar(first, 0, 1), bar(restated, MINUTE, 3), bar(stale, MINUTE, 2));
+
+        OHLCBarBuffer bars = repository.findBars("NQ", 0, 2 * MINUTE);
+
+        assertThat(bars.size()).isEqualTo(2);
+        assertThat(bars.closeScaled(1)).isEqualTo(OHLCBarBuffer.toScaled(3.0));
+
+        stored(bar(stale, MINUTE, 2), bar(restated, MINUTE, 3));
+
+        assertThat(repository.findBars("NQ", 0, 2 * MINUTE).closeScaled(0)).isEqualTo(OHLCBarBuffer.toScaled(3.0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stored(Document... documents) {
+        Iterator<Document> iterator = List.of(documents).iterator();
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(
+            mongoTemplate
+                .getCollection(OhlcTimeSeriesRepository.COLLECTION)
+                .find(any(Bson.class))
+                .projection(any())
+                .sort(any())
+                .batchSize(anyInt())
+                .iterator()
+        ).thenReturn(cursor);
+    }
+
+    private static Document bar(ObjectId id, long epochMillis, double close) {
+        return new Document("_id", id)
+            .append("timestamp", new Date(epochMillis))
+            .append("open", 1.0)
+            .append("high", 4.0)
+            .append("low", 0.5)
+            .append("close", close);
+    }
+}
@@ -0,0 +1,179 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Test class for the warm-up and reads of {@link BarCacheService}.
+ */
+class BarCacheServiceTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @TempDir
+    Path directory;
+
+    private final OhlcJdbcRepository ohlcJdbcRepository = mock(OhlcJdbcRepository.class);
+    private final List<BarCacheService> services = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(BarCacheService::close);
+    }
+
+    @Test
+    void warmUpLoadsAMissingStoreFromTheTable() {
+        table(0, 1, 2);
+
+        BarCacheService cache = cache();
+        cache.warmUp();
+
+        assertThat(cache.isLoaded("NQ")).isTrue();
+        assertThat(epochs(cache, 0, 3 * MINUTE)).containsExactly(0L, MINUTE, 2 * MINUTE);
+    }
+
+    @Test
+    void cleanStoreMatchingTheTableIsReusedAfterARestart() {
+        table(0, 1, 2);
+        cache().warmUp();
+        services.get(0).close();
+
+        BarCacheService restarted = cache();
+        restarted.warmUp();
+
+        assertThat(restarted.isLoaded("NQ")).isTrue();
+        verify(ohlcJdbcRepository, times(1)).streamBars(eq("NQ"), any(MappedBarStore.Sink.class));
+    }
+
+    @Test
+    void holeFilledBelowTheTailIsNoticedByTheCount() {
+        table(0, 2);
+        cache().warmUp();
+        services.get(0).close();
+        // a backfill inserted minute 1; the newest bar is unchanged
+        table(0, 1, 2);
+
+        BarCacheService restarted = cache();
+        restarted.warmUp();
+
+        verify(ohlcJdbcRepository, times(2)).streamBars(eq("NQ"), any(MappedBarStore.Sink.class));
+        assertThat(epochs(restarted, 0, 3 * MINUTE)).containsExactly(0L, MINUTE, 2 * MINUTE);
+    }
+
+    @Test
+    void appendedBarsAreReadHalfOpen() {
+        table(0);
+        BarCacheService cache = cache();
+        cache.warmUp();
+
+        cache.append(bars(1, 2));
+
+        assertThat(epochs(cache, MINUTE, 2 * MINUTE)).containsExactly(MINUTE);
+        assertThat(cache.getBars("NQ", Instant.EPOCH, Instant.ofEpochMilli(3 * MINUTE)).orElseThrow().size()).isEqualTo(3);
+        assertThat(cache.forEachBar("ES", Instant.EPOCH, Instant.ofEpochMilli(MINUTE), (t, o, h, l, c) -> {})).isFalse();
+    }
+
+    @Test
+    void symbolNotLoadedIsRebuiltOffTheAppendingThread() throws Exception {
+        table(0);
+        BarCacheService cache = cache();
+        cache.warmUp();
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OHLCBarBuffer rows = bars("ES", 0, 1);
+        doAnswer(invocation -> {
+            streaming.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            invocation.<MappedBarStore.Sink>getArgument(1).put(rows);
+            return rows.size();
+        })
+            .when(ohlcJdbcRepository)
+            .streamBars(eq("ES"), any(MappedBarStore.Sink.class));
+
+        cache.append(bars("ES", 0));
+        assertThat(streaming.await(5, TimeUnit.SECONDS)).isTrue();
+        // the rebuild is streaming: these return at once and queue one more rebuild between them
+        cache.append(bars("ES", 1));
+        cache.append(bars("ES", 1));
+        assertThat(cache.isLoaded("ES")).isFalse();
+        release.countDown();
+
+        verify(ohlcJdbcRepository, timeout(5000).times(2)).streamBars(eq("ES"), any(MappedBarStore.Sink.class));
+        assertThat(cache.isLoaded("ES")).isTrue();
+    }
+
+    @Test
+    void appendBeforeTheWarmUpIsLeftToIt() {
+        table(0, 1);
+        BarCacheService cache = cache();
+
+        cache.append(bars(1));
+        cache.warmUp();
+
+        verify(ohlcJdbcRepository, times(1)).streamBars(eq("NQ"), any(MappedBarStore.Sink.class));
+        assertThat(epochs(cache, 0, 2 * MINUTE)).containsExactly(0L, MINUTE);
+    }
+
+    private BarCacheService cache() {
+        BarCacheService cache = new BarCacheService(ohlcJdbcRepository);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "cacheDir", directory.toString());
+        ReflectionTestUtils.setField(cache, "initialCapacity", 1024);
+        services.add(cache);
+        return cache;
+    }
+
+    // ohlc_data of NQ holds one bar at each of the given minutes
+    private void table(int... minutes) {
+        OHLCBarBuffer rows = bars(minutes);
+        doReturn(Map.of("NQ", Instant.ofEpochMilli(rows.epochMillis(rows.size() - 1)))).when(ohlcJdbcRepository).findLatestBars();
+        doReturn((long) rows.size()).when(ohlcJdbcRepository).countBars("NQ");
+        doAnswer(invocation -> {
+            invocation.<MappedBarStore.Sink>getArgument(1).put(rows);
+            return rows.size();
+        })
+            .when(ohlcJdbcRepository)
+            .streamBars(eq("NQ"), any(MappedBarStore.Sink.class));
+    }
+
+    private static OHLCBarBuffer bars(int... minutes) {
+        return bars("NQ", minutes);
+    }
+
+    private static OHLCBarBuffer bars(String symbol, int... minutes) {
+        OHLCBarBuffer bars = new OHLCBarBuffer();
+        bars.setSymbol(symbol);
+        for (int minute : minutes) {
+            bars.add(minute * MINUTE, 1, 2, 0, minute);
+        }
+        return bars;
+    }
+
+    private static List<Long> epochs(BarCacheService cache, long from, long to) {
+        List<Long> epochs = new ArrayList<>();
+        cache.forEachBar("NQ", Instant.ofEpochMilli(from), Instant.ofEpochMilli(to), (t, o, h, l, c) -> epochs.add(t));
+        return epochs;
+    }
+}
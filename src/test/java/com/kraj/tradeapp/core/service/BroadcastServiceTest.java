@@ -0,0 +1,99 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+/**
+ * Test class for the conflated broadcasts of {@link BroadcastService}.
+ */
+class BroadcastServiceTest {
+
+    private static final String TOPIC = "/topic/dealing-range/NQ";
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SubscriptionRegistryService subscriptionRegistry = mock(SubscriptionRegistryService.class);
+    private final BroadcastService broadcastService = new BroadcastService(messagingTemplate, new ObjectMapper(), subscriptionRegistry);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(subscriptionRegistry.hasSubscribers(TOPIC)).thenReturn(true);
+    }
+
+    @Test
+    void latestPayloadDropsThePendingConflatedOne() {
+        recordSends();
+        broadcastService.broadcastConflated("NQ", Map.of("state", "old"), TOPIC);
+
+        broadcastService.broadcastLatest("NQ", Map.of("state", "new"), TOPIC);
+        broadcastService.flushConflated();
+
+        assertThat(sent).containsExactly("{\"state\":\"new\"}");
+    }
+
+    @Test
+    void conflatedPayloadBeingFlushedIsNotOvertakenByANewerOne() throws Exception {
+        CountDownLatch oldSending = new CountDownLatch(1);
+        CountDownLatch releaseOld = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            String body = new String(invocation.<Message<byte[]>>getArgument(1).getPayload(), StandardCharsets.UTF_8);
+            if (body.contains("old")) {
+                oldSending.countDown();
+                assertThat(releaseOld.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            sent.add(body);
+            return null;
+        })
+            .when(messagingTemplate)
+            .send(eq(TOPIC), any(Message.class));
+        broadcastService.broadcastConflated("NQ", Map.of("state", "old"), TOPIC);
+
+        Thread flusher = new Thread(broadcastService::flushConflated);
+        flusher.start();
+        assertThat(oldSending.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread latest = new Thread(() -> broadcastService.broadcastLatest("NQ", Map.of("state", "new"), TOPIC));
+        latest.start();
+        awaitBlockedOrDone(latest);
+
+        // the newer payload waits for the older one to go out
+        assertThat(latest.getState()).isEqualTo(Thread.State.BLOCKED);
+        releaseOld.countDown();
+        flusher.join(5000);
+        latest.join(5000);
+
+        assertThat(sent).containsExactly("{\"state\":\"old\"}", "{\"state\":\"new\"}");
+    }
+
+    private void recordSends() {
+        doAnswer(invocation -> sent.add(new String(invocation.<Message<byte[]>>getArgument(1).getPayload(), StandardCharsets.UTF_8)))
+            .when(messagingTemplate)
+            .send(eq(TOPIC), any(Message.class));
+    }
+
+    private static void awaitBlockedOrDone(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (
+            thread.getState() != Thread.State.BLOCKED &&
+            thread.getState() != Thread.State.TERMINATED &&
+            System.nanoTime() < deadline
+        ) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCCandle;
+import com.kraj.tradeapp.core.repository.AggregatedSqlOHLCRepository;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Test class for the {@link CandleEngineService}.
+ */
+class CandleEngineServiceTest {
+
+    // 10:00 New York, on the 5m grid
+    private static final long T0 = Instant.parse("2024-03-05T15:00:00Z").toEpochMilli();
+
+    private final OhlcJdbcRepository ohlcJdbcRepository = mock(OhlcJdbcRepository.class);
+    private final CandleEngineService candleEngineService = new CandleEngineService(
+        ohlcJdbcRepository,
+        mock(AggregatedSqlOHLCRepository.class)
+    );
+    private final List<List<OHLCCandle>> upserts = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(candleEngineService, "timeframes", new String[] { "5m" });
+    }
+
+    @Test
+    void bucketChangeUpsertsTheClosedBarAndTheNewFormingBar() {
+        recordUpserts();
+        candleEngineService.onBars(bars(T0, 1, T0 + 60_000, 3));
+
+        List<OHLCCandle> changed = candleEngineService.onBars(bars(T0 + 300_000, 2));
+
+        assertThat(changed).hasSize(2);
+        assertThat(changed.get(0).closed()).isTrue();
+        assertThat(changed.get(0).open()).isEqualTo(OHLCBarBuffer.toScaled(1.0));
+        assertThat(changed.get(0).close()).isEqualTo(OHLCBarBuffer.toScaled(3.0));
+        assertThat(changed.get(1).closed()).isFalse();
+        // stored as the New York wall-clock epoch of 10:05
+        assertThat(changed.get(1).bucketStartSeconds()).isEqualTo(Instant.parse("2024-03-05T10:05:00Z").getEpochSecond());
+        // identified by the bucket start, not by its first bar
+        assertThat(changed.get(0).nyDateTimeId()).isEqualTo(202403051000L);
+        assertThat(changed.get(1).nyDateTimeId()).isEqualTo(202403051005L);
+        assertThat(upserts).hasSize(2);
+    }
+
+    @Test
+    void payloadsOfASymbolAreStoredInTheOrderTheyWereApplied() throws Exception {
+        CountDownLatch firstUpsertStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstUpsert = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            upserts.add(List.copyOf(invocation.getArgument(0)));
+            if (upserts.size() == 1) {
+                firstUpsertStarted.countDown();
+                assertThat(releaseFirstUpsert.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            return null;
+        })
+            .when(ohlcJdbcRepository)
+            .upsertCandles(anyList());
+
+        Thread first = new Thread(() -> candleEngineService.onBars(bars(T0, 1)));
+        first.start();
+        assertThat(firstUpsertStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread second = new Thread(() -> candleEngineService.onBars(bars(T0 + 60_000, 2)));
+        second.start();
+        awaitBlockedOrDone(second);
+
+        // the second payload waits for the first one's write instead of overtaking it
+        assertThat(second.getState()).isEqualTo(Thread.State.BLOCKED);
+        assertThat(candleEngineService.getFormingCandles("NQ")).hasSize(1);
+        releaseFirstUpsert.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        assertThat(upserts)
+            .extracting(batch -> batch.get(0).close())
+            .containsExactly(OHLCBarBuffer.toScaled(1.0), OHLCBarBuffer.toScaled(2.0));
+    }
+
+    private void recordUpserts() {
+        doAnswer(invocation -> upserts.add(List.copyOf(invocation.getArgument(0))))
+            .when(ohlcJdbcRepository)
+            .upsertCandles(anyList());
+    }
+
+    private static void awaitBlockedOrDone(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (
+            thread.getState() != Thread.State.BLOCKED &&
+            thread.getState() != Thread.State.TERMINATED &&
+            System.nanoTime() < deadline
+        ) {
+            Thread.sleep(1);
+        }
+    }
+
+    // bars given as (epochMillis, price) pairs, flat at the price
+    private static OHLCBarBuffer bars(long... timesAndPrices) {
+        OHLCBarBuffer bars = new OHLCBarBuffer();
+        bars.setSymbol("NQ");
+        for (int i = 0; i < timesAndPrices.length; i += 2) {
+            long price = OHLCBarBuffer.toScaled((double) timesAndPrices[i + 1]);
+            bars.add(timesAndPrices[i], price, price, price, price);
+        }
+        return bars;
+    }
+}
@@ -0,0 +1,104 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.kraj.tradeapp.core.model.dto.NotificationEventDto;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Test class for the dashboard event window of {@link DashboardService}.
+ */
+class DashboardServiceTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.now(ZoneOffset.UTC).minusHours(1);
+
+    private final NotificationProcessorService notificationProcessorService = mock(NotificationProcessorService.class);
+    private final BroadcastService broadcastService = mock(BroadcastService.class);
+    private final DashboardService dashboardService = new DashboardService(notificationProcessorService, broadcastService);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dashboardService, "eventWindowHours", 24);
+        ReflectionTestUtils.setField(dashboardService, "eventWindowMaxSize", 5000);
+        ReflectionTestUtils.setField(dashboardService, "eventOverlapIds", 100L);
+        when(notificationProcessorService.getNotificationEvents(anyString(), any(), any())).thenReturn(List.of());
+        when(notificationProcessorService.getNotificationEventsAfter(anyString(), anyLong())).thenReturn(List.of());
+        when(notificationProcessorService.getNotificationEvents(eq("NQ"), any(), any())).thenReturn(List.of(event(3), event(1)));
+    }
+
+    @Test
+    void lateCommittedLowerIdIsPickedUpByTheOverlap() {
+        dashboardService.pushEvents();
+        // id 2 committed after id 3 was already seen
+        when(notificationProcessorService.getNotificationEventsAfter("NQ", 0L)).thenReturn(List.of(event(1), event(2), event(3), event(4)));
+
+        dashboardService.pushEvents();
+
+        verify(broadcastService).broadcast(List.of(event(4), event(2)), "/topic/v2/events/NQ");
+        assertThat(dashboardService.getRecentEvents("NQ")).extracting(NotificationEventDto::getId).containsExactly(4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void eventsAlreadyInTheWindowAreNotPushedAgain() {
+        dashboardService.pushEvents();
+        when(notificationProcessorService.getNotificationEventsAfter("NQ", 0L)).thenReturn(List.of(event(1), event(3)));
+
+        dashboardService.pushEvents();
+
+        verify(broadcastService, never()).broadcast(any(), eq("/topic/v2/events/NQ"));
+        assertThat(dashboardService.getRecentEvents("NQ")).extracting(NotificationEventDto::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void watermarkIsSeededFromTheLatestIdWhenTheWindowIsEmpty() {
+        when(notificationProcessorService.getLatestNotificationEventId("ES")).thenReturn(1001L);
+
+        dashboardService.pushEvents();
+
+        verify(notificationProcessorService).getNotificationEventsAfter("ES", 901L);
+        verify(notificationProcessorService, never()).getNotificationEventsAfter("ES", 0L);
+    }
+
+    @Test
+    void eventsOlderThanTheWindowStillMoveTheWatermark() {
+        // nothing in the last 24h; the first poll reads history older than the window
+        when(notificationProcessorService.getNotificationEventsAfter("ES", 0L)).thenReturn(List.of(old(1000), old(1001)));
+        dashboardService.pushEvents();
+
+        dashboardService.pushEvents();
+
+        verify(notificationProcessorService).getNotificationEventsAfter("ES", 0L);
+        verify(notificationProcessorService).getNotificationEventsAfter("ES", 901L);
+        verify(broadcastService, never()).broadcast(any(), eq("/topic/v2/events/ES"));
+        assertThat(dashboardService.getRecentEvents("ES")).isEmpty();
+    }
+
+    private static NotificationEventDto event(long id) {
+        return NotificationEventDto.builder()
+            .id(id)
+            .symbol("NQ")
+            .datetime(START.plusMinutes(id).toString())
+            .build();
+    }
+
+    private static NotificationEventDto old(long id) {
+        return NotificationEventDto.builder()
+            .id(id)
+            .symbol("ES")
+            .datetime(START.minusHours(48).plusMinutes(id).toString())
+            .build();
+    }
+}
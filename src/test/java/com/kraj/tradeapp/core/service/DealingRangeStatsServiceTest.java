@@ -0,0 +1,84 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.kraj.tradeapp.core.model.DealingRangeHistory;
+import com.kraj.tradeapp.core.model.DealingRangeSnapshot;
+import com.kraj.tradeapp.core.model.EventInterval;
+import com.kraj.tradeapp.core.model.Quadrant;
+import com.kraj.tradeapp.core.model.SessionCalendar;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Test class for the quadrant statistics window of {@link DealingRangeStatsService}.
+ */
+class DealingRangeStatsServiceTest {
+
+    private static final String HISTORY = "dealing_range_history";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final DealingRangeStateCache dealingRangeStateCache = mock(DealingRangeStateCache.class);
+    private final DealingRangeStatsService dealingRangeStatsService = new DealingRangeStatsService(mongoTemplate, dealingRangeStateCache);
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(DealingRangeStatsService.COLLECTION), eq(Document.class))).thenReturn(
+            new AggregationResults<>(List.of(new Document("_id", "Q3_25_50").append("events", 2).append("seconds", 100L)), new Document())
+        );
+        when(mongoTemplate.find(any(Query.class), eq(DealingRangeHistory.class), eq(HISTORY))).thenReturn(List.of());
+    }
+
+    @Test
+    void windowIsTheLastDaysTimes24Hours() {
+        // held Q1 since before the window, no record inside it
+        ZonedDateTime enteredQ1 = ZonedDateTime.now().minusDays(3);
+        when(mongoTemplate.findOne(any(Query.class), eq(DealingRangeHistory.class), eq(HISTORY))).thenReturn(
+            DealingRangeHistory.builder().currentQuadrant(Quadrant.Q1_75_100).timestamp(enteredQ1).build()
+        );
+        when(dealingRangeStateCache.get("NQ", EventInterval.M15)).thenReturn(
+            Optional.of(DealingRangeSnapshot.builder().currentQuadrant(Quadrant.Q1_75_100).rangeCalculatedAt(enteredQ1).build())
+        );
+
+        Map<Quadrant, DealingRangeStatsService.QuadrantTotals> totals = dealingRangeStatsService.getQuadrantTotals(
+            "NQ",
+            EventInterval.M15,
+            1
+        );
+
+        assertThat(totals.get(Quadrant.Q1_75_100).events()).isZero();
+        assertThat(totals.get(Quadrant.Q1_75_100).seconds()).isCloseTo(Duration.ofDays(1).toSeconds(), within(2L));
+        assertThat(totals.get(Quadrant.Q3_25_50)).isEqualTo(new DealingRangeStatsService.QuadrantTotals(2, 100));
+    }
+
+    @Test
+    void rollupsAreReadForTheWholeDatesAfterTheFirstOne() {
+        LocalDate firstDate = LocalDate.ofInstant(Instant.now().minus(Duration.ofDays(7)), SessionCalendar.NEW_YORK);
+
+        dealingRangeStatsService.getQuadrantTotals("NQ", EventInterval.M15, 7);
+
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(DealingRangeStatsService.COLLECTION), eq(Document.class));
+        Document match = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(0).get("$match", Document.class);
+        assertThat(match.get("date", Document.class)).isEqualTo(new Document("$gt", firstDate.toString()));
+    }
+}
@@ -0,0 +1,159 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.kraj.tradeapp.core.model.MappedBarStore;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.kraj.tradeapp.core.model.OHLCCandle;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Test class for the warm-up and live updates of {@link IndicatorEngineService}.
+ */
+class IndicatorEngineServiceTest {
+
+    private static final long MINUTE = 60_000L;
+
+    // 10:00 New York, on the 5m grid
+    private static final long T0 = Instant.parse("2024-03-05T15:00:00Z").toEpochMilli();
+
+    private final BarCacheService barCacheService = mock(BarCacheService.class);
+    private final OhlcJdbcRepository ohlcJdbcRepository = mock(OhlcJdbcRepository.class);
+    private final IndicatorEngineService.BarListener listener = mock(IndicatorEngineService.BarListener.class);
+    private final IndicatorEngineService indicatorEngineService = new IndicatorEngineService(
+        barCacheService,
+        ohlcJdbcRepository,
+        List.of(listener)
+    );
+
+    @BeforeEach
+    void setUp() {
+        configure(indicatorEngineService, "5m");
+    }
+
+    @Test
+    void warmUpReplaysTableHistoryAndDropsTheFormingBucket() {
+        // 10:00 to 10:09 in ohlc_data: the 10:00 bucket is complete, the 10:05 bucket is still forming
+        Instant until = Instant.ofEpochMilli(T0 + 10 * MINUTE);
+        doAnswer(invocation -> {
+            invocation.<MappedBarStore.Sink>getArgument(3).put(bars(T0, 10));
+            return 10;
+        })
+            .when(ohlcJdbcRepository)
+            .streamBars(eq("NQ"), eq(until.minus(Duration.ofHours(120))), eq(until), any(MappedBarStore.Sink.class));
+
+        indicatorEngineService.onBars(bars(T0 + 10 * MINUTE, 1), List.of());
+
+        IndicatorEngineService.IndicatorValues minute = indicatorEngineService.getIndicators("NQ", "1m").orElseThrow();
+        assertThat(minute.bars()).isEqualTo(11L);
+        assertThat(minute.asOf()).isEqualTo(until);
+        IndicatorEngineService.IndicatorValues fiveMinute = indicatorEngineService.getIndicators("NQ", "5m").orElseThrow();
+        assertThat(fiveMinute.bars()).isEqualTo(1L);
+        assertThat(fiveMinute.asOf()).isEqualTo(Instant.parse("2024-03-05T10:00:00Z"));
+        assertThat(fiveMinute.rollingHigh()).isEqualTo(OHLCBarBuffer.toDecimal(OHLCBarBuffer.toScaled(5.5)));
+
+        verify(listener, times(12)).onBar(eq("NQ"), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(listener).onUpdated("NQ", T0 + 10 * MINUTE);
+    }
+
+    @Test
+    void cachedSymbolIsWarmedUpWithoutTheTable() {
+        doAnswer(invocation -> {
+            OHLCBarBuffer history = bars(T0, 3);
+            MappedBarStore.BarVisitor visitor = invocation.getArgument(3);
+            for (int i = 0; i < history.size(); i++) {
+                visitor.bar(
+                    history.epochMillis(i),
+                    history.openScaled(i),
+                    history.highScaled(i),
+                    history.lowScaled(i),
+                    history.closeScaled(i)
+                );
+            }
+            return true;
+        })
+            .when(barCacheService)
+            .forEachBar(eq("NQ"), any(), any(), any(MappedBarStore.BarVisitor.class));
+
+        indicatorEngineService.onBars(bars(T0 + 3 * MINUTE, 1), List.of());
+
+        // seeded with the mean of 1, 2 and 3 from the cache, then the live close of 1
+        assertThat(indicatorEngineService.getIndicators("NQ", "1m").orElseThrow().ema().get(3)).isEqualTo(
+            OHLCBarBuffer.toDecimal(OHLCBarBuffer.toScaled(1.5))
+        );
+        verify(ohlcJdbcRepository, never()).streamBars(any(), any(), any(), any(MappedBarStore.Sink.class));
+    }
+
+    @Test
+    void onlyNewClosedCandlesAreApplied() {
+        indicatorEngineService.onBars(bars(T0, 5), List.of());
+
+        long bucket = Instant.parse("2024-03-05T10:00:00Z").getEpochSecond();
+        long next = bucket + 300;
+        indicatorEngineService.onBars(bars(T0 + 5 * MINUTE, 1), List.of(candle(bucket, true), candle(next, false)));
+        indicatorEngineService.onBars(bars(T0 + 6 * MINUTE, 1), List.of(candle(bucket, true)));
+
+        assertThat(indicatorEngineService.getIndicators("NQ", "5m").orElseThrow().bars()).isEqualTo(1L);
+        assertThat(indicatorEngineService.getIndicators("NQ")).hasSize(2);
+        assertThat(indicatorEngineService.getIndicators("ES")).isEmpty();
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        IndicatorEngineService.BarListener failing = mock(IndicatorEngineService.BarListener.class);
+        doThrow(new IllegalStateException("boom")).when(failing).onBar(any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        IndicatorEngineService engine = new IndicatorEngineService(barCacheService, ohlcJdbcRepository, List.of(failing, listener));
+        configure(engine);
+
+        engine.onBars(bars(T0, 2), List.of());
+
+        verify(listener, times(2)).onBar(eq("NQ"), eq("1m"), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(listener).onUpdated("NQ", T0 + MINUTE);
+    }
+
+    private static void configure(IndicatorEngineService engine, String... timeframes) {
+        ReflectionTestUtils.setField(engine, "timeframes", timeframes);
+        ReflectionTestUtils.setField(engine, "emaPeriods", new int[] { 3 });
+        ReflectionTestUtils.setField(engine, "rsiPeriod", 14);
+        ReflectionTestUtils.setField(engine, "atrPeriod", 14);
+        ReflectionTestUtils.setField(engine, "rangePeriod", 20);
+        ReflectionTestUtils.setField(engine, "warmupHours", 120L);
+    }
+
+    // one bar per minute from epochMillis, closing at 1, 2, 3, ... with a range of +-0.5
+    private static OHLCBarBuffer bars(long epochMillis, int count) {
+        OHLCBarBuffer bars = new OHLCBarBuffer();
+        bars.setSymbol("NQ");
+        for (int i = 0; i < count; i++) {
+            double price = i + 1;
+            bars.add(
+                epochMillis + i * MINUTE,
+                OHLCBarBuffer.toScaled(price),
+                OHLCBarBuffer.toScaled(price + 0.5),
+                OHLCBarBuffer.toScaled(price - 0.5),
+                OHLCBarBuffer.toScaled(price)
+            );
+        }
+        return bars;
+    }
+
+    private static OHLCCandle candle(long bucketStartSeconds, boolean closed) {
+        long price = OHLCBarBuffer.toScaled(1.0);
+        return new OHLCCandle("NQ", "5m", bucketStartSeconds, 0, price, price, price, price, closed);
+    }
+}
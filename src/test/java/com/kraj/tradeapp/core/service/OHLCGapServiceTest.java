@@ -0,0 +1,93 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.kraj.tradeapp.core.model.OHLCGap;
+import com.kraj.tradeapp.core.repository.OhlcJdbcRepository;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the gap scan of {@link OHLCGapService}.
+ */
+class OHLCGapServiceTest {
+
+    private final OhlcJdbcRepository ohlcJdbcRepository = mock(OhlcJdbcRepository.class);
+    private final OHLCGapService ohlcGapService = new OHLCGapService(
+        ohlcJdbcRepository,
+        mock(BarFeed.class),
+        mock(BarCacheService.class),
+        mock(OHLCService.class)
+    );
+
+    @Test
+    void scanIsNarrowedToWholeMinutes() {
+        when(ohlcJdbcRepository.findBarHoles(anyString(), any(), any())).thenReturn(List.of());
+
+        ohlcGapService.scan("NQ", Instant.parse("2024-03-05T20:00:30Z"), Instant.parse("2024-03-05T20:10:45Z"));
+
+        verify(ohlcJdbcRepository).findBarHoles("NQ", Instant.parse("2024-03-05T20:01:00Z"), Instant.parse("2024-03-05T20:10:00Z"));
+    }
+
+    @Test
+    void scanShorterThanAMinuteReadsNothing() {
+        assertThat(ohlcGapService.scan("NQ", Instant.parse("2024-03-05T20:00:10Z"), Instant.parse("2024-03-05T20:00:50Z"))).isEmpty();
+
+        verifyNoInteractions(ohlcJdbcRepository);
+    }
+
+    @Test
+    void leadingAndTrailingHolesAreKeptAndTheDailyHaltIsDropped() {
+        // 15:00 to 18:30 New York (EST); no bars before 15:04 or after 16:29
+        Instant from = Instant.parse("2024-03-05T20:00:00Z");
+        Instant to = Instant.parse("2024-03-05T23:30:00Z");
+        when(ohlcJdbcRepository.findBarHoles("NQ", from, to)).thenReturn(
+            List.of(gap("2024-03-05T20:00:00Z", "2024-03-05T20:04:00Z"), gap("2024-03-05T21:30:00Z", "2024-03-05T23:30:00Z"))
+        );
+
+        List<OHLCGap> found = ohlcGapService.scan("NQ", from, to);
+
+        assertThat(found).containsExactly(
+            gap("2024-03-05T20:00:00Z", "2024-03-05T20:04:00Z"),
+            gap("2024-03-05T21:30:00Z", "2024-03-05T22:00:00Z"),
+            gap("2024-03-05T23:00:00Z", "2024-03-05T23:30:00Z")
+        );
+        assertThat(ohlcGapService.getGaps()).containsEntry("NQ", found);
+    }
+
+    @Test
+    void weekendOverTheSpringForwardIsNotAGap() {
+        // Friday 16:30 EST to Sunday 18:10 EDT
+        Instant from = Instant.parse("2024-03-08T21:30:00Z");
+        Instant to = Instant.parse("2024-03-10T22:10:00Z");
+        when(ohlcJdbcRepository.findBarHoles("NQ", from, to)).thenReturn(List.of(gap("2024-03-08T21:30:00Z", "2024-03-10T22:10:00Z")));
+
+        assertThat(ohlcGapService.scan("NQ", from, to)).containsExactly(
+            gap("2024-03-08T21:30:00Z", "2024-03-08T22:00:00Z"),
+            gap("2024-03-10T22:00:00Z", "2024-03-10T22:10:00Z")
+        );
+    }
+
+    @Test
+    void rescanReplacesTheGapsRecordedForItsRange() {
+        Instant from = Instant.parse("2024-03-05T14:00:00Z");
+        Instant to = Instant.parse("2024-03-05T15:00:00Z");
+        when(ohlcJdbcRepository.findBarHoles("NQ", from, to)).thenReturn(List.of(gap("2024-03-05T14:10:00Z", "2024-03-05T14:20:00Z")));
+        ohlcGapService.scan("NQ", from, to);
+        when(ohlcJdbcRepository.findBarHoles("NQ", from, to)).thenReturn(List.of());
+
+        assertThat(ohlcGapService.scan("NQ", from, to)).isEmpty();
+        assertThat(ohlcGapService.getGaps()).isEmpty();
+    }
+
+    private static OHLCGap gap(String from, String to) {
+        return new OHLCGap("NQ", Instant.parse(from), Instant.parse(to));
+    }
+}
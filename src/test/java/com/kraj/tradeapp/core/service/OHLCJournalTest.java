@@ -0,0 +1,67 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link OHLCJournal}.
+ */
+class OHLCJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void pendingPayloadsAreReplayedInSequenceOrder() throws Exception {
+        OHLCJournal journal = new OHLCJournal(directory);
+        OHLCJournal.Entry first = journal.append(bytes("first"), EnumSet.allOf(OHLCIngestService.Sink.class));
+        OHLCJournal.Entry second = journal.append(bytes("second"), EnumSet.of(OHLCIngestService.Sink.POSTGRES));
+
+        List<OHLCJournal.Entry> pending = new OHLCJournal(directory).pending();
+
+        assertThat(pending).extracting(OHLCJournal.Entry::sequence).containsExactly(first.sequence(), second.sequence());
+        assertThat(pending.get(0).sinks()).containsExactlyInAnyOrder(OHLCIngestService.Sink.MONGO, OHLCIngestService.Sink.POSTGRES);
+        assertThat(pending.get(1).sinks()).containsExactly(OHLCIngestService.Sink.POSTGRES);
+        assertThat(new String(pending.get(1).read(), StandardCharsets.UTF_8)).isEqualTo("second");
+    }
+
+    @Test
+    void deletedPayloadsAreNotReplayed() throws Exception {
+        OHLCJournal journal = new OHLCJournal(directory);
+        OHLCJournal.Entry stored = journal.append(bytes("stored"), EnumSet.of(OHLCIngestService.Sink.MONGO));
+        OHLCJournal.Entry kept = journal.append(bytes("kept"), EnumSet.of(OHLCIngestService.Sink.MONGO));
+
+        journal.delete(stored);
+
+        assertThat(journal.pending()).extracting(OHLCJournal.Entry::sequence).containsExactly(kept.sequence());
+    }
+
+    @Test
+    void reopenedJournalContinuesTheSequence() throws Exception {
+        OHLCJournal.Entry last = new OHLCJournal(directory).append(bytes("a"), EnumSet.of(OHLCIngestService.Sink.MONGO));
+
+        OHLCJournal.Entry next = new OHLCJournal(directory).append(bytes("b"), EnumSet.of(OHLCIngestService.Sink.MONGO));
+
+        assertThat(next.sequence()).isGreaterThan(last.sequence());
+    }
+
+    @Test
+    void incompleteAndForeignFilesAreIgnored() throws Exception {
+        Files.writeString(directory.resolve("00000000000000000007.MONGO.json.tmp"), "partial");
+        Files.writeString(directory.resolve("notes.txt"), "x");
+        Files.writeString(directory.resolve("00000000000000000008.UNKNOWN.json"), "x");
+
+        assertThat(new OHLCJournal(directory).pending()).isEmpty();
+    }
+
+    private static byte[] bytes(String payload) {
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link OHLCSinkWorker}.
+ */
+class OHLCSinkWorkerTest {
+
+    private OHLCSinkWorker worker;
+
+    @AfterEach
+    void stopWorker() {
+        if (worker != null) {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void failedWriteIsRetriedThenReportedOnceAsFailed() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Boolean> results = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        worker = new OHLCSinkWorker(
+            OHLCIngestService.Sink.MONGO,
+            4,
+            4,
+            3,
+            1,
+            bars -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("down");
+            },
+            (sink, pending, stored) -> {
+                results.add(stored);
+                done.countDown();
+            }
+        );
+        worker.start();
+
+        worker.put(pending(1, "NQ", 1_000L));
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(results).containsExactly(false);
+    }
+
+    @Test
+    void queuedPayloadsOfOneSymbolAreMergedInArrivalOrder() throws Exception {
+        List<OHLCBarBuffer> writes = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        worker = new OHLCSinkWorker(
+            OHLCIngestService.Sink.POSTGRES,
+            8,
+            8,
+            1,
+            1,
+            bars -> {
+                release.await();
+                writes.add(bars);
+            },
+            (sink, pending, stored) -> done.countDown()
+        );
+        // both payloads are queued before the worker drains, so they land in one batch
+        worker.put(pending(1, "ES", 1_000L));
+        worker.put(pending(2, "ES", 2_000L));
+        worker.start();
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(writes).hasSize(1);
+        assertThat(writes.get(0).size()).isEqualTo(2);
+        assertThat(writes.get(0).epochMillis(0)).isEqualTo(1_000L);
+        assertThat(writes.get(0).epochMillis(1)).isEqualTo(2_000L);
+    }
+
+    private static OHLCIngestService.Pending pending(long sequence, String symbol, long epochMillis) {
+        OHLCBarBuffer bars = new OHLCBarBuffer(16);
+        bars.setSymbol(symbol);
+        long price = OHLCBarBuffer.toScaled(100.0);
+        bars.add(epochMillis, price, price, price, price);
+        OHLCJournal.Entry entry = new OHLCJournal.Entry(sequence, Path.of(sequence + ".json"), EnumSet.of(OHLCIngestService.Sink.POSTGRES));
+        return new OHLCIngestService.Pending(entry, bars, 1);
+    }
+}
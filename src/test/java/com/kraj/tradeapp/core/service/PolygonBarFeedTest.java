@@ -0,0 +1,151 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kraj.tradeapp.config.TradeAppConfigOptions;
+import com.kraj.tradeapp.core.model.OHLCBarBuffer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Test class for the {@link PolygonBarFeed}, against a local HTTP stub of the aggregates endpoint.
+ */
+class PolygonBarFeedTest {
+
+    private static final long FROM = Instant.parse("2024-03-04T14:30:00Z").toEpochMilli();
+    private static final long TO = FROM + 10 * 60_000L;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void followsNextUrlAcrossPagesAndRetriesRateLimitedRequests() throws Exception {
+        AtomicInteger firstPageCalls = new AtomicInteger();
+        server.createContext(
+            "/v2/aggs/ticker/",
+            exchange -> {
+                if (firstPageCalls.incrementAndGet() == 1) {
+                    exchange.getResponseHeaders().add("Retry-After", "0");
+                    respond(exchange, 429, "{\"status\":\"ERROR\"}");
+                    return;
+                }
+                respond(
+                    exchange,
+                    200,
+                    "{\"status\":\"OK\",\"results\":[" +
+                    bar(FROM - 60_000L, 1) +
+                    "," +
+                    bar(FROM, 2) +
+                    "," +
+                    bar(FROM + 60_000L, 3) +
+                    "],\"next_url\":\"" +
+                    baseUrl +
+                    "/page2?cursor=abc\"}"
+                );
+            }
+        );
+        server.createContext(
+            "/page2",
+            exchange -> respond(exchange, 200, "{\"results\":[" + bar(FROM + 120_000L, 4) + "," + bar(TO, 5) + "]}")
+        );
+
+        List<Long> epochs = new ArrayList<>();
+        List<Long> closes = new ArrayList<>();
+        int fetched = feed("secret").fetch(
+            "NQ",
+            Instant.ofEpochMilli(FROM),
+            Instant.ofEpochMilli(TO),
+            page -> {
+                assertThat(page.getSymbol()).isEqualTo("NQ");
+                for (int i = 0; i < page.size(); i++) {
+                    epochs.add(page.epochMillis(i));
+                    closes.add(page.closeScaled(i));
+                }
+            }
+        );
+
+        // bars outside from <= t < to are dropped; the 429 was retried once
+        assertThat(fetched).isEqualTo(3);
+        assertThat(epochs).containsExactly(FROM, FROM + 60_000L, FROM + 120_000L);
+        assertThat(closes).containsExactly(OHLCBarBuffer.toScaled(2.5), OHLCBarBuffer.toScaled(3.5), OHLCBarBuffer.toScaled(4.5));
+        assertThat(firstPageCalls.get()).isEqualTo(2);
+        assertThat(requests).hasSize(3);
+        assertThat(requests.get(0)).startsWith("/v2/aggs/ticker/I%3ANDX/range/1/minute/" + FROM + "/" + (TO - 1)).contains("limit=50000");
+        assertThat(requests.get(2)).isEqualTo("/page2?cursor=abc");
+        assertThat(authorizations).containsOnly("Bearer secret");
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() throws Exception {
+        server.createContext("/v2/aggs/ticker/", exchange -> respond(exchange, 503, ""));
+
+        PolygonBarFeed feed = feed("");
+
+        assertThatThrownBy(() -> feed.fetch("ES", Instant.ofEpochMilli(FROM), Instant.ofEpochMilli(TO), page -> {}))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("503");
+        assertThat(requests).hasSize(3);
+        assertThat(authorizations).isEmpty();
+    }
+
+    private PolygonBarFeed feed(String apiKey) {
+        TradeAppConfigOptions options = new TradeAppConfigOptions();
+        options.setPolygonIOApiKey(apiKey);
+        PolygonBarFeed feed = new PolygonBarFeed(new ObjectMapper(), options);
+        ReflectionTestUtils.setField(feed, "baseUrl", baseUrl + "/");
+        ReflectionTestUtils.setField(feed, "tickers", new String[] { "NQ=I:NDX" });
+        ReflectionTestUtils.setField(feed, "requestsPerMinute", 60_000);
+        ReflectionTestUtils.setField(feed, "requestTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(feed, "retryMaxAttempts", 3);
+        ReflectionTestUtils.setField(feed, "retryBackoffMs", 1L);
+        feed.init();
+        return feed;
+    }
+
+    private static String bar(long epochMillis, int price) {
+        String format = "{\"v\":10,\"t\":%d,\"o\":%d,\"h\":%d.75,\"l\":%d.25,\"c\":%d.5,\"n\":3}";
+        return String.format(format, epochMillis, price, price, price, price);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        requests.add(exchange.getRequestURI().toString());
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            authorizations.add(authorization);
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.kraj.tradeapp.core.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kraj.tradeapp.core.model.WireEncoding;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Test class for the {@link SubscriptionRegistryService}.
+ */
+class SubscriptionRegistryServiceTest {
+
+    private final SubscriptionRegistryService registry = new SubscriptionRegistryService();
+
+    @Test
+    void patternSubscriptionMatchesConcreteDestinations() {
+        registry.onSubscribe(subscribe("s1", "sub-1", "/topic/events/NQ/**", null));
+
+        assertThat(registry.hasSubscribers("/topic/events/NQ/M5")).isTrue();
+        assertThat(registry.hasSubscribers("/topic/events/ES/M5")).isFalse();
+    }
+
+    @Test
+    void encodedSubscriptionIsRecordedUnderItsBrokerDestination() {
+        registry.onSubscribe(subscribe("s1", "sub-1", "/topic/dealing-range/NQ", "cbor"));
+
+        assertThat(registry.hasSubscribers("/topic/cbor/dealing-range/NQ")).isTrue();
+        assertThat(registry.hasSubscribers("/topic/dealing-range/NQ")).isFalse();
+    }
+
+    @Test
+    void unsubscribeAndDisconnectReleaseTheirDestinations() {
+        registry.onSubscribe(subscribe("s1", "sub-1", "/topic/dealing-range", null));
+        registry.onSubscribe(subscribe("s2", "sub-1", "/topic/dealing-range", null));
+        assertThat(registry.getSubscriptionCounts()).containsEntry("/topic/dealing-range", 2);
+
+        registry.onUnsubscribe(unsubscribe("s1", "sub-1"));
+        assertThat(registry.getSubscriptionCounts()).containsEntry("/topic/dealing-range", 1);
+
+        registry.onDisconnect(disconnect("s2"));
+        assertThat(registry.hasSubscribers("/topic/dealing-range")).isFalse();
+        assertThat(registry.getSubscriptionCounts()).isEmpty();
+    }
+
+    @Test
+    void concurrentSubscribeAndUnsubscribeKeepCountsExact() throws Exception {
+        int threads = 8;
+        int rounds = 2_000;
+        // one session per thread stays subscribed throughout, the rest churn on the same destination
+        for (int t = 0; t < threads; t++) {
+            registry.onSubscribe(subscribe("keep-" + t, "sub", "/topic/dealing-range/NQ", null));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String session = "churn-" + t;
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < rounds; i++) {
+                        registry.onSubscribe(subscribe(session, "sub", "/topic/dealing-range/NQ", null));
+                        registry.onUnsubscribe(unsubscribe(session, "sub"));
+                    }
+                    return null;
+                })
+            );
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(registry.getSubscriptionCounts()).containsEntry("/topic/dealing-range/NQ", threads);
+        for (int t = 0; t < threads; t++) {
+            registry.onDisconnect(disconnect("keep-" + t));
+        }
+        assertThat(registry.hasSubscribers("/topic/dealing-range/NQ")).isFalse();
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination, String encoding) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        if (encoding != null) {
+            accessor.setNativeHeader(WireEncoding.HEADER, encoding);
+        }
+        return new SessionSubscribeEvent(SubscriptionRegistryServiceTest.class, message(accessor));
+    }
+
+    private static SessionUnsubscribeEvent unsubscribe(String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        return new SessionUnsubscribeEvent(SubscriptionRegistryServiceTest.class, message(accessor));
+    }
+
+    private static SessionDisconnectEvent disconnect(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        return new SessionDisconnectEvent(SubscriptionRegistryServiceTest.class, message(accessor), sessionId, CloseStatus.NORMAL);
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}